@@ -0,0 +1,73 @@
+package net.optionfactory.otomy.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import net.optionfactory.otomy.MappingFunction;
+import net.optionfactory.otomy.TypedMapper;
+import net.optionfactory.otomy.benchmarks.Fixtures.Flat;
+import net.optionfactory.otomy.benchmarks.Fixtures.FlatDto;
+import net.optionfactory.otomy.benchmarks.Fixtures.Nested;
+import net.optionfactory.otomy.benchmarks.Fixtures.NestedDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Flat and nested bean mappings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeansBenchmark {
+
+    @Param({"Disabled", "Enabled"})
+    public TypedMapper.Tracing tracing;
+
+    private TypedMapper mapper;
+    private MappingFunction<Flat, FlatDto> prepared;
+    private Flat flat;
+    private Nested nested;
+
+    @Setup
+    public void setup() {
+        mapper = Fixtures.mapper(tracing);
+        prepared = mapper.prepare(Flat.class, FlatDto.class);
+        flat = Fixtures.flat(1);
+        nested = Fixtures.nested(10);
+    }
+
+    @Benchmark
+    public FlatDto flat() {
+        return mapper.map(flat, FlatDto.class);
+    }
+
+    @Benchmark
+    public FlatDto flatPrepared() {
+        return prepared.apply(flat);
+    }
+
+    @Benchmark
+    public FlatDto flatHandWritten() {
+        return HandWritten.flat(flat);
+    }
+
+    @Benchmark
+    public NestedDto nested() {
+        return mapper.map(nested, NestedDto.class);
+    }
+
+    @Benchmark
+    public NestedDto nestedHandWritten() {
+        return HandWritten.nested(nested);
+    }
+}
@@ -0,0 +1,36 @@
+package net.optionfactory.otomy.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs every benchmark with the GC profiler, on one thread and then on
+ * doubling thread counts up to the available processors. Any argument is
+ * handed to the JMH command line instead, e.g.
+ * {@code java -jar target/benchmarks.jar BeansBenchmark -t 4 -prof gc}.
+ */
+public class Benchmarks {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 0) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        final int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= processors; threads = threads == processors ? processors + 1 : Math.min(threads * 2, processors)) {
+            run(threads);
+        }
+    }
+
+    private static void run(int threads) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(Benchmarks.class.getPackage().getName() + ".*Benchmark")
+                .addProfiler(GCProfiler.class)
+                .threads(threads)
+                .build();
+        new Runner(options).run();
+    }
+}
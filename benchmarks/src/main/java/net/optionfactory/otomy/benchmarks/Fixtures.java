@@ -0,0 +1,114 @@
+package net.optionfactory.otomy.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import net.optionfactory.otomy.TypedMapper;
+import net.optionfactory.otomy.converters.CachingInspector;
+import net.optionfactory.otomy.converters.strategies.Strategies;
+import net.optionfactory.otomy.types.Typed;
+
+/**
+ * The beans mapped by the benchmarks.
+ */
+public class Fixtures {
+
+    public static class Flat {
+
+        public String name;
+        public String email;
+        public int age;
+        public long id;
+        public double score;
+        public boolean active;
+        public Integer rank;
+        public Long version;
+    }
+
+    public static class FlatDto {
+
+        public String name;
+        public String email;
+        public int age;
+        public long id;
+        public double score;
+        public boolean active;
+        public Integer rank;
+        public Long version;
+    }
+
+    public static class Nested {
+
+        public String name;
+        public Flat main;
+        public List<Flat> items;
+        public Map<String, Flat> byName;
+    }
+
+    public static class NestedDto {
+
+        public String name;
+        public FlatDto main;
+        public List<FlatDto> items;
+        public Map<String, FlatDto> byName;
+    }
+
+    public List<Flat> flats;
+    public List<FlatDto> flatDtos;
+    public Map<String, Flat> flatsByName;
+    public Map<String, FlatDto> flatDtosByName;
+    public Optional<Integer> optional;
+
+    public static Typed field(String name) {
+        try {
+            return Typed.field(Fixtures.class.getField(name), Typed.class_(Fixtures.class));
+        } catch (NoSuchFieldException ex) {
+            throw new IllegalArgumentException(ex);
+        }
+    }
+
+    public static TypedMapper mapper(TypedMapper.Tracing tracing) {
+        return new TypedMapper(new CachingInspector(), Strategies.defaults(), tracing);
+    }
+
+    public static Flat flat(int i) {
+        final Flat flat = new Flat();
+        flat.name = "name-" + i;
+        flat.email = "user" + i + "@example.com";
+        flat.age = i % 100;
+        flat.id = i;
+        flat.score = i / 3d;
+        flat.active = i % 2 == 0;
+        flat.rank = i;
+        flat.version = (long) i;
+        return flat;
+    }
+
+    public static List<Flat> flats(int size) {
+        final List<Flat> flats = new ArrayList<>(size);
+        for (int i = 0; i != size; ++i) {
+            flats.add(flat(i));
+        }
+        return flats;
+    }
+
+    public static Map<String, Flat> flatsByName(int size) {
+        final Map<String, Flat> flats = new LinkedHashMap<>();
+        for (int i = 0; i != size; ++i) {
+            final Flat flat = flat(i);
+            flats.put(flat.name, flat);
+        }
+        return flats;
+    }
+
+    public static Nested nested(int size) {
+        final Nested nested = new Nested();
+        nested.name = "nested";
+        nested.main = flat(-1);
+        nested.items = flats(size);
+        nested.byName = flatsByName(size);
+        return nested;
+    }
+}
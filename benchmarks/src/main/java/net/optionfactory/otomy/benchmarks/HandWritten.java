@@ -0,0 +1,66 @@
+package net.optionfactory.otomy.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import net.optionfactory.otomy.benchmarks.Fixtures.Flat;
+import net.optionfactory.otomy.benchmarks.Fixtures.FlatDto;
+import net.optionfactory.otomy.benchmarks.Fixtures.Nested;
+import net.optionfactory.otomy.benchmarks.Fixtures.NestedDto;
+
+/**
+ * The mapping a developer would write by hand, the ideal every mapper
+ * benchmark is compared to.
+ */
+public class HandWritten {
+
+    public static FlatDto flat(Flat source) {
+        if (source == null) {
+            return null;
+        }
+        final FlatDto target = new FlatDto();
+        target.name = source.name;
+        target.email = source.email;
+        target.age = source.age;
+        target.id = source.id;
+        target.score = source.score;
+        target.active = source.active;
+        target.rank = source.rank;
+        target.version = source.version;
+        return target;
+    }
+
+    public static List<FlatDto> flats(List<Flat> source) {
+        final List<FlatDto> target = new ArrayList<>(source.size());
+        for (Flat flat : source) {
+            target.add(flat(flat));
+        }
+        return target;
+    }
+
+    public static FlatDto[] flats(Flat[] source) {
+        final FlatDto[] target = new FlatDto[source.length];
+        for (int i = 0; i != source.length; ++i) {
+            target[i] = flat(source[i]);
+        }
+        return target;
+    }
+
+    public static Map<String, FlatDto> flatsByName(Map<String, Flat> source) {
+        final Map<String, FlatDto> target = new LinkedHashMap<>();
+        for (Map.Entry<String, Flat> entry : source.entrySet()) {
+            target.put(entry.getKey(), flat(entry.getValue()));
+        }
+        return target;
+    }
+
+    public static NestedDto nested(Nested source) {
+        final NestedDto target = new NestedDto();
+        target.name = source.name;
+        target.main = flat(source.main);
+        target.items = flats(source.items);
+        target.byName = flatsByName(source.byName);
+        return target;
+    }
+}
@@ -0,0 +1,88 @@
+package net.optionfactory.otomy.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.optionfactory.otomy.TypedMapper;
+import net.optionfactory.otomy.benchmarks.Fixtures.Flat;
+import net.optionfactory.otomy.benchmarks.Fixtures.FlatDto;
+import net.optionfactory.otomy.types.Typed;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lists, arrays and maps of beans of various sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IterablesBenchmark {
+
+    @Param({"Disabled", "Enabled"})
+    public TypedMapper.Tracing tracing;
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private final Typed flatsType = Fixtures.field("flats");
+    private final Typed flatDtosType = Fixtures.field("flatDtos");
+    private final Typed flatsByNameType = Fixtures.field("flatsByName");
+    private final Typed flatDtosByNameType = Fixtures.field("flatDtosByName");
+    private final Typed flatArrayType = Typed.class_(Flat[].class);
+    private final Typed flatDtoArrayType = Typed.class_(FlatDto[].class);
+
+    private TypedMapper mapper;
+    private List<Flat> list;
+    private Flat[] array;
+    private Map<String, Flat> map;
+
+    @Setup
+    public void setup() {
+        mapper = Fixtures.mapper(tracing);
+        list = Fixtures.flats(size);
+        array = list.toArray(new Flat[0]);
+        map = Fixtures.flatsByName(size);
+    }
+
+    @Benchmark
+    public List<FlatDto> list() {
+        return mapper.map(flatsType, list, flatDtosType);
+    }
+
+    @Benchmark
+    public List<FlatDto> listHandWritten() {
+        return HandWritten.flats(list);
+    }
+
+    @Benchmark
+    public FlatDto[] array() {
+        return mapper.map(flatArrayType, array, flatDtoArrayType);
+    }
+
+    @Benchmark
+    public FlatDto[] arrayHandWritten() {
+        return HandWritten.flats(array);
+    }
+
+    @Benchmark
+    public Map<String, FlatDto> map() {
+        return mapper.map(flatsByNameType, map, flatDtosByNameType);
+    }
+
+    @Benchmark
+    public Map<String, FlatDto> mapHandWritten() {
+        return HandWritten.flatsByName(map);
+    }
+}
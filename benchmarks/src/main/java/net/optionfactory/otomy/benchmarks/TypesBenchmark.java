@@ -0,0 +1,66 @@
+package net.optionfactory.otomy.benchmarks;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.optionfactory.otomy.benchmarks.Fixtures.Nested;
+import net.optionfactory.otomy.benchmarks.Fixtures.NestedDto;
+import net.optionfactory.otomy.converters.CachingInspector;
+import net.optionfactory.otomy.converters.Mapping;
+import net.optionfactory.otomy.types.Typed;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Type resolution and inspector lookups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypesBenchmark {
+
+    private final Typed nestedType = Typed.class_(Nested.class);
+    private final Typed nestedDtoType = Typed.class_(NestedDto.class);
+    private Field items;
+    private Typed itemsType;
+    private CachingInspector warm;
+
+    @Setup
+    public void setup() throws NoSuchFieldException {
+        items = Nested.class.getField("items");
+        itemsType = Typed.field(items, nestedType);
+        warm = new CachingInspector();
+        warm.mappings(nestedType, nestedDtoType);
+    }
+
+    @Benchmark
+    public Typed field() {
+        return Typed.field(items, nestedType);
+    }
+
+    @Benchmark
+    public Class<?> getGeneric() {
+        return itemsType.getGeneric(0).resolve();
+    }
+
+    @Benchmark
+    public List<Mapping> inspectorCold() {
+        return new CachingInspector().mappings(nestedType, nestedDtoType);
+    }
+
+    @Benchmark
+    public List<Mapping> inspectorWarm() {
+        return warm.mappings(nestedType, nestedDtoType);
+    }
+}
@@ -0,0 +1,80 @@
+package net.optionfactory.otomy.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import net.optionfactory.otomy.TypedMapper;
+import net.optionfactory.otomy.types.Typed;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Optionals, boxing, unboxing and number parsing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValuesBenchmark {
+
+    @Param({"Disabled", "Enabled"})
+    public TypedMapper.Tracing tracing;
+
+    private final Typed optionalType = Fixtures.field("optional");
+    private final Typed intType = Typed.class_(int.class);
+    private final Typed integerType = Typed.class_(Integer.class);
+    private final Typed stringType = Typed.class_(String.class);
+    private final Typed bigDecimalType = Typed.class_(BigDecimal.class);
+
+    private TypedMapper mapper;
+    private final Optional<Integer> optional = Optional.of(42);
+    private final Integer boxed = 42;
+    private final String number = "12345.678";
+    private final String integer = "12345";
+
+    @Setup
+    public void setup() {
+        mapper = Fixtures.mapper(tracing);
+    }
+
+    @Benchmark
+    public Integer optionalToNullable() {
+        return mapper.map(optionalType, optional, integerType);
+    }
+
+    @Benchmark
+    public Optional<Integer> nullableToOptional() {
+        return mapper.map(integerType, boxed, optionalType);
+    }
+
+    @Benchmark
+    public Integer boxing() {
+        return mapper.map(intType, 42, integerType);
+    }
+
+    @Benchmark
+    public int unboxing() {
+        return mapper.<Integer>map(integerType, boxed, intType);
+    }
+
+    @Benchmark
+    public int parseInt() {
+        return mapper.<Integer>map(stringType, integer, intType);
+    }
+
+    @Benchmark
+    public BigDecimal parseBigDecimal() {
+        return mapper.map(stringType, number, bigDecimalType);
+    }
+}
@@ -0,0 +1,292 @@
+package net.optionfactory.otomy.processor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * The source of the implementation of a {@link Mapping} interface.
+ */
+class MapperSource {
+
+    private static final String TYPED = "net.optionfactory.otomy.types.Typed";
+    private static final String MAPPER = "net.optionfactory.otomy.Mapper";
+    private static final String FUNCTION = "net.optionfactory.otomy.MappingFunction<Object, Object>";
+
+    /**
+     * Mirrors {@code Types.isImmutableFromJavaLang}.
+     */
+    private static final Set<String> IMMUTABLES = new HashSet<>(Arrays.asList(
+            "java.lang.Boolean", "java.lang.Byte", "java.lang.Character", "java.lang.Double",
+            "java.lang.Float", "java.lang.Integer", "java.lang.Long", "java.lang.Short",
+            "java.lang.String", "java.math.BigInteger", "java.math.BigDecimal",
+            "java.util.Locale", "java.util.UUID", "java.net.URI", "java.net.URL",
+            "java.net.Inet4Address", "java.net.Inet6Address", "java.net.InetSocketAddress"
+    ));
+
+    /**
+     * Types handled by strategies preceding beans.
+     */
+    private static final List<String> NOT_BEANS = Arrays.asList(
+            "java.lang.Iterable", "java.util.Map", "java.lang.Number", "java.util.Date",
+            "java.util.Calendar", "java.time.temporal.TemporalAccessor"
+    );
+
+    private final Elements elements;
+    private final Types types;
+    private final Properties properties;
+    private final TypeElement iface;
+    private final List<ExecutableElement> methods;
+    private final List<String> functions = new ArrayList<>();
+    private final List<Boolean> skipping = new ArrayList<>();
+
+    public MapperSource(ProcessingEnvironment env, TypeElement iface) {
+        this.elements = env.getElementUtils();
+        this.types = env.getTypeUtils();
+        this.properties = new Properties(elements, types);
+        this.iface = iface;
+        this.methods = ElementFilter.methodsIn(elements.getAllMembers(iface)).stream()
+                .filter(m -> m.getModifiers().contains(Modifier.ABSTRACT))
+                .collect(Collectors.toList());
+    }
+
+    public String packageName() {
+        return elements.getPackageOf(iface).getQualifiedName().toString();
+    }
+
+    public String simpleName() {
+        final StringBuilder name = new StringBuilder(iface.getSimpleName());
+        for (Element e = iface.getEnclosingElement(); e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+            name.insert(0, '_').insert(0, e.getSimpleName());
+        }
+        return name.append("Impl").toString();
+    }
+
+    public String qualifiedName() {
+        final String pkg = packageName();
+        return pkg.isEmpty() ? simpleName() : pkg + "." + simpleName();
+    }
+
+    public String generate() {
+        final StringBuilder body = new StringBuilder();
+        for (ExecutableElement method : methods) {
+            method(body, method);
+        }
+        final StringBuilder out = new StringBuilder();
+        if (!packageName().isEmpty()) {
+            out.append("package ").append(packageName()).append(";\n\n");
+        }
+        out.append("/**\n * Generated from {@link ").append(iface.getQualifiedName()).append("}.\n */\n");
+        out.append("@SuppressWarnings(\"unchecked\")\n");
+        out.append("public class ").append(simpleName()).append(" implements ").append(iface.getQualifiedName()).append(" {\n\n");
+        out.append("    private static final Object SKIP = new Object();\n");
+        for (int i = 0; i != functions.size(); ++i) {
+            out.append("    private final ").append(FUNCTION).append(" f").append(i).append(";\n");
+        }
+        out.append("\n");
+        out.append("    public ").append(simpleName()).append("() {\n");
+        out.append("        this(new net.optionfactory.otomy.TypedMapper(new net.optionfactory.otomy.converters.CachingInspector(), net.optionfactory.otomy.converters.strategies.Strategies.defaults(), net.optionfactory.otomy.TypedMapper.Tracing.Disabled));\n");
+        out.append("    }\n\n");
+        out.append("    public ").append(simpleName()).append("(").append(MAPPER).append(" mapper) {\n");
+        if (!functions.isEmpty()) {
+            out.append("        try {\n");
+            for (int i = 0; i != functions.size(); ++i) {
+                out.append("            this.f").append(i).append(" = mapper.prepare(").append(functions.get(i)).append(skipping.get(i) ? ", SKIP" : "").append(");\n");
+            }
+            out.append("        } catch (ReflectiveOperationException ex) {\n");
+            out.append("            throw new IllegalStateException(ex);\n");
+            out.append("        }\n");
+        }
+        out.append("    }\n");
+        out.append(body);
+        out.append("}\n");
+        return out.toString();
+    }
+
+    private void method(StringBuilder out, ExecutableElement method) {
+        final ExecutableType type = (ExecutableType) types.asMemberOf((DeclaredType) iface.asType(), method);
+        if (type.getParameterTypes().size() != 1 || type.getReturnType().getKind() == TypeKind.VOID || !method.getTypeParameters().isEmpty()) {
+            throw new UnsupportedMethodException(method, "mapping methods must take one argument, return a value and declare no type parameters");
+        }
+        final TypeMirror sourceType = type.getParameterTypes().get(0);
+        final TypeMirror targetType = type.getReturnType();
+        out.append("\n    @Override\n");
+        out.append("    public ").append(targetType).append(" ").append(method.getSimpleName()).append("(").append(sourceType).append(" source)");
+        if (!type.getThrownTypes().isEmpty()) {
+            out.append(" throws ").append(type.getThrownTypes().stream().map(TypeMirror::toString).collect(Collectors.joining(", ")));
+        }
+        out.append(" {\n");
+        if (!bean(sourceType) || !bean(targetType) || !instantiable((DeclaredType) targetType)) {
+            final String declaring = erasure(method.getEnclosingElement().asType());
+            final String parameter = erasure(method.getParameters().get(0).asType());
+            final String reflected = String.format("%s.class.getMethod(\"%s\", %s.class)", declaring, method.getSimpleName(), parameter);
+            final String implementation = String.format("%s.class_(%s.class)", TYPED, iface.getQualifiedName());
+            final String f = function(
+                    String.format("%s.parameter(%s, 0, %s)", TYPED, reflected, implementation),
+                    String.format("%s.returnType(%s, %s)", TYPED, reflected, implementation), false);
+            out.append("        return (").append(boxed(targetType)).append(") ").append(f).append(".apply(source);\n");
+            out.append("    }\n");
+            return;
+        }
+        out.append("        if (source == null) {\n");
+        out.append("            return null;\n");
+        out.append("        }\n");
+        out.append("        final ").append(targetType).append(" target = new ").append(targetType).append("();\n");
+        final Map<String, Properties.Property> mutators = properties.mutators((DeclaredType) targetType);
+        for (Properties.Property accessor : properties.accessors((DeclaredType) sourceType).values()) {
+            final Properties.Property mutator = mutators.get(accessor.label);
+            if (mutator == null) {
+                continue;
+            }
+            final String read = "source." + accessor.name() + (accessor.isField() ? "" : "()");
+            final ExecutableElement sibling = sibling(accessor.type, mutator.type);
+            if (immutable(accessor.type, mutator.type)) {
+                write(out, "        ", mutator, read);
+            } else if (sibling != null) {
+                write(out, "        ", mutator, "this." + sibling.getSimpleName() + "(" + read + ")");
+            } else {
+                // properties no converter applies to are skipped, as Beans does
+                final String f = function(typed((DeclaredType) sourceType, accessor, false), typed((DeclaredType) targetType, mutator, true), true);
+                final String v = "v" + f.substring("this.f".length());
+                out.append("        final Object ").append(v).append(" = ").append(f).append(".apply(").append(read).append(");\n");
+                out.append("        if (").append(v).append(" != SKIP) {\n");
+                write(out, "            ", mutator, "(" + boxed(mutator.type) + ") " + v);
+                out.append("        }\n");
+            }
+        }
+        out.append("        return target;\n");
+        out.append("    }\n");
+    }
+
+    private static void write(StringBuilder out, String indent, Properties.Property mutator, String value) {
+        if (mutator.isField()) {
+            out.append(indent).append("target.").append(mutator.name()).append(" = ").append(value).append(";\n");
+        } else {
+            out.append(indent).append("target.").append(mutator.name()).append("(").append(value).append(");\n");
+        }
+    }
+
+    /**
+     * @param skipping whether the function yields {@code SKIP} when no
+     * converter applies
+     */
+    private String function(String sourceTyped, String targetTyped, boolean skipping) {
+        functions.add(sourceTyped + ", " + targetTyped);
+        this.skipping.add(skipping);
+        return "this.f" + (functions.size() - 1);
+    }
+
+    private String typed(DeclaredType owner, Properties.Property property, boolean mutator) {
+        final String type = erasure(owner);
+        final String implementation = String.format("%s.class_(%s.class)", TYPED, type);
+        if (property.isField()) {
+            return String.format("%s.field(%s.class.getField(\"%s\"), %s)", TYPED, type, property.name(), implementation);
+        }
+        if (!mutator) {
+            return String.format("%s.returnType(%s.class.getMethod(\"%s\"), %s)", TYPED, type, property.name(), implementation);
+        }
+        final String parameter = erasure(property.method().getParameters().get(0).asType());
+        return String.format("%s.parameter(%s.class.getMethod(\"%s\", %s.class), 0, %s)", TYPED, type, property.name(), parameter, implementation);
+    }
+
+    private ExecutableElement sibling(TypeMirror sourceType, TypeMirror targetType) {
+        for (ExecutableElement method : methods) {
+            final ExecutableType type = (ExecutableType) types.asMemberOf((DeclaredType) iface.asType(), method);
+            if (type.getParameterTypes().size() == 1
+                    && types.isSameType(type.getParameterTypes().get(0), sourceType)
+                    && types.isSameType(type.getReturnType(), targetType)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private boolean immutable(TypeMirror sourceType, TypeMirror targetType) {
+        if (!types.isSameType(sourceType, targetType)) {
+            return false;
+        }
+        if (targetType.getKind().isPrimitive()) {
+            return true;
+        }
+        if (targetType.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        final TypeElement element = (TypeElement) types.asElement(targetType);
+        return element.getKind() == ElementKind.ENUM || IMMUTABLES.contains(element.getQualifiedName().toString());
+    }
+
+    private boolean bean(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        final TypeElement element = (TypeElement) types.asElement(type);
+        if (element.getKind() != ElementKind.CLASS && element.getKind() != ElementKind.INTERFACE) {
+            return false;
+        }
+        if (!element.getTypeParameters().isEmpty()) {
+            return false;
+        }
+        final String name = element.getQualifiedName().toString();
+        if (name.startsWith("java.") || name.startsWith("javax.")) {
+            return false;
+        }
+        for (String notBean : NOT_BEANS) {
+            if (types.isAssignable(type, types.erasure(elements.getTypeElement(notBean).asType()))) {
+                return false;
+            }
+        }
+        for (Element e = element; e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+            if (!e.getModifiers().contains(Modifier.PUBLIC)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean instantiable(DeclaredType type) {
+        final TypeElement element = (TypeElement) type.asElement();
+        if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT)) {
+            return false;
+        }
+        if (element.getNestingKind().isNested() && !element.getModifiers().contains(Modifier.STATIC)) {
+            return false;
+        }
+        return ElementFilter.constructorsIn(element.getEnclosedElements()).stream()
+                .anyMatch(c -> c.getModifiers().contains(Modifier.PUBLIC) && c.getParameters().isEmpty());
+    }
+
+    private String erasure(TypeMirror type) {
+        return types.erasure(type).toString();
+    }
+
+    private String boxed(TypeMirror type) {
+        return type.getKind().isPrimitive() ? types.boxedClass(types.getPrimitiveType(type.getKind())).getQualifiedName().toString() : type.toString();
+    }
+
+    public static class UnsupportedMethodException extends RuntimeException {
+
+        public final ExecutableElement method;
+
+        public UnsupportedMethodException(ExecutableElement method, String message) {
+            super(message);
+            this.method = method;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package net.optionfactory.otomy.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an interface whose single-argument methods map their parameter to
+ * their return type. An implementation named after the interface with an
+ * {@code Impl} suffix is generated in the same package.
+ * <p>
+ * Beans are mapped with the same property matching rules of
+ * {@code CachingInspector}. Properties having the same primitive or immutable
+ * type on both sides are copied directly, properties whose types are mapped by
+ * another method of the interface are delegated to it, and everything else is
+ * delegated to the {@code Mapper} given to the implementation, as are the
+ * methods whose types are not beans. As with reflective bean mapping, a
+ * property no converter of the mapper applies to is skipped.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface Mapping {
+
+}
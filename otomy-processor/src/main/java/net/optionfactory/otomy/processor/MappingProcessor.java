@@ -0,0 +1,55 @@
+package net.optionfactory.otomy.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates the implementations of {@link Mapping} interfaces.
+ */
+@SupportedAnnotationTypes("net.optionfactory.otomy.processor.Mapping")
+public class MappingProcessor extends AbstractProcessor {
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        for (Element element : round.getElementsAnnotatedWith(Mapping.class)) {
+            if (element.getKind() != ElementKind.INTERFACE) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "@Mapping can only be applied to interfaces", element);
+                continue;
+            }
+            final TypeElement iface = (TypeElement) element;
+            if (!iface.getTypeParameters().isEmpty()) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "@Mapping interfaces cannot be generic", element);
+                continue;
+            }
+            final MapperSource source = new MapperSource(processingEnv, iface);
+            try {
+                final String code = source.generate();
+                final JavaFileObject file = processingEnv.getFiler().createSourceFile(source.qualifiedName(), iface);
+                try (Writer writer = file.openWriter()) {
+                    writer.write(code);
+                }
+            } catch (MapperSource.UnsupportedMethodException ex) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, ex.getMessage(), ex.method);
+            } catch (IOException ex) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "cannot write mapper: " + ex.getMessage(), element);
+            }
+        }
+        return true;
+    }
+
+}
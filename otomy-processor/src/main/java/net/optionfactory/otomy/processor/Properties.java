@@ -0,0 +1,122 @@
+package net.optionfactory.otomy.processor;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Discovers bean properties with the rules of {@code CachingInspector}:
+ * public fields, then public {@code get}/{@code is} getters and {@code set}
+ * setters, a method replacing a field with the same label.
+ */
+class Properties {
+
+    private final Elements elements;
+    private final Types types;
+
+    public Properties(Elements elements, Types types) {
+        this.elements = elements;
+        this.types = types;
+    }
+
+    public Map<String, Property> accessors(DeclaredType type) {
+        final Map<String, Property> r = new LinkedHashMap<>();
+        final List<? extends Element> members = elements.getAllMembers((TypeElement) type.asElement());
+        for (Element member : members) {
+            if (member.getKind() == ElementKind.FIELD && member.getModifiers().contains(Modifier.PUBLIC)) {
+                final String label = member.getSimpleName().toString();
+                r.put(label, new Property(member, label, types.asMemberOf(type, member)));
+            }
+        }
+        for (Element member : members) {
+            if (member.getKind() != ElementKind.METHOD || !member.getModifiers().contains(Modifier.PUBLIC)) {
+                continue;
+            }
+            final ExecutableType method = (ExecutableType) types.asMemberOf(type, member);
+            if (!method.getParameterTypes().isEmpty()) {
+                continue;
+            }
+            final TypeMirror returnType = method.getReturnType();
+            if (returnType.getKind() == TypeKind.VOID) {
+                continue;
+            }
+            final String name = member.getSimpleName().toString();
+            final boolean getter = name.startsWith("get");
+            if (!getter && !(name.startsWith("is") && isBoolean(returnType))) {
+                continue;
+            }
+            final int offset = getter ? 3 : 2;
+            if (name.length() == offset) {
+                continue;
+            }
+            final String label = Character.toLowerCase(name.charAt(offset)) + name.substring(offset + 1);
+            r.put(label, new Property(member, label, returnType));
+        }
+        return r;
+    }
+
+    public Map<String, Property> mutators(DeclaredType type) {
+        final Map<String, Property> r = new LinkedHashMap<>();
+        final List<? extends Element> members = elements.getAllMembers((TypeElement) type.asElement());
+        for (Element member : members) {
+            if (member.getKind() == ElementKind.FIELD && member.getModifiers().contains(Modifier.PUBLIC) && !member.getModifiers().contains(Modifier.FINAL)) {
+                final String label = member.getSimpleName().toString();
+                r.put(label, new Property(member, label, types.asMemberOf(type, member)));
+            }
+        }
+        for (Element member : members) {
+            if (member.getKind() != ElementKind.METHOD || !member.getModifiers().contains(Modifier.PUBLIC)) {
+                continue;
+            }
+            final ExecutableType method = (ExecutableType) types.asMemberOf(type, member);
+            final String name = member.getSimpleName().toString();
+            if (method.getParameterTypes().size() != 1 || !name.startsWith("set") || name.length() == 3) {
+                continue;
+            }
+            final String label = Character.toLowerCase(name.charAt(3)) + name.substring(4);
+            r.put(label, new Property(member, label, method.getParameterTypes().get(0)));
+        }
+        return r;
+    }
+
+    private boolean isBoolean(TypeMirror type) {
+        return type.getKind() == TypeKind.BOOLEAN
+                || (type.getKind() == TypeKind.DECLARED && ((TypeElement) types.asElement(type)).getQualifiedName().contentEquals("java.lang.Boolean"));
+    }
+
+    public static class Property {
+
+        public final Element member;
+        public final String label;
+        public final TypeMirror type;
+
+        public Property(Element member, String label, TypeMirror type) {
+            this.member = member;
+            this.label = label;
+            this.type = type;
+        }
+
+        public boolean isField() {
+            return member.getKind() == ElementKind.FIELD;
+        }
+
+        public String name() {
+            return member.getSimpleName().toString();
+        }
+
+        public ExecutableElement method() {
+            return (ExecutableElement) member;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package net.optionfactory.otomy.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import net.optionfactory.otomy.Mapper;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappingProcessorTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private static final String ORDER = String.join("\n",
+            "package p;",
+            "public class Order {",
+            "    public enum Status { OPEN, CLOSED }",
+            "    public long id;",
+            "    public Status status;",
+            "    private String code;",
+            "    private Customer customer;",
+            "    private java.util.List<Customer> customers;",
+            "    private int quantity;",
+            "    public String getCode() { return code; }",
+            "    public void setCode(String code) { this.code = code; }",
+            "    public Customer getCustomer() { return customer; }",
+            "    public void setCustomer(Customer customer) { this.customer = customer; }",
+            "    public java.util.List<Customer> getCustomers() { return customers; }",
+            "    public void setCustomers(java.util.List<Customer> customers) { this.customers = customers; }",
+            "    public int getQuantity() { return quantity; }",
+            "    public void setQuantity(int quantity) { this.quantity = quantity; }",
+            "}");
+
+    private static final String ORDER_DTO = String.join("\n",
+            "package p;",
+            "public class OrderDto {",
+            "    public long id;",
+            "    public Order.Status status;",
+            "    public String code;",
+            "    public CustomerDto customer;",
+            "    public java.util.List<CustomerDto> customers;",
+            "    public long quantity;",
+            "}");
+
+    private static final String CUSTOMER = "package p; public class Customer { public String name; }";
+    private static final String CUSTOMER_DTO = "package p; public class CustomerDto { public String name; }";
+
+    private static final String MAPPERS = String.join("\n",
+            "package p;",
+            "@net.optionfactory.otomy.processor.Mapping",
+            "public interface OrderMappers {",
+            "    OrderDto toDto(Order o);",
+            "    CustomerDto toDto(Customer c);",
+            "    java.util.List<OrderDto> toDtos(java.util.List<Order> os);",
+            "}");
+
+    @Test
+    public void generatesDirectCodeForBeansAndDelegatesTheRest() throws Exception {
+        final ClassLoader loader = compile(source("p.Order", ORDER), source("p.OrderDto", ORDER_DTO), source("p.Customer", CUSTOMER), source("p.CustomerDto", CUSTOMER_DTO), source("p.OrderMappers", MAPPERS));
+        final String generated = new String(Files.readAllBytes(tmp.getRoot().toPath().resolve("generated/p/OrderMappersImpl.java")), StandardCharsets.UTF_8);
+        Assert.assertTrue(generated.contains("target.id = source.id;"));
+        Assert.assertTrue(generated.contains("target.code = source.getCode();"));
+        Assert.assertTrue(generated.contains("target.customer = this.toDto(source.getCustomer());"));
+
+        final Class<?> orderClass = loader.loadClass("p.Order");
+        final Class<?> customerClass = loader.loadClass("p.Customer");
+        final Object customer = customerClass.newInstance();
+        customerClass.getField("name").set(customer, "c");
+        final Object order = orderClass.newInstance();
+        orderClass.getField("id").set(order, 3L);
+        orderClass.getField("status").set(order, loader.loadClass("p.Order$Status").getEnumConstants()[1]);
+        orderClass.getMethod("setCode", String.class).invoke(order, "x");
+        orderClass.getMethod("setCustomer", customerClass).invoke(order, customer);
+        orderClass.getMethod("setCustomers", List.class).invoke(order, Collections.singletonList(customer));
+        orderClass.getMethod("setQuantity", int.class).invoke(order, 5);
+
+        final Class<?> implClass = loader.loadClass("p.OrderMappersImpl");
+        final Object mappers = implClass.getConstructor(Mapper.class).newInstance(new net.optionfactory.otomy.TypedMapper(new net.optionfactory.otomy.converters.CachingInspector(), net.optionfactory.otomy.converters.strategies.Strategies.defaults(), net.optionfactory.otomy.TypedMapper.Tracing.Disabled));
+        final Object dto = implClass.getMethod("toDto", orderClass).invoke(mappers, order);
+        final Class<?> dtoClass = dto.getClass();
+        Assert.assertEquals(3L, dtoClass.getField("id").get(dto));
+        Assert.assertEquals("CLOSED", dtoClass.getField("status").get(dto).toString());
+        Assert.assertEquals("x", dtoClass.getField("code").get(dto));
+        Assert.assertEquals(5L, dtoClass.getField("quantity").get(dto));
+        final Object customerDto = dtoClass.getField("customer").get(dto);
+        Assert.assertEquals("c", customerDto.getClass().getField("name").get(customerDto));
+        final List<?> customerDtos = (List<?>) dtoClass.getField("customers").get(dto);
+        Assert.assertEquals("c", customerDtos.get(0).getClass().getField("name").get(customerDtos.get(0)));
+
+        final Method toDtos = implClass.getMethod("toDtos", List.class);
+        final List<?> dtos = (List<?>) toDtos.invoke(implClass.newInstance(), Arrays.asList(order, order));
+        Assert.assertEquals(2, dtos.size());
+        Assert.assertEquals("x", dtoClass.getField("code").get(dtos.get(1)));
+        Assert.assertNull(implClass.getMethod("toDto", orderClass).invoke(mappers, new Object[]{null}));
+    }
+
+    @Test
+    public void skipsPropertiesNoConverterAppliesTo() throws Exception {
+        final ClassLoader loader = compile(
+                source("p.Ticket", "package p; public class Ticket { public String name; public java.util.Date when; }"),
+                source("p.TicketDto", "package p; public class TicketDto { public String name; public Runnable when; }"),
+                source("p.TicketMappers", "package p; @net.optionfactory.otomy.processor.Mapping public interface TicketMappers { TicketDto toDto(Ticket t); }"));
+        final Class<?> ticketClass = loader.loadClass("p.Ticket");
+        final Object ticket = ticketClass.newInstance();
+        ticketClass.getField("name").set(ticket, "t");
+        ticketClass.getField("when").set(ticket, new java.util.Date());
+        final Class<?> implClass = loader.loadClass("p.TicketMappersImpl");
+        final Object dto = implClass.getMethod("toDto", ticketClass).invoke(implClass.newInstance(), ticket);
+        Assert.assertEquals("t", dto.getClass().getField("name").get(dto));
+        Assert.assertNull(dto.getClass().getField("when").get(dto));
+    }
+
+    @Test
+    public void rejectsMethodsNotMappingOneValue() throws Exception {
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final boolean ok = compile(diagnostics, source("p.Bad", "package p; @net.optionfactory.otomy.processor.Mapping public interface Bad { String map(String a, String b); }"));
+        Assert.assertFalse(ok);
+        Assert.assertTrue(diagnostics.getDiagnostics().stream().anyMatch(d -> d.getMessage(null).contains("mapping methods must take one argument")));
+    }
+
+    private ClassLoader compile(JavaFileObject... sources) throws IOException {
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        if (!compile(diagnostics, sources)) {
+            Assert.fail(diagnostics.getDiagnostics().toString());
+        }
+        return new URLClassLoader(new URL[]{new File(tmp.getRoot(), "classes").toURI().toURL()}, getClass().getClassLoader());
+    }
+
+    private boolean compile(DiagnosticCollector<JavaFileObject> diagnostics, JavaFileObject... sources) throws IOException {
+        final File classes = tmp.newFolder("classes");
+        final File generated = tmp.newFolder("generated");
+        final String classpath = Stream.of(MappingProcessor.class, Mapper.class)
+                .map(c -> new File(c.getProtectionDomain().getCodeSource().getLocation().getPath()).getPath())
+                .collect(Collectors.joining(File.pathSeparator));
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            final List<String> options = Arrays.asList("-classpath", classpath, "-d", classes.getPath(), "-s", generated.getPath(), "-processor", MappingProcessor.class.getName());
+            return compiler.getTask(null, files, diagnostics, options, null, Arrays.asList(sources)).call();
+        }
+    }
+
+    private static JavaFileObject source(String name, String code) {
+        return new SimpleJavaFileObject(URI.create("string:///" + name.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}
@@ -0,0 +1,131 @@
+package net.optionfactory.otomy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import net.optionfactory.otomy.types.Typed;
+
+/**
+ * Runs mappings on an {@link Executor}, returning {@link CompletableFuture}s.
+ * Collections are split into chunks mapped as separate tasks: cancelling the
+ * returned future stops the chunks not yet mapped.
+ */
+public class AsyncMapper {
+
+    /**
+     * Notified as chunks of a collection are mapped.
+     */
+    @FunctionalInterface
+    public interface Progress {
+
+        void mapped(int done, int total);
+    }
+
+    private static final Progress SILENT = (done, total) -> {
+    };
+
+    private final Mapper mapper;
+    private final Executor executor;
+    private final int chunk;
+
+    public AsyncMapper(Mapper mapper, Executor executor, int chunk) {
+        if (chunk < 1) {
+            throw new IllegalArgumentException("chunk must be positive");
+        }
+        this.mapper = mapper;
+        this.executor = executor;
+        this.chunk = chunk;
+    }
+
+    public AsyncMapper(Mapper mapper, Executor executor) {
+        this(mapper, executor, 1024);
+    }
+
+    /**
+     * Runs on a virtual thread per task when available (Java 21+), on the
+     * common {@link ForkJoinPool} otherwise. The virtual thread executor is
+     * created once and shared by every mapper built this way.
+     */
+    public AsyncMapper(Mapper mapper) {
+        this(mapper, DefaultExecutor.INSTANCE);
+    }
+
+    public <R> CompletableFuture<R> map(Typed sourceType, Object source, Typed targetType) {
+        return CompletableFuture.supplyAsync(() -> mapper.<R>map(sourceType, source, targetType), executor);
+    }
+
+    public <R> CompletableFuture<R> map(Object source, Class<R> targetType) {
+        return CompletableFuture.supplyAsync(() -> mapper.map(source, targetType), executor);
+    }
+
+    public <R> CompletableFuture<List<R>> mapAll(Collection<?> source, Typed sourceElementType, Typed targetElementType) {
+        return mapAll(source, sourceElementType, targetElementType, SILENT);
+    }
+
+    /**
+     * Maps a homogeneous collection in chunks, each chunk being a separate
+     * task. The first failure completes the returned future exceptionally;
+     * completing or cancelling it stops the remaining chunks.
+     */
+    public <R> CompletableFuture<List<R>> mapAll(Collection<?> source, Typed sourceElementType, Typed targetElementType, Progress progress) {
+        if (source == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        final Object[] sources = source.toArray();
+        final AtomicReferenceArray<R> targets = new AtomicReferenceArray<>(sources.length);
+        final CompletableFuture<List<R>> result = new CompletableFuture<>();
+        final AtomicInteger done = new AtomicInteger();
+        final int chunks = (sources.length + chunk - 1) / chunk;
+        final CompletableFuture<?>[] tasks = new CompletableFuture<?>[chunks];
+        for (int c = 0; c != chunks; ++c) {
+            final int from = c * chunk;
+            final int to = Math.min(sources.length, from + chunk);
+            tasks[c] = CompletableFuture.runAsync(() -> {
+                final Batch<R> batch = new Batch<>(mapper, sourceElementType, targetElementType);
+                for (int i = from; i != to; ++i) {
+                    if (result.isDone()) {
+                        return;
+                    }
+                    targets.set(i, batch.map(sources[i]));
+                }
+                progress.mapped(done.addAndGet(to - from), sources.length);
+            }, executor).whenComplete((v, ex) -> {
+                if (ex != null) {
+                    result.completeExceptionally(ex.getCause() != null ? ex.getCause() : ex);
+                }
+            });
+        }
+        CompletableFuture.allOf(tasks).thenRun(() -> {
+            final List<R> mapped = new ArrayList<>(targets.length());
+            for (int i = 0; i != targets.length(); ++i) {
+                mapped.add(targets.get(i));
+            }
+            result.complete(mapped);
+        });
+        result.whenComplete((v, ex) -> {
+            for (CompletableFuture<?> task : tasks) {
+                task.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    private static class DefaultExecutor {
+
+        public static final Executor INSTANCE = create();
+
+        private static Executor create() {
+            try {
+                return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException ex) {
+                return ForkJoinPool.commonPool();
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package net.optionfactory.otomy;
+
+import net.optionfactory.otomy.types.Typed;
+
+/**
+ * Maps the elements of a homogeneous batch through the mapping prepared for
+ * the declared element types. Elements of a different runtime class are
+ * mapped as their runtime class when the declared source type is not
+ * generic, the last such mapping being kept for the following elements.
+ */
+class Batch<R> {
+
+    private final Mapper mapper;
+    private final Typed targetType;
+    private final Class<?> sourceClass;
+    private final boolean polymorphic;
+    private final MappingFunction<Object, R> prepared;
+    private Class<?> lastClass;
+    private MappingFunction<Object, R> last;
+
+    public Batch(Mapper mapper, Typed sourceType, Typed targetType) {
+        this.mapper = mapper;
+        this.targetType = targetType;
+        this.sourceClass = sourceType.resolve();
+        this.polymorphic = !sourceType.hasGenerics();
+        this.prepared = mapper.prepare(sourceType, targetType);
+    }
+
+    public R map(Object source) {
+        if (source == null || !polymorphic || source.getClass() == sourceClass) {
+            return prepared.apply(source);
+        }
+        if (source.getClass() != lastClass) {
+            lastClass = source.getClass();
+            last = mapper.prepare(Typed.class_(lastClass), targetType);
+        }
+        return last.apply(source);
+    }
+}
@@ -0,0 +1,360 @@
+package net.optionfactory.otomy;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import net.optionfactory.otomy.converters.Parallelism;
+import net.optionfactory.otomy.types.Typed;
+
+/**
+ *
+ * @author rferranti
+ */
+public interface Mapper {
+
+    <R> R map(Typed sourceType, Object source, Typed targetType);
+
+    default <S, R> MappingFunction<S, R> prepare(Typed sourceType, Typed targetType) {
+        return source -> map(sourceType, source, targetType);
+    }
+
+    default <S, R> MappingFunction<S, R> prepare(Class<S> sourceType, Class<R> targetType) {
+        return prepare(Typed.class_(sourceType), Typed.class_(targetType));
+    }
+
+    /**
+     * Like {@link #prepare(Typed, Typed)}, but the returned function yields
+     * {@code orElse} instead of failing when no converter applies to a value,
+     * as bean mapping does with the properties it cannot convert. Mappers
+     * unable to tell a missing converter from a failure fail as
+     * {@code prepare} does.
+     */
+    default <S, R> MappingFunction<S, R> prepare(Typed sourceType, Typed targetType, R orElse) {
+        return prepare(sourceType, targetType);
+    }
+
+    /**
+     * Updates {@code target} in place with {@code source}, reusing the nested
+     * beans, collections and maps already in place as configured by
+     * {@code merge}.
+     *
+     * @return the updated target: {@code target} itself unless it cannot be
+     * updated in place, a newly mapped one when it is {@code null}
+     */
+    <R> R mapInto(Typed sourceType, Object source, Typed targetType, R target, Merge merge);
+
+    /**
+     * Updates {@code target} in place with {@code source}. A {@code null}
+     * source leaves {@code target} untouched.
+     */
+    default <R> R mapInto(Object source, R target, Merge merge) {
+        if (source == null || target == null) {
+            return target;
+        }
+        return mapInto(Typed.class_(source.getClass()), source, Typed.class_(target.getClass()), target, merge);
+    }
+
+    default <R> R mapInto(Object source, R target) {
+        return mapInto(source, target, Merge.defaults());
+    }
+
+    default <R> R map(Object source, Typed targetType) {
+        if (source == null) {
+            return null;
+        }
+        return map(Typed.class_(source.getClass()), source, targetType);
+    }
+
+    default <R> R map(Object source, Class<R> targetType) {
+        if (source == null) {
+            return null;
+        }
+        return map(Typed.class_(source.getClass()), source, Typed.class_(targetType));
+    }
+
+    default <T, R> R map(Class<T> sourceType, T source, Class<R> targetType) {
+        if (source == null) {
+            return null;
+        }
+        return map(Typed.class_(sourceType), source, Typed.class_(targetType));
+    }
+
+    default <R, T> Optional<R> map(Optional<T> source, Class<R> targetElementType) {
+        if (source == null) {
+            return null;
+        }
+        return source.map((sourceElement) -> map(sourceElement, targetElementType));
+    }
+
+    //streams
+    default <R, T> Stream<R> map(Iterator<T> source, Class<R> targetElementType) {
+        if (source == null) {
+            return null;
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(source, Spliterator.ORDERED), false).map(sourceElement -> map(sourceElement, targetElementType));
+    }
+
+    default <R, T> Stream<R> map(Iterator<T> source, Class<R> targetElementType, BiConsumer<R, T> postMappingCallback) {
+        if (source == null) {
+            return null;
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(source, Spliterator.ORDERED), false).map(sourceElement -> {
+            final R targetElement = map(sourceElement, targetElementType);
+            postMappingCallback.accept(targetElement, sourceElement);
+            return targetElement;
+        });
+    }
+
+    /**
+     * Maps the elements of {@code source} in encounter order, taking them in
+     * chunks of the {@code parallelism} threshold, each chunk being mapped
+     * concurrently when taken from the returned stream.
+     */
+    default <R, T> Stream<R> map(Iterator<T> source, Class<R> targetElementType, Parallelism parallelism) {
+        return map(source, targetElementType, parallelism, null);
+    }
+
+    /**
+     * Like {@link #map(Iterator, Class, Parallelism)}, calling
+     * {@code postMappingCallback} for each element as its chunk is mapped.
+     */
+    default <R, T> Stream<R> map(Iterator<T> source, Class<R> targetElementType, Parallelism parallelism, BiConsumer<R, T> postMappingCallback) {
+        if (source == null) {
+            return null;
+        }
+        if (parallelism == Parallelism.disabled()) {
+            return postMappingCallback == null ? map(source, targetElementType) : map(source, targetElementType, postMappingCallback);
+        }
+        final Iterator<List<R>> chunks = new Iterator<List<R>>() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public List<R> next() {
+                final List<T> sources = new ArrayList<>();
+                while (source.hasNext() && sources.size() != parallelism.threshold()) {
+                    sources.add(source.next());
+                }
+                final AtomicReferenceArray<R> targets = new AtomicReferenceArray<>(sources.size());
+                parallelism.run(sources.size(), (from, to) -> {
+                    for (int i = from; i != to; ++i) {
+                        final R targetElement = map(sources.get(i), targetElementType);
+                        if (postMappingCallback != null) {
+                            postMappingCallback.accept(targetElement, sources.get(i));
+                        }
+                        targets.set(i, targetElement);
+                    }
+                });
+                final List<R> chunk = new ArrayList<>(sources.size());
+                for (int i = 0; i != sources.size(); ++i) {
+                    chunk.add(targets.get(i));
+                }
+                return chunk;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(chunks, Spliterator.ORDERED), false).flatMap(List::stream);
+    }
+
+    default <R, T> Stream<R> map(Stream<T> source, Class<R> targetElementType) {
+        if (source == null) {
+            return null;
+        }
+        return source.map(sourceElement -> map(sourceElement, targetElementType));
+    }
+
+    default <R, T> Stream<R> map(Stream<T> source, Class<R> targetElementType, BiConsumer<R, T> postMappingCallback) {
+        if (source == null) {
+            return null;
+        }
+        return source.map(sourceElement -> {
+            final R targetElement = map(sourceElement, targetElementType);
+            postMappingCallback.accept(targetElement, sourceElement);
+            return targetElement;
+        });
+    }
+
+    //maps
+    default <RV, K, V> Map<K, RV> map(Map<K, V> source, Class<RV> targetValueType) {
+        if (source == null) {
+            return null;
+        }
+        final Map<K, RV> target = new ConcurrentHashMap<>();
+        for (Map.Entry<K, V> sourceEntry : source.entrySet()) {
+            target.put(sourceEntry.getKey(), map(sourceEntry.getValue(), targetValueType));
+        }
+        return target;
+    }
+
+    default <RV, K, V> Map<K, RV> map(Map<K, V> source, Class<RV> targetValueType, BiConsumer<RV, V> postMappingCallback) {
+        if (source == null) {
+            return null;
+        }
+        final Map<K, RV> target = new ConcurrentHashMap<>();
+        for (Map.Entry<K, V> sourceEntry : source.entrySet()) {
+            final V sourceValue = sourceEntry.getValue();
+            final RV targetValue = map(sourceValue, targetValueType);
+            postMappingCallback.accept(targetValue, sourceValue);
+            target.put(sourceEntry.getKey(), targetValue);
+        }
+        return target;
+    }
+
+    /**
+     * Maps the values of {@code source}, concurrently when its size reaches
+     * the {@code parallelism} threshold.
+     */
+    default <RV, K, V> Map<K, RV> map(Map<K, V> source, Class<RV> targetValueType, Parallelism parallelism) {
+        if (source == null) {
+            return null;
+        }
+        final List<Map.Entry<K, V>> entries = new ArrayList<>(source.entrySet());
+        final AtomicReferenceArray<RV> values = new AtomicReferenceArray<>(entries.size());
+        parallelism.run(entries.size(), (from, to) -> {
+            for (int i = from; i != to; ++i) {
+                values.set(i, map(entries.get(i).getValue(), targetValueType));
+            }
+        });
+        final Map<K, RV> target = new ConcurrentHashMap<>(entries.size());
+        for (int i = 0; i != entries.size(); ++i) {
+            target.put(entries.get(i).getKey(), values.get(i));
+        }
+        return target;
+    }
+
+    // collections
+    default <R, T> List<R> map(Iterable<T> source, Class<R> targetElementType) {
+        if (source == null) {
+            return null;
+        }
+        final List<R> target = new ArrayList<>();
+        for (T sourceElement : source) {
+            target.add(map(sourceElement, targetElementType));
+        }
+        return target;
+    }
+
+    default <R, T> List<R> map(Iterable<T> source, Class<R> targetElementType, BiConsumer<R, T> postMappingCallback) {
+        if (source == null) {
+            return null;
+        }
+        final List<R> target = new ArrayList<>();
+        for (T sourceElement : source) {
+            final R mapped = map(sourceElement, targetElementType);
+            postMappingCallback.accept(mapped, sourceElement);
+            target.add(mapped);
+        }
+        return target;
+    }
+
+    /**
+     * Maps the elements of {@code source} in encounter order, concurrently
+     * when its size reaches the {@code parallelism} threshold.
+     */
+    default <R, T> List<R> map(Collection<T> source, Class<R> targetElementType, Parallelism parallelism) {
+        if (source == null) {
+            return null;
+        }
+        final Object[] sources = source.toArray();
+        final AtomicReferenceArray<R> targets = new AtomicReferenceArray<>(sources.length);
+        parallelism.run(sources.length, (from, to) -> {
+            for (int i = from; i != to; ++i) {
+                targets.set(i, map(sources[i], targetElementType));
+            }
+        });
+        final List<R> target = new ArrayList<>(sources.length);
+        for (int i = 0; i != sources.length; ++i) {
+            target.add(targets.get(i));
+        }
+        return target;
+    }
+
+    default <R, T, C extends Collection<R>> C map(Iterable<T> source, C target, Class<R> targetElementType) {
+        if (source == null) {
+            return null;
+        }
+        for (T sourceElement : source) {
+            target.add(map(sourceElement, targetElementType));
+        }
+        return target;
+    }
+
+    default <R, T, C extends Collection<R>> C map(Iterable<T> source, C target, Class<R> targetElementType, BiConsumer<R, T> postMappingCallback) {
+        if (source == null) {
+            return null;
+        }
+        for (T sourceElement : source) {
+            final R targetElement = map(sourceElement, targetElementType);
+            postMappingCallback.accept(targetElement, sourceElement);
+            target.add(targetElement);
+        }
+        return target;
+    }
+
+    // batches
+    /**
+     * Maps a homogeneous batch, preparing the mapping of
+     * {@code sourceElementType} to {@code targetElementType} once.
+     */
+    default <R> List<R> mapAll(Collection<?> source, Typed sourceElementType, Typed targetElementType) {
+        if (source == null) {
+            return null;
+        }
+        return mapAll(source, sourceElementType, targetElementType, new ArrayList<>(source.size()));
+    }
+
+    /**
+     * Maps a homogeneous batch, appending the mapped elements to
+     * {@code target}.
+     */
+    default <R, C extends Collection<? super R>> C mapAll(Collection<?> source, Typed sourceElementType, Typed targetElementType, C target) {
+        if (source == null) {
+            return null;
+        }
+        final Batch<R> batch = new Batch<>(this, sourceElementType, targetElementType);
+        for (Object sourceElement : source) {
+            target.add(batch.map(sourceElement));
+        }
+        return target;
+    }
+
+    default <R> R[] mapAll(Object[] source, Typed sourceElementType, Typed targetElementType) {
+        return mapAll(source, sourceElementType, targetElementType, null);
+    }
+
+    /**
+     * Maps a homogeneous batch into {@code target} when it is large enough,
+     * into a new array of the target element type otherwise.
+     */
+    default <R> R[] mapAll(Object[] source, Typed sourceElementType, Typed targetElementType, R[] target) {
+        if (source == null) {
+            return null;
+        }
+        final R[] result = target == null
+                ? newArray(targetElementType.resolve(Object.class), source.length)
+                : target.length >= source.length ? target : Arrays.copyOf(target, source.length);
+        final Batch<R> batch = new Batch<>(this, sourceElementType, targetElementType);
+        for (int i = 0; i != source.length; ++i) {
+            result[i] = batch.map(source[i]);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> R[] newArray(Class<?> componentType, int length) {
+        return (R[]) Array.newInstance(componentType, length);
+    }
+}
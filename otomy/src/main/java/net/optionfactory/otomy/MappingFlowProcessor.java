@@ -0,0 +1,239 @@
+package net.optionfactory.otomy;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import net.optionfactory.otomy.types.Typed;
+
+/**
+ * A {@link Flow.Processor} mapping every element through a prepared mapping.
+ * At most {@code prefetch} elements are requested upstream ahead of
+ * downstream demand. When an {@link Executor} is given elements are mapped
+ * concurrently on it and still emitted in arrival order. A failed mapping
+ * cancels the upstream subscription and is signalled downstream with
+ * {@code onError}. A single subscriber is supported.
+ *
+ * @param <T> the source element type
+ * @param <R> the target element type
+ */
+public class MappingFlowProcessor<T, R> implements Flow.Processor<T, R> {
+
+    private final Function<? super T, ? extends R> mapping;
+    private final Executor executor;
+    private final int prefetch;
+    private final int limit;
+    private final Queue<CompletableFuture<R>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile Flow.Subscription upstream;
+    private volatile Flow.Subscriber<? super R> downstream;
+    private volatile boolean done;
+    private volatile Throwable error;
+    private volatile Throwable failure;
+    private volatile boolean cancelled;
+    private int consumed;
+
+    /**
+     * @param mapper the mapper
+     * @param sourceType the source element type
+     * @param targetType the target element type
+     * @param prefetch the number of elements requested upstream in advance
+     * @param executor the executor mapping elements concurrently or
+     * {@code null} to map them on the thread signalling them
+     */
+    public MappingFlowProcessor(Mapper mapper, Typed sourceType, Typed targetType, int prefetch, Executor executor) {
+        if (prefetch < 1) {
+            throw new IllegalArgumentException("prefetch must be positive");
+        }
+        this.mapping = mapper.<T, R>prepare(sourceType, targetType);
+        this.executor = executor;
+        this.prefetch = prefetch;
+        this.limit = prefetch - (prefetch >> 2);
+    }
+
+    public MappingFlowProcessor(Mapper mapper, Class<T> sourceType, Class<R> targetType, int prefetch) {
+        this(mapper, Typed.class_(sourceType), Typed.class_(targetType), prefetch, null);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super R> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("already subscribed"));
+            return;
+        }
+        downstream = subscriber;
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    failure = new IllegalArgumentException("non-positive request: " + n);
+                    drain();
+                    return;
+                }
+                requested.accumulateAndGet(n, (current, more) -> current + more < 0 ? Long.MAX_VALUE : current + more);
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                final Flow.Subscription s = upstream;
+                if (s != null) {
+                    s.cancel();
+                }
+                drain();
+            }
+        });
+        start();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (upstream != null) {
+            subscription.cancel();
+            return;
+        }
+        upstream = subscription;
+        if (cancelled) {
+            subscription.cancel();
+            return;
+        }
+        start();
+    }
+
+    @Override
+    public void onNext(T item) {
+        if (done || cancelled) {
+            return;
+        }
+        if (executor == null) {
+            final CompletableFuture<R> mapped = new CompletableFuture<>();
+            try {
+                mapped.complete(mapping.apply(item));
+            } catch (RuntimeException ex) {
+                mapped.completeExceptionally(ex);
+            }
+            pending.offer(mapped);
+        } else {
+            final CompletableFuture<R> mapped = CompletableFuture.supplyAsync(() -> mapping.apply(item), executor);
+            pending.offer(mapped);
+            mapped.whenComplete((value, ex) -> drain());
+        }
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        error = throwable;
+        done = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        done = true;
+        drain();
+    }
+
+    private void start() {
+        if (upstream != null && downstream != null && started.compareAndSet(false, true)) {
+            upstream.request(prefetch);
+        }
+    }
+
+    private void fail(Flow.Subscriber<? super R> d, Throwable ex) {
+        cancelled = true;
+        final Flow.Subscription s = upstream;
+        if (s != null) {
+            s.cancel();
+        }
+        pending.clear();
+        d.onError(ex);
+    }
+
+    /**
+     * Emits the mapped elements at the head of the queue as long as there is
+     * demand. Calls are serialized, concurrent ones being replayed by the
+     * thread already draining.
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            final Flow.Subscriber<? super R> d = downstream;
+            if (d != null) {
+                final long r = requested.get();
+                long e = 0;
+                while (true) {
+                    if (cancelled) {
+                        pending.clear();
+                        return;
+                    }
+                    if (failure != null) {
+                        fail(d, failure);
+                        return;
+                    }
+                    final boolean terminated = done;
+                    final CompletableFuture<R> head = pending.peek();
+                    if (head == null) {
+                        if (terminated) {
+                            cancelled = true;
+                            if (error != null) {
+                                d.onError(error);
+                            } else {
+                                d.onComplete();
+                            }
+                            return;
+                        }
+                        break;
+                    }
+                    if (e == r || !head.isDone()) {
+                        break;
+                    }
+                    pending.poll();
+                    final R value;
+                    try {
+                        value = head.join();
+                    } catch (CompletionException ex) {
+                        fail(d, ex.getCause());
+                        return;
+                    }
+                    if (value == null) {
+                        fail(d, new NullPointerException("element mapped to null"));
+                        return;
+                    }
+                    d.onNext(value);
+                    ++e;
+                    if (++consumed == limit) {
+                        consumed = 0;
+                        upstream.request(limit);
+                    }
+                }
+                if (e != 0 && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-e);
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+}
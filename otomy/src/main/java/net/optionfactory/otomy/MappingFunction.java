@@ -0,0 +1,16 @@
+package net.optionfactory.otomy;
+
+import java.util.function.Function;
+
+/**
+ * A mapping from a fixed source type to a fixed target type, resolved once and
+ * safe to share between threads.
+ *
+ * @param <S> the source type
+ * @param <R> the target type
+ * @see Mapper#prepare(net.optionfactory.otomy.types.Typed,
+ * net.optionfactory.otomy.types.Typed)
+ */
+public interface MappingFunction<S, R> extends Function<S, R> {
+
+}
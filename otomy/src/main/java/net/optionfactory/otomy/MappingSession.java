@@ -0,0 +1,75 @@
+package net.optionfactory.otomy;
+
+import java.util.function.Supplier;
+import net.optionfactory.otomy.converters.MappingContext;
+
+/**
+ * Repeatedly maps a source graph into the same target graph, touching only
+ * what changed since the previous pass. The source values read for each
+ * target bean, list and array are remembered: unchanged immutable values are
+ * neither converted nor set again, nested beans are descended into so that
+ * only their changed properties are updated, and list elements are merged by
+ * index so that lists that only grow convert just the appended elements.
+ * The first pass builds the target graph the same way, from new beans, lists
+ * and maps, so that the second pass is already incremental; targets that
+ * cannot be built empty are converted as a whole and remembered from the
+ * following pass.
+ * <p>
+ * Only the conversion of unchanged immutable values is skipped. Nested
+ * beans, collections and other mutable values are not retained between
+ * passes and carry no change signal, so they are descended into on every
+ * pass: a pass still reads every property of the source graph, unchanged
+ * subgraphs included.
+ * <p>
+ * Changes made to the target graph outside of the session are not detected.
+ * Sessions are not thread-safe.
+ *
+ * @param <R> the target type
+ */
+public class MappingSession<R> {
+
+    private final Supplier<MappingContext> contexts;
+    private final Merge merge;
+    private final Memory memory = new Memory();
+    private R target;
+
+    MappingSession(Supplier<MappingContext> contexts, Merge merge) {
+        this.contexts = contexts;
+        this.merge = merge;
+    }
+
+    /**
+     * Maps {@code source} into the target of the previous pass, mapping a new
+     * target on the first pass or when {@code source} is {@code null}.
+     *
+     * @param source the source
+     * @return the updated target
+     */
+    public R map(Object source) {
+        if (source == null) {
+            reset();
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        final R updated = (R) new Updater(merge, memory).update(contexts.get(), source, target);
+        target = updated;
+        memory.next();
+        return target;
+    }
+
+    /**
+     * @return the target of the last pass
+     */
+    public R target() {
+        return target;
+    }
+
+    /**
+     * Forgets the target and the values read, the next pass mapping the whole
+     * graph anew.
+     */
+    public void reset() {
+        target = null;
+        memory.clear();
+    }
+}
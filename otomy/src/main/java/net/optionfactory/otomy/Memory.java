@@ -0,0 +1,87 @@
+package net.optionfactory.otomy;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import net.optionfactory.otomy.types.Types;
+
+/**
+ * The source values last read for each target bean, list and array updated
+ * by a {@link MappingSession}, by target identity. Only immutable values are
+ * kept, mutable ones being remembered as read but not retained. Targets not
+ * reached by a pass are forgotten at the end of the following one.
+ */
+class Memory {
+
+    private static final Object UNREAD = new Object();
+    private static final Object MUTABLE = new Object();
+
+    private Map<Object, Object[]> previous = new IdentityHashMap<>();
+    private Map<Object, Object[]> current = new IdentityHashMap<>();
+
+    /**
+     * @param target the target being updated
+     * @param size the number of values read for it
+     * @return the values last read for {@code target}, to be overwritten with
+     * the ones read by this pass
+     */
+    public Object[] of(Object target, int size) {
+        Object[] read = current.get(target);
+        if (read == null) {
+            read = previous.remove(target);
+        }
+        if (read == null || read.length != size) {
+            final int known = read == null ? 0 : Math.min(read.length, size);
+            final Object[] resized = new Object[size];
+            if (known != 0) {
+                System.arraycopy(read, 0, resized, 0, known);
+            }
+            Arrays.fill(resized, known, size, UNREAD);
+            read = resized;
+        }
+        current.put(target, read);
+        return read;
+    }
+
+    /**
+     * Ends a pass, forgetting the targets it did not reach.
+     */
+    public void next() {
+        previous = current;
+        current = new IdentityHashMap<>();
+    }
+
+    public void clear() {
+        previous.clear();
+        current.clear();
+    }
+
+    /**
+     * What is remembered of a value read from a source: the value itself when
+     * immutable, a marker otherwise, so that the source graph of a pass is
+     * not kept reachable until the following one.
+     */
+    public static Object remembered(Object value) {
+        return value == null || immutable(value.getClass()) ? value : MUTABLE;
+    }
+
+    /**
+     * Whether a value read from a source needs no update: it is the same
+     * immutable value or {@code null} read last time. Mutable values are
+     * always descended into, as their content may have changed.
+     */
+    public static boolean unchanged(Object last, Object value) {
+        if (last == UNREAD || last == MUTABLE) {
+            return false;
+        }
+        if (value == null) {
+            return last == null;
+        }
+        return immutable(value.getClass()) && Objects.equals(last, value);
+    }
+
+    private static boolean immutable(Class<?> type) {
+        return Types.isImmutableFromJavaLang(type) || type.isEnum();
+    }
+}
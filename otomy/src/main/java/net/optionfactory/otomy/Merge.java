@@ -0,0 +1,108 @@
+package net.optionfactory.otomy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * How {@link Mapper#mapInto} updates an existing target: whether
+ * {@code null} source properties overwrite target ones and how collections
+ * already in place are merged.
+ */
+public class Merge {
+
+    public enum Nulls {
+        /**
+         * {@code null} source properties leave target ones untouched.
+         */
+        Skip,
+        /**
+         * {@code null} source properties are mapped, as by
+         * {@link Mapper#map}.
+         */
+        Overwrite
+    }
+
+    public enum Elements {
+        /**
+         * Collections, arrays and maps are mapped anew and replace the ones
+         * in place.
+         */
+        Replace,
+        /**
+         * The {@code i}-th source element is merged into the {@code i}-th
+         * target element, elements in excess are added or removed. Maps are
+         * merged by key.
+         */
+        ByIndex,
+        /**
+         * Source elements are merged into the target elements having the same
+         * key, as extracted by the functions registered with
+         * {@link Merge#key}, and reordered as the source ones. Target
+         * elements without a matching source element are removed. Elements
+         * without a key are merged by index, maps by their own key.
+         */
+        ByKey
+    }
+
+    private static final Merge DEFAULTS = new Merge(Nulls.Overwrite, Elements.ByIndex, new LinkedHashMap<>());
+
+    public final Nulls nulls;
+    public final Elements elements;
+    private final Map<Class<?>, Function<Object, ?>> keys;
+
+    private Merge(Nulls nulls, Elements elements, Map<Class<?>, Function<Object, ?>> keys) {
+        this.nulls = nulls;
+        this.elements = elements;
+        this.keys = keys;
+    }
+
+    public Merge(Nulls nulls, Elements elements) {
+        this(nulls, elements, new LinkedHashMap<>());
+    }
+
+    /**
+     * @return a merge overwriting with {@code null}s and merging elements by
+     * index
+     */
+    public static Merge defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Registers the key of the elements of type {@code type}, used when
+     * merging {@link Elements#ByKey}. Source and target elements are matched
+     * when their keys are equal, so both element types need a key.
+     *
+     * @param <T> the element type
+     * @param type the element type
+     * @param key the key of an element
+     * @return a merge like this one also extracting keys from {@code type}
+     */
+    public <T> Merge key(Class<T> type, Function<? super T, ?> key) {
+        final Map<Class<?>, Function<Object, ?>> ks = new LinkedHashMap<>(keys);
+        ks.put(type, element -> key.apply(type.cast(element)));
+        return new Merge(nulls, elements, ks);
+    }
+
+    /**
+     * @param type the element type
+     * @return the key function registered for {@code type} or one of its
+     * supertypes, {@code null} if none
+     */
+    public Function<Object, ?> key(Class<?> type) {
+        if (type == null) {
+            return null;
+        }
+        final Function<Object, ?> exact = keys.get(type);
+        if (exact != null) {
+            return exact;
+        }
+        for (Map.Entry<Class<?>, Function<Object, ?>> entry : keys.entrySet()) {
+            if (entry.getKey().isAssignableFrom(type)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+}
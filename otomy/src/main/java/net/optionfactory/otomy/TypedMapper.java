@@ -0,0 +1,320 @@
+package net.optionfactory.otomy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import net.optionfactory.otomy.converters.Context;
+import net.optionfactory.otomy.converters.Converter;
+import net.optionfactory.otomy.converters.Identities;
+import net.optionfactory.otomy.converters.Inspector;
+import net.optionfactory.otomy.converters.Mapping;
+import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.converters.MappingException;
+import net.optionfactory.otomy.converters.MappingRequest;
+import net.optionfactory.otomy.converters.Plans;
+import net.optionfactory.otomy.converters.ValueConverter;
+import net.optionfactory.otomy.types.LoaderCache;
+import net.optionfactory.otomy.types.Typed;
+import net.optionfactory.otomy.types.Types;
+
+public class TypedMapper implements Mapper {
+
+    /**
+     * Whether contexts track the path of the value being mapped, reported by
+     * {@link MappingException}s. {@code Sampled} tracks paths of planned
+     * contexts only, derived once per plan, so that mapping allocates no more
+     * than when tracing is disabled while paths are still available to
+     * samplers such as {@link net.optionfactory.otomy.metrics.SampledTracing};
+     * the elements of a collection share one path, reported as {@code *}.
+     */
+    public enum Tracing {
+        Disabled, Enabled, Sampled
+    }
+
+    /**
+     * Whether a source object referenced more than once within a mapping call
+     * is mapped once, the same target being referenced in its place. Tracking
+     * identities also makes cyclic graphs mappable.
+     */
+    public enum Identity {
+        Disabled, Enabled
+    }
+
+    private final Converter converter;
+    private final Inspector inspector;
+    private final Tracing tracing;
+    private final Identity identity;
+    private final LoaderCache<MappingRequest, Prepared> prepared = new LoaderCache<>(1024, MappingRequest::owner);
+
+    public TypedMapper(Inspector inspector, Converter converter, Tracing tracing, Identity identity) {
+        this.converter = converter;
+        this.inspector = inspector;
+        this.tracing = tracing;
+        this.identity = identity;
+    }
+
+    public TypedMapper(Inspector inspector, Converter converter, Tracing tracing) {
+        this(inspector, converter, tracing, Identity.Disabled);
+    }
+
+    /**
+     * Maps through the plan of the {@code sourceType} to {@code targetType}
+     * mapping, prepared on first use. Planned converters reuse the contexts
+     * they were planned for, so descending into properties, elements and
+     * entries allocates no context when tracing is disabled.
+     */
+    @Override
+    public <R> R map(Typed sourceType, Object source, Typed targetType) {
+        final Prepared p = prepared(sourceType, targetType);
+        return convert(call(p.ctx), p.plan, source);
+    }
+
+    /**
+     * Resolves the mapping from {@code sourceType} to {@code targetType} once.
+     * Bean properties, their types and nested contexts, collection element
+     * types and the chosen collection factories are resolved on first use of
+     * each path and reused by every subsequent call.
+     */
+    @Override
+    public <S, R> MappingFunction<S, R> prepare(Typed sourceType, Typed targetType) {
+        final Prepared p = prepared(sourceType, targetType);
+        return source -> convert(call(p.ctx), p.plan, source);
+    }
+
+    @Override
+    public <S, R> MappingFunction<S, R> prepare(Typed sourceType, Typed targetType, R orElse) {
+        final Prepared p = prepared(sourceType, targetType);
+        return source -> {
+            final Object value = p.plan.apply(call(p.ctx), source);
+            return value == ValueConverter.NO ? orElse : cast(value);
+        };
+    }
+
+    /**
+     * Merges {@code source} into {@code target}. Identities, when enabled,
+     * are tracked per call: a source reached again, as within a cycle, is
+     * merged once and its target referenced in its place.
+     */
+    @Override
+    public <R> R mapInto(Typed sourceType, Object source, Typed targetType, R target, Merge merge) {
+        if (target == null) {
+            return map(sourceType, source, targetType);
+        }
+        if (source == null) {
+            return target;
+        }
+        final Prepared p = prepared(sourceType, targetType);
+        return cast(new Updater(merge).update(call(p.ctx), source, target));
+    }
+
+    /**
+     * @param <R> the target type
+     * @param sourceType the source type
+     * @param targetType the target type
+     * @param merge how targets are merged
+     * @return a session repeatedly mapping sources of {@code sourceType} into
+     * the same target
+     */
+    public <R> MappingSession<R> session(Typed sourceType, Typed targetType, Merge merge) {
+        return new MappingSession<>(() -> call(prepared(sourceType, targetType).ctx), merge);
+    }
+
+    public <R> MappingSession<R> session(Class<?> sourceType, Class<R> targetType) {
+        return session(Typed.class_(sourceType), Typed.class_(targetType), Merge.defaults());
+    }
+
+    private Prepared prepared(Typed sourceType, Typed targetType) {
+        final MappingRequest request = new MappingRequest(sourceType, targetType);
+        final Prepared p = prepared.get(request);
+        if (p != null) {
+            return p;
+        }
+        final Prepared fresh = new Prepared(context(sourceType, targetType));
+        return prepared.putIfAbsent(request, fresh);
+    }
+
+    /**
+     * Prepares, on the common {@link ForkJoinPool}, every requested mapping
+     * and the mappings it depends on.
+     *
+     * @param requests the type pairs to prepare
+     * @return what was prepared and what could not be
+     * @see #warmUp(Collection, Executor)
+     */
+    public WarmUp warmUp(Collection<MappingRequest> requests) {
+        return warmUp(requests, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Prepares every requested mapping and, transitively, the mappings of
+     * bean properties, collection and array elements, map keys and values,
+     * optional and reference values, filling the inspector, type and plan
+     * caches before the first call. Each level of the graph is prepared
+     * concurrently on {@code executor}. Pairs that cannot be resolved are
+     * reported rather than thrown.
+     *
+     * @param requests the type pairs to prepare
+     * @param executor the executor preparing them
+     * @return what was prepared and what could not be
+     */
+    public WarmUp warmUp(Collection<MappingRequest> requests, Executor executor) {
+        final Set<MappingRequest> visited = ConcurrentHashMap.newKeySet();
+        final Map<MappingRequest, RuntimeException> failures = new ConcurrentHashMap<>();
+        final Set<MappingRequest> requested = new HashSet<>(requests);
+        List<MappingRequest> level = new ArrayList<>(requests);
+        while (!level.isEmpty()) {
+            final List<CompletableFuture<List<MappingRequest>>> tasks = new ArrayList<>();
+            for (MappingRequest request : level) {
+                if (visited.add(request)) {
+                    tasks.add(CompletableFuture.supplyAsync(() -> warmUp(request, requested.contains(request), failures), executor));
+                }
+            }
+            level = new ArrayList<>();
+            for (CompletableFuture<List<MappingRequest>> task : tasks) {
+                level.addAll(task.join());
+            }
+        }
+        visited.removeAll(failures.keySet());
+        return new WarmUp(visited, failures);
+    }
+
+    /**
+     * Prepares the mappings from the classes of a package, and of its
+     * subpackages, to their targets.
+     *
+     * @param loader the class loader to scan
+     * @param packageName the package to scan
+     * @param target the target of each class found, {@code null} to skip it
+     * @return what was prepared and what could not be
+     */
+    public WarmUp warmUp(ClassLoader loader, String packageName, Function<Class<?>, Class<?>> target) {
+        final List<MappingRequest> requests = new ArrayList<>();
+        for (Class<?> source : WarmUp.classes(loader, packageName)) {
+            final Class<?> t = target.apply(source);
+            if (t != null) {
+                requests.add(new MappingRequest(Typed.class_(source), Typed.class_(t)));
+            }
+        }
+        return warmUp(requests);
+    }
+
+    /**
+     * Plans a single pair, keeping the plan only when requested: the plans of
+     * dependencies are rebuilt cheaply from the warmed caches when first
+     * used and would otherwise crowd the requested ones out.
+     */
+    private List<MappingRequest> warmUp(MappingRequest request, boolean requested, Map<MappingRequest, RuntimeException> failures) {
+        try {
+            final Class<?> s = request.source.resolve();
+            final Class<?> t = request.target.resolve();
+            if (s == null || t == null) {
+                throw new IllegalArgumentException("unresolvable type");
+            }
+            final Prepared p = requested ? prepared(request.source, request.target) : new Prepared(context(request.source, request.target));
+            if (p.plan == Plans.never() || !converter.applies(s, t, false)) {
+                throw new MappingException(p.ctx, "no suitable converter found");
+            }
+            return dependencies(p.ctx, s, t);
+        } catch (RuntimeException ex) {
+            failures.put(request, ex);
+            return Collections.emptyList();
+        }
+    }
+
+    private List<MappingRequest> dependencies(MappingContext ctx, Class<?> s, Class<?> t) {
+        final Typed source = ctx.source.type;
+        final Typed target = ctx.target.type;
+        if (Map.class.isAssignableFrom(s) && Map.class.isAssignableFrom(t)) {
+            final Typed sm = source.as(Map.class);
+            final Typed tm = target.as(Map.class);
+            return Arrays.asList(new MappingRequest(sm.getGeneric(0), tm.getGeneric(0)), new MappingRequest(sm.getGeneric(1), tm.getGeneric(1)));
+        }
+        if ((s.isArray() || Iterable.class.isAssignableFrom(s)) && (t.isArray() || Iterable.class.isAssignableFrom(t))) {
+            return Collections.singletonList(new MappingRequest(element(source), element(target)));
+        }
+        final boolean sourceWraps = s == Optional.class || Types.isReferenceType(s);
+        final boolean targetWraps = t == Optional.class || Types.isReferenceType(t);
+        if (sourceWraps || targetWraps) {
+            return Collections.singletonList(new MappingRequest(sourceWraps ? source.getGeneric(0) : source, targetWraps ? target.getGeneric(0) : target));
+        }
+        if (s.isPrimitive() || t.isPrimitive() || t.isEnum() || t.getName().startsWith("java.")) {
+            return Collections.emptyList();
+        }
+        final List<MappingRequest> dependencies = new ArrayList<>();
+        for (Mapping mapping : inspector.mappings(source, target)) {
+            dependencies.add(new MappingRequest(mapping.accessor.type(ctx), mapping.mutator.type(ctx)));
+        }
+        return dependencies;
+    }
+
+    private static Typed element(Typed type) {
+        return type.isArray() ? type.getComponentType() : type.as(Iterable.class).getGeneric(0);
+    }
+
+    /**
+     * Drops the prepared mappings of types owned by classes defined by
+     * {@code loader} or by one of its descendants.
+     *
+     * @param loader the class loader
+     */
+    public void invalidate(ClassLoader loader) {
+        prepared.invalidate(loader);
+    }
+
+    /**
+     * @return the number of prepared mappings
+     */
+    public int prepared() {
+        return prepared.size();
+    }
+
+    private MappingContext context(Typed sourceType, Typed targetType) {
+        final Context srcCtx = new Context(sourceType, tracing);
+        final Context dstCtx = new Context(targetType, tracing);
+        return new MappingContext(srcCtx, dstCtx, inspector, converter);
+    }
+
+    /**
+     * The context of a single mapping call: the planned context itself unless
+     * identities are tracked, as they are per call.
+     */
+    private MappingContext call(MappingContext planned) {
+        return identity == Identity.Enabled ? planned.withIdentities(new Identities()) : planned;
+    }
+
+    private static <R> R convert(MappingContext ctx, ValueConverter converter, Object source) {
+        final Object value = converter.apply(ctx, source);
+        if (value == ValueConverter.NO) {
+            throw new MappingException(ctx, "no suitable converter found");
+        }
+        return cast(value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> R cast(Object value) {
+        return (R) value;
+    }
+
+    private static class Prepared {
+
+        public final MappingContext ctx;
+        public final ValueConverter plan;
+
+        public Prepared(MappingContext ctx) {
+            this.ctx = ctx;
+            this.plan = Plans.of(ctx);
+        }
+    }
+
+}
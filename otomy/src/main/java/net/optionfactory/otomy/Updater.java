@@ -0,0 +1,312 @@
+package net.optionfactory.otomy;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import net.optionfactory.otomy.converters.Accessor;
+import net.optionfactory.otomy.converters.Identities;
+import net.optionfactory.otomy.converters.Mapping;
+import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.converters.MappingException;
+import net.optionfactory.otomy.converters.ValueConverter;
+import net.optionfactory.otomy.types.Typed;
+import net.optionfactory.otomy.types.Types;
+
+/**
+ * Merges a source into an existing target as configured by a {@link Merge}.
+ * Beans are updated property by property, descending into the nested beans,
+ * lists, arrays and maps already in place; every other value, and every
+ * value with nothing in place, is mapped through the context converter.
+ * Collections that cannot be mutated are replaced. When identities are
+ * tracked, each source is registered with the target it is merged into before
+ * descending, so shared and cyclic sources are merged once.
+ */
+class Updater {
+
+    private final Merge merge;
+    private final Memory memory;
+
+    public Updater(Merge merge, Memory memory) {
+        this.merge = merge;
+        this.memory = memory;
+    }
+
+    public Updater(Merge merge) {
+        this(merge, null);
+    }
+
+    /**
+     * @return the updated target, the given one when it has been updated in
+     * place
+     */
+    @SuppressWarnings("unchecked")
+    public Object update(MappingContext ctx, Object source, Object target) {
+        if (source == null) {
+            return convert(ctx, source);
+        }
+        final Object known = Identities.mapped(ctx, source);
+        if (known != null) {
+            return known;
+        }
+        if (target == null) {
+            target = fresh(ctx, source);
+            if (target == null) {
+                return convert(ctx, source);
+            }
+        }
+        if (source instanceof Map && target instanceof Map) {
+            if (merge.elements == Merge.Elements.Replace) {
+                return convert(ctx, source);
+            }
+            Identities.register(ctx, source, target);
+            return mergeMap(ctx, (Map<?, ?>) source, (Map<Object, Object>) target);
+        }
+        final boolean sourceIsIterable = source instanceof Iterable || source.getClass().isArray();
+        if (sourceIsIterable && (target instanceof List || target instanceof Object[])) {
+            if (merge.elements == Merge.Elements.Replace) {
+                return convert(ctx, source);
+            }
+            final List<Object> sources = elements(source);
+            if (target instanceof Object[]) {
+                return mergeArray(ctx, source, sources, (Object[]) target);
+            }
+            Identities.register(ctx, source, target);
+            try {
+                return mergeList(ctx, sources, (List<Object>) target);
+            } catch (UnsupportedOperationException ex) {
+                return replace(ctx, source);
+            }
+        }
+        if (sourceIsIterable || source instanceof Map || !bean(target.getClass())) {
+            return convert(ctx, source);
+        }
+        Identities.register(ctx, source, target);
+        return mergeBean(ctx, source, target);
+    }
+
+    private Object mergeBean(MappingContext ctx, Object source, Object target) {
+        final Map<String, Accessor> current = ctx.inspector.accessors(ctx.target.type);
+        final List<Mapping> mappings = ctx.inspector.mappings(ctx.source.type, ctx.target.type);
+        final Object[] read = memory == null ? null : memory.of(target, mappings.size());
+        for (int i = 0; i != mappings.size(); ++i) {
+            final Mapping mapping = mappings.get(i);
+            final Typed accessorType = mapping.accessor.type(ctx);
+            final Typed mutatorType = mapping.mutator.type(ctx);
+            final MappingContext depCtx = ctx.dependent(accessorType, mapping.accessor.label(), mutatorType, mapping.mutator.label());
+            final Object value = mapping.accessor.access(depCtx, source);
+            if (read != null) {
+                final Object last = read[i];
+                read[i] = Memory.remembered(value);
+                if (Memory.unchanged(last, value)) {
+                    continue;
+                }
+            }
+            if (value == null && merge.nulls == Merge.Nulls.Skip) {
+                continue;
+            }
+            final Accessor accessor = current.get(mapping.mutator.label());
+            final Object existing = accessor == null ? null : accessor.access(depCtx, target);
+            final Object into = value == null ? null : existing != null ? existing : fresh(depCtx, value);
+            final Object updated = into == null ? ValueConverter.apply(ctx.converter, depCtx, value) : update(depCtx, value, into);
+            if (updated != ValueConverter.NO && (updated != existing || accessor == null)) {
+                mapping.mutator.mutate(depCtx, target, updated);
+            }
+        }
+        return target;
+    }
+
+    private Object mergeList(MappingContext ctx, List<Object> sources, List<Object> target) {
+        final Typed sourceType = element(ctx.source.type);
+        final Typed targetType = element(ctx.target.type);
+        final Function<Object, ?> sourceKey = merge.elements == Merge.Elements.ByKey ? merge.key(sourceType.resolve()) : null;
+        final Function<Object, ?> targetKey = merge.elements == Merge.Elements.ByKey ? merge.key(targetType.resolve()) : null;
+        if (sourceKey != null && targetKey != null) {
+            final Map<Object, Object> byKey = new HashMap<>();
+            for (Object t : target) {
+                if (t != null) {
+                    byKey.putIfAbsent(targetKey.apply(t), t);
+                }
+            }
+            final List<Object> merged = new ArrayList<>(sources.size());
+            for (int i = 0; i != sources.size(); ++i) {
+                final Object s = sources.get(i);
+                final Object existing = s == null ? null : byKey.remove(sourceKey.apply(s));
+                merged.add(element(ctx.dependent(sourceType, targetType, Integer.toString(i)), s, existing));
+            }
+            target.clear();
+            target.addAll(merged);
+            return target;
+        }
+        final int common = Math.min(sources.size(), target.size());
+        final Object[] read = memory == null ? null : memory.of(target, sources.size());
+        for (int i = 0; i != sources.size(); ++i) {
+            if (read != null) {
+                final Object last = read[i];
+                read[i] = Memory.remembered(sources.get(i));
+                if (i < common && Memory.unchanged(last, sources.get(i))) {
+                    continue;
+                }
+            }
+            final Object existing = i < common ? target.get(i) : null;
+            final Object updated = element(ctx.dependent(sourceType, targetType, Integer.toString(i)), sources.get(i), existing);
+            if (i >= common) {
+                target.add(updated);
+            } else if (updated != existing) {
+                target.set(i, updated);
+            }
+        }
+        if (target.size() > sources.size()) {
+            target.subList(sources.size(), target.size()).clear();
+        }
+        return target;
+    }
+
+    private Object mergeArray(MappingContext ctx, Object source, List<Object> sources, Object[] target) {
+        if (sources.size() != target.length) {
+            return convert(ctx, source);
+        }
+        Identities.register(ctx, source, target);
+        final Typed sourceType = element(ctx.source.type);
+        final Typed targetType = element(ctx.target.type);
+        final Object[] read = memory == null ? null : memory.of(target, sources.size());
+        for (int i = 0; i != target.length; ++i) {
+            if (read != null) {
+                final Object last = read[i];
+                read[i] = Memory.remembered(sources.get(i));
+                if (Memory.unchanged(last, sources.get(i))) {
+                    continue;
+                }
+            }
+            target[i] = element(ctx.dependent(sourceType, targetType, Integer.toString(i)), sources.get(i), target[i]);
+        }
+        return target;
+    }
+
+    private Object mergeMap(MappingContext ctx, Map<?, ?> source, Map<Object, Object> target) {
+        final Typed sourceMap = ctx.source.type.as(Map.class);
+        final Typed targetMap = ctx.target.type.as(Map.class);
+        final Set<Object> keys = new HashSet<>();
+        final Object[] read = memory == null ? null : memory.of(target, 3 * source.size());
+        try {
+            int n = 0;
+            for (Map.Entry<?, ?> entry : source.entrySet()) {
+                final int i = n++;
+                final String idx = Integer.toString(i);
+                final MappingContext keyCtx = ctx.dependent(sourceMap.getGeneric(0), targetMap.getGeneric(0), "entries", idx, "key");
+                final MappingContext valueCtx = ctx.dependent(sourceMap.getGeneric(1), targetMap.getGeneric(1), "entries", idx, "value");
+                final boolean knownKey = read != null && Memory.unchanged(read[3 * i], entry.getKey());
+                final Object key = knownKey ? read[3 * i + 1] : convert(keyCtx, entry.getKey());
+                keys.add(key);
+                if (read != null) {
+                    final Object last = read[3 * i + 2];
+                    read[3 * i] = Memory.remembered(entry.getKey());
+                    read[3 * i + 1] = key;
+                    read[3 * i + 2] = Memory.remembered(entry.getValue());
+                    if (knownKey && Memory.unchanged(last, entry.getValue()) && target.containsKey(key)) {
+                        continue;
+                    }
+                }
+                final Object existing = target.get(key);
+                final Object updated = element(valueCtx, entry.getValue(), existing);
+                if (updated != existing || !target.containsKey(key)) {
+                    target.put(key, updated);
+                }
+            }
+            target.keySet().retainAll(keys);
+            return target;
+        } catch (UnsupportedOperationException ex) {
+            return replace(ctx, source);
+        }
+    }
+
+    private Object element(MappingContext ctx, Object source, Object existing) {
+        return source == null ? convert(ctx, source) : update(ctx, source, existing);
+    }
+
+    /**
+     * A new target to update in place of a missing one, so that the values
+     * read for it are remembered: an empty list or map, or a bean built
+     * through its public no-argument constructor. {@code null} when not
+     * remembering or when the value is to be converted as a whole.
+     */
+    private Object fresh(MappingContext ctx, Object source) {
+        final Class<?> targetClass = ctx.target.type.resolve();
+        if (memory == null || targetClass == null || targetClass == Object.class) {
+            return null;
+        }
+        if (source instanceof Map) {
+            return targetClass.isAssignableFrom(LinkedHashMap.class) ? new LinkedHashMap<>() : null;
+        }
+        if (source instanceof Iterable || source.getClass().isArray()) {
+            return targetClass.isAssignableFrom(ArrayList.class) ? new ArrayList<>() : null;
+        }
+        if (!bean(source.getClass()) || !bean(targetClass) || targetClass.isInterface() || Modifier.isAbstract(targetClass.getModifiers())) {
+            return null;
+        }
+        try {
+            return targetClass.getConstructor().newInstance();
+        } catch (ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+
+    private static Object convert(MappingContext ctx, Object source) {
+        final Object value = ValueConverter.apply(ctx.converter, ctx, source);
+        if (value == ValueConverter.NO) {
+            throw new MappingException(ctx, "no suitable converter found");
+        }
+        return value;
+    }
+
+    /**
+     * Converts {@code source} in place of a target that turned out not to be
+     * mutable, forgetting the target it was registered with.
+     */
+    private static Object replace(MappingContext ctx, Object source) {
+        Identities.forget(ctx, source);
+        final Object value = convert(ctx, source);
+        Identities.register(ctx, source, value);
+        return value;
+    }
+
+    private static Typed element(Typed type) {
+        return type.isArray() ? type.getComponentType() : type.as(Iterable.class).getGeneric(0);
+    }
+
+    private static List<Object> elements(Object source) {
+        if (source instanceof Collection) {
+            return Arrays.asList(((Collection<?>) source).toArray());
+        }
+        if (source instanceof Object[]) {
+            return Arrays.asList((Object[]) source);
+        }
+        final List<Object> elements = new ArrayList<>();
+        if (source.getClass().isArray()) {
+            for (int i = 0; i != Array.getLength(source); ++i) {
+                elements.add(Array.get(source, i));
+            }
+            return elements;
+        }
+        for (Object element : (Iterable<?>) source) {
+            elements.add(element);
+        }
+        return elements;
+    }
+
+    private static boolean bean(Class<?> type) {
+        return !type.isPrimitive()
+                && !type.isArray()
+                && !type.isEnum()
+                && !Types.isImmutableFromJavaLang(type)
+                && !type.getName().startsWith("java.");
+    }
+}
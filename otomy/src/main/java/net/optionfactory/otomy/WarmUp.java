@@ -0,0 +1,118 @@
+package net.optionfactory.otomy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import net.optionfactory.otomy.converters.MappingRequest;
+
+/**
+ * The outcome of {@link TypedMapper#warmUp}: the type pairs prepared, the
+ * ones reached while walking the requested ones included, and the pairs that
+ * could not be resolved.
+ */
+public class WarmUp {
+
+    /**
+     * Every pair prepared, the requested ones and their transitive
+     * dependencies.
+     */
+    public final Set<MappingRequest> prepared;
+    /**
+     * The pairs no converter applies to or whose types could not be resolved,
+     * with the reason.
+     */
+    public final Map<MappingRequest, RuntimeException> failures;
+
+    public WarmUp(Set<MappingRequest> prepared, Map<MappingRequest, RuntimeException> failures) {
+        this.prepared = Collections.unmodifiableSet(prepared);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("prepared:%s, failures:%s", prepared.size(), failures.keySet());
+    }
+
+    /**
+     * Lists the classes of a package and of its subpackages, from both
+     * directories and jars. Anonymous, local and synthetic classes are
+     * skipped.
+     *
+     * @param loader the class loader to scan
+     * @param packageName the package, e.g. {@code com.example.dto}
+     * @return the classes found, neither initialized nor sorted
+     */
+    public static List<Class<?>> classes(ClassLoader loader, String packageName) {
+        final String path = packageName.replace('.', '/');
+        final List<String> names = new ArrayList<>();
+        try {
+            final Enumeration<URL> roots = loader.getResources(path);
+            while (roots.hasMoreElements()) {
+                final URL root = roots.nextElement();
+                if ("file".equals(root.getProtocol())) {
+                    scan(Paths.get(root.toURI()).toFile(), packageName, names);
+                } else if ("jar".equals(root.getProtocol())) {
+                    final JarURLConnection connection = (JarURLConnection) root.openConnection();
+                    connection.setUseCaches(false);
+                    try (JarFile jar = connection.getJarFile()) {
+                        final Enumeration<JarEntry> entries = jar.entries();
+                        while (entries.hasMoreElements()) {
+                            final String entry = entries.nextElement().getName();
+                            if (entry.startsWith(path + "/") && classFile(entry)) {
+                                names.add(entry.substring(0, entry.length() - ".class".length()).replace('/', '.'));
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (URISyntaxException ex) {
+            throw new IllegalArgumentException(ex);
+        }
+        final List<Class<?>> classes = new ArrayList<>(names.size());
+        for (String name : names) {
+            try {
+                final Class<?> c = Class.forName(name, false, loader);
+                if (!c.isAnonymousClass() && !c.isLocalClass() && !c.isSynthetic()) {
+                    classes.add(c);
+                }
+            } catch (ClassNotFoundException | LinkageError ex) {
+                // not loadable from this loader: nothing to warm up
+            }
+        }
+        return classes;
+    }
+
+    private static void scan(File directory, String packageName, List<String> names) {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                scan(file, packageName + "." + file.getName(), names);
+            } else if (classFile(file.getName())) {
+                names.add(packageName + "." + file.getName().substring(0, file.getName().length() - ".class".length()));
+            }
+        }
+    }
+
+    private static boolean classFile(String name) {
+        return name.endsWith(".class")
+                && !name.endsWith("module-info.class")
+                && !name.endsWith("package-info.class");
+    }
+}
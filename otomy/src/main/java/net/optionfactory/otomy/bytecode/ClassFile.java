@@ -0,0 +1,517 @@
+package net.optionfactory.otomy.bytecode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A minimal class file writer, covering what otomy needs to generate
+ * converters at runtime.
+ * <p>
+ * Classes are written with version 49 (Java 5), for which the verifier
+ * infers stack map frames itself, so that branches can be emitted without
+ * computing them. Maximum stack depth and locals are declared by the caller.
+ */
+public class ClassFile {
+
+    public static final int ACC_PUBLIC = 0x0001;
+    public static final int ACC_PRIVATE = 0x0002;
+    public static final int ACC_FINAL = 0x0010;
+    public static final int ACC_SUPER = 0x0020;
+    public static final int ACC_SYNTHETIC = 0x1000;
+
+    public static final int POP = 0x57;
+    public static final int POP2 = 0x58;
+    public static final int DUP = 0x59;
+    public static final int IRETURN = 0xac;
+    public static final int ARETURN = 0xb0;
+    public static final int RETURN = 0xb1;
+    public static final int LRETURN = 0xad;
+    public static final int FRETURN = 0xae;
+    public static final int DRETURN = 0xaf;
+    public static final int ILOAD = 0x15;
+    public static final int LLOAD = 0x16;
+    public static final int FLOAD = 0x17;
+    public static final int DLOAD = 0x18;
+    public static final int ALOAD = 0x19;
+    public static final int ASTORE = 0x3a;
+    public static final int IF_ACMPEQ = 0xa5;
+    public static final int IF_ACMPNE = 0xa6;
+    public static final int IFEQ = 0x99;
+    public static final int IFNE = 0x9a;
+    public static final int GOTO = 0xa7;
+    public static final int IFNULL = 0xc6;
+    public static final int IFNONNULL = 0xc7;
+    public static final int GETSTATIC = 0xb2;
+    public static final int GETFIELD = 0xb4;
+    public static final int PUTFIELD = 0xb5;
+    public static final int INVOKEVIRTUAL = 0xb6;
+    public static final int INVOKESPECIAL = 0xb7;
+    public static final int INVOKESTATIC = 0xb8;
+    public static final int INVOKEINTERFACE = 0xb9;
+    public static final int NEW = 0xbb;
+    public static final int CHECKCAST = 0xc0;
+
+    private static final int VERSION = 49;
+
+    private final ConstantPool pool = new ConstantPool();
+    private final int codeAttribute = pool.utf8("Code");
+    private final int signatureAttribute = pool.utf8("Signature");
+    private final int thisClass;
+    private final int superClass;
+    private final int[] interfaces;
+    private final List<int[]> fields = new ArrayList<>();
+    private final List<Code> methods = new ArrayList<>();
+    private int signature;
+
+    public ClassFile(String name, String superName, String... interfaceNames) {
+        this.thisClass = pool.class_(name);
+        this.superClass = pool.class_(superName);
+        this.interfaces = new int[interfaceNames.length];
+        for (int i = 0; i != interfaceNames.length; ++i) {
+            interfaces[i] = pool.class_(interfaceNames[i]);
+        }
+    }
+
+    /**
+     * Adds a field to this class.
+     *
+     * @param access the field access flags
+     * @param name the field name
+     * @param descriptor the field descriptor
+     */
+    public void field(int access, String name, String descriptor) {
+        field(access, name, descriptor, null);
+    }
+
+    /**
+     * Adds a field to this class.
+     *
+     * @param access the field access flags
+     * @param name the field name
+     * @param descriptor the field descriptor
+     * @param signature the generic signature of the field or {@code null}
+     */
+    public void field(int access, String name, String descriptor, String signature) {
+        fields.add(new int[]{access, pool.utf8(name), pool.utf8(descriptor), signature == null ? 0 : pool.utf8(signature)});
+    }
+
+    /**
+     * Sets the generic signature of this class, naming its parameterized
+     * superclass and interfaces.
+     *
+     * @param signature the class signature or {@code null}
+     */
+    public void signature(String signature) {
+        this.signature = signature == null ? 0 : pool.utf8(signature);
+    }
+
+    /**
+     * Adds a method to this class.
+     *
+     * @param access the method access flags
+     * @param name the method name
+     * @param descriptor the method descriptor
+     * @param maxStack the maximum depth of the operand stack
+     * @param maxLocals the number of local slots, including parameters
+     * @return the method code, to be filled by the caller
+     */
+    public Code method(int access, String name, String descriptor, int maxStack, int maxLocals) {
+        final Code code = new Code(pool, access, pool.utf8(name), pool.utf8(descriptor), maxStack, maxLocals);
+        methods.add(code);
+        return code;
+    }
+
+    public byte[] toByteArray() {
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(VERSION);
+            pool.write(out);
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(interfaces.length);
+            for (int i : interfaces) {
+                out.writeShort(i);
+            }
+            out.writeShort(fields.size());
+            for (int[] field : fields) {
+                out.writeShort(field[0]);
+                out.writeShort(field[1]);
+                out.writeShort(field[2]);
+                out.writeShort(field[3] == 0 ? 0 : 1);
+                attribute(out, signatureAttribute, field[3]);
+            }
+            out.writeShort(methods.size());
+            for (Code method : methods) {
+                method.write(out, codeAttribute, signatureAttribute);
+            }
+            out.writeShort(signature == 0 ? 0 : 1);
+            attribute(out, signatureAttribute, signature);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Writes an attribute holding a single constant, unless {@code value} is
+     * {@code 0}.
+     */
+    private static void attribute(DataOutputStream out, int attribute, int value) throws IOException {
+        if (value != 0) {
+            out.writeShort(attribute);
+            out.writeInt(2);
+            out.writeShort(value);
+        }
+    }
+
+    /**
+     * The opcode loading a local of the given type.
+     */
+    public static int load(Class<?> type) {
+        if (type == long.class) {
+            return LLOAD;
+        }
+        if (type == float.class) {
+            return FLOAD;
+        }
+        if (type == double.class) {
+            return DLOAD;
+        }
+        return type.isPrimitive() ? ILOAD : ALOAD;
+    }
+
+    /**
+     * The opcode returning a value of the given type.
+     */
+    public static int return_(Class<?> type) {
+        if (type == void.class) {
+            return RETURN;
+        }
+        if (type == long.class) {
+            return LRETURN;
+        }
+        if (type == float.class) {
+            return FRETURN;
+        }
+        if (type == double.class) {
+            return DRETURN;
+        }
+        return type.isPrimitive() ? IRETURN : ARETURN;
+    }
+
+    /**
+     * The internal name of a class, as used by class and member references.
+     * Arrays are referenced through their descriptor.
+     */
+    public static String internalName(Class<?> type) {
+        return type.isArray() ? descriptor(type) : type.getName().replace('.', '/');
+    }
+
+    public static String descriptor(Class<?> type) {
+        if (type.isArray()) {
+            return type.getName().replace('.', '/');
+        }
+        if (type == void.class) {
+            return "V";
+        }
+        if (type == boolean.class) {
+            return "Z";
+        }
+        if (type == byte.class) {
+            return "B";
+        }
+        if (type == char.class) {
+            return "C";
+        }
+        if (type == short.class) {
+            return "S";
+        }
+        if (type == int.class) {
+            return "I";
+        }
+        if (type == long.class) {
+            return "J";
+        }
+        if (type == float.class) {
+            return "F";
+        }
+        if (type == double.class) {
+            return "D";
+        }
+        return "L" + internalName(type) + ";";
+    }
+
+    public static String methodDescriptor(Class<?> returnType, Class<?>... parameterTypes) {
+        final StringBuilder sb = new StringBuilder("(");
+        for (Class<?> parameterType : parameterTypes) {
+            sb.append(descriptor(parameterType));
+        }
+        return sb.append(')').append(descriptor(returnType)).toString();
+    }
+
+    /**
+     * A position in the code of a method, used as a jump target.
+     */
+    public static class Label {
+
+        private int position = -1;
+        private final List<Integer> references = new ArrayList<>();
+    }
+
+    /**
+     * The body of a method. Instructions are appended in order.
+     */
+    public static class Code {
+
+        private final ConstantPool pool;
+        private final int access;
+        private final int name;
+        private final int descriptor;
+        private final int maxStack;
+        private final int maxLocals;
+        private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+        private final List<Label> labels = new ArrayList<>();
+        private int signature;
+
+        private Code(ConstantPool pool, int access, int name, int descriptor, int maxStack, int maxLocals) {
+            this.pool = pool;
+            this.access = access;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.maxStack = maxStack;
+            this.maxLocals = maxLocals;
+        }
+
+        /**
+         * Sets the generic signature of this method.
+         *
+         * @param signature the method signature or {@code null}
+         * @return this code
+         */
+        public Code signature(String signature) {
+            this.signature = signature == null ? 0 : pool.utf8(signature);
+            return this;
+        }
+
+        public Code op(int opcode) {
+            code.write(opcode);
+            return this;
+        }
+
+        public Code local(int opcode, int index) {
+            code.write(opcode);
+            code.write(index);
+            return this;
+        }
+
+        public Code push(int value) {
+            if (value >= -1 && value <= 5) {
+                code.write(0x03 + value);
+            } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                code.write(0x10);
+                code.write(value);
+            } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                code.write(0x11);
+                u2(value);
+            } else {
+                code.write(0x13);
+                u2(pool.integer(value));
+            }
+            return this;
+        }
+
+        public Code type(int opcode, String internalName) {
+            code.write(opcode);
+            u2(pool.class_(internalName));
+            return this;
+        }
+
+        public Code field(int opcode, String owner, String name, String descriptor) {
+            code.write(opcode);
+            u2(pool.member(9, owner, name, descriptor));
+            return this;
+        }
+
+        public Code invoke(int opcode, String owner, String name, String descriptor) {
+            final boolean itf = opcode == INVOKEINTERFACE;
+            code.write(opcode);
+            u2(pool.member(itf ? 11 : 10, owner, name, descriptor));
+            if (itf) {
+                code.write(argumentSlots(descriptor) + 1);
+                code.write(0);
+            }
+            return this;
+        }
+
+        public Code jump(int opcode, Label target) {
+            target.references.add(code.size());
+            if (!labels.contains(target)) {
+                labels.add(target);
+            }
+            code.write(opcode);
+            u2(0);
+            return this;
+        }
+
+        public Code mark(Label label) {
+            label.position = code.size();
+            if (!labels.contains(label)) {
+                labels.add(label);
+            }
+            return this;
+        }
+
+        private void u2(int value) {
+            code.write((value >>> 8) & 0xFF);
+            code.write(value & 0xFF);
+        }
+
+        private void write(DataOutputStream out, int codeAttribute, int signatureAttribute) throws IOException {
+            final byte[] bytes = code.toByteArray();
+            for (Label label : labels) {
+                if (label.position == -1) {
+                    throw new IllegalStateException("unmarked label");
+                }
+                for (int at : label.references) {
+                    final int offset = label.position - at;
+                    bytes[at + 1] = (byte) (offset >>> 8);
+                    bytes[at + 2] = (byte) offset;
+                }
+            }
+            out.writeShort(access);
+            out.writeShort(name);
+            out.writeShort(descriptor);
+            out.writeShort(signature == 0 ? 1 : 2);
+            out.writeShort(codeAttribute);
+            out.writeInt(2 + 2 + 4 + bytes.length + 2 + 2);
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            out.writeShort(0);
+            out.writeShort(0);
+            attribute(out, signatureAttribute, signature);
+        }
+
+        private static int argumentSlots(String descriptor) {
+            int slots = 0;
+            for (int i = 1; descriptor.charAt(i) != ')'; ++i) {
+                final char c = descriptor.charAt(i);
+                if (c == 'J' || c == 'D') {
+                    slots += 2;
+                    continue;
+                }
+                slots += 1;
+                while (descriptor.charAt(i) == '[') {
+                    ++i;
+                }
+                if (descriptor.charAt(i) == 'L') {
+                    i = descriptor.indexOf(';', i);
+                }
+            }
+            return slots;
+        }
+    }
+
+    private static class ConstantPool {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> entries = new HashMap<>();
+        private int count = 1;
+
+        public int utf8(String value) {
+            final String key = "1:" + value;
+            final Integer existing = entries.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            try {
+                out.writeByte(1);
+                out.writeUTF(value);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return add(key);
+        }
+
+        public int integer(int value) {
+            final String key = "3:" + value;
+            final Integer existing = entries.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            write(3, value >>> 16, value & 0xFFFF);
+            return add(key);
+        }
+
+        public int class_(String internalName) {
+            final String key = "7:" + internalName;
+            final Integer existing = entries.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            final int name = utf8(internalName);
+            write(7, name);
+            return add(key);
+        }
+
+        public int member(int tag, String owner, String name, String descriptor) {
+            final String key = tag + ":" + owner + "." + name + ":" + descriptor;
+            final Integer existing = entries.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            final int ownerIndex = class_(owner);
+            final int nameAndType = nameAndType(name, descriptor);
+            write(tag, ownerIndex, nameAndType);
+            return add(key);
+        }
+
+        private int nameAndType(String name, String descriptor) {
+            final String key = "12:" + name + ":" + descriptor;
+            final Integer existing = entries.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            final int nameIndex = utf8(name);
+            final int descriptorIndex = utf8(descriptor);
+            write(12, nameIndex, descriptorIndex);
+            return add(key);
+        }
+
+        private void write(int tag, int... shorts) {
+            try {
+                out.writeByte(tag);
+                for (int s : shorts) {
+                    out.writeShort(s);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        private int add(String key) {
+            final int index = count++;
+            entries.put(key, index);
+            return index;
+        }
+
+        public void write(DataOutputStream to) throws IOException {
+            out.flush();
+            to.writeShort(count);
+            bytes.writeTo(to);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package net.optionfactory.otomy.bytecode;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Defines a single generated class. Classes it refers to are loaded through
+ * the parent loader first and then through each of the given loaders, so that
+ * a generated class can link against types coming from unrelated loaders.
+ * Since every generated class gets its own loader, it can be unloaded as soon
+ * as it is no longer referenced.
+ */
+public class GeneratedClassLoader extends ClassLoader {
+
+    private final ClassLoader[] loaders;
+
+    public GeneratedClassLoader(ClassLoader parent, ClassLoader... loaders) {
+        super(parent);
+        this.loaders = Arrays.stream(loaders).filter(Objects::nonNull).toArray(ClassLoader[]::new);
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        for (ClassLoader loader : loaders) {
+            try {
+                return loader.loadClass(name);
+            } catch (ClassNotFoundException ex) {
+                // try the next one
+            }
+        }
+        throw new ClassNotFoundException(name);
+    }
+
+    /**
+     * Whether {@code type} is the class this loader resolves its name to.
+     */
+    public boolean resolves(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) {
+            return true;
+        }
+        try {
+            return loadClass(type.getName()) == type;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
+    }
+
+    public Class<?> define(String name, byte[] bytes) {
+        return defineClass(name.replace('/', '.'), bytes, 0, bytes.length);
+    }
+}
@@ -1,5 +1,7 @@
 package net.optionfactory.otomy.converters;
 
+import java.lang.reflect.Member;
+import java.util.Optional;
 import net.optionfactory.otomy.types.Typed;
 
 /**
@@ -13,4 +15,11 @@ public interface Accessor {
     public String label();
 
     public Typed type(MappingContext mapping);
+
+    /**
+     * The field or method backing this accessor, if any.
+     */
+    public default Optional<Member> member() {
+        return Optional.empty();
+    }
 }
@@ -0,0 +1,222 @@
+package net.optionfactory.otomy.converters;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import net.optionfactory.otomy.types.LoaderCache;
+import net.optionfactory.otomy.types.Typed;
+import net.optionfactory.otomy.types.Types;
+
+/**
+ * Caches the properties and mappings of each type. Metadata for a given type
+ * or pair of types is built once, concurrent callers waiting for it, and
+ * mappings are looked up through a source to target table without
+ * allocating a key.
+ *
+ * @author rferranti
+ */
+public class CachingInspector implements Inspector {
+
+    /**
+     * Hit, miss and build counters of a cache.
+     */
+    public static class Counters {
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder builds = new LongAdder();
+        private final LongAdder buildNanos = new LongAdder();
+
+        public long hits() {
+            return hits.sum();
+        }
+
+        public long misses() {
+            return misses.sum();
+        }
+
+        public long builds() {
+            return builds.sum();
+        }
+
+        public long buildNanos() {
+            return buildNanos.sum();
+        }
+
+        private <K, V> Function<K, V> timed(Function<K, V> build) {
+            return key -> {
+                final long start = System.nanoTime();
+                try {
+                    return build.apply(key);
+                } finally {
+                    buildNanos.add(System.nanoTime() - start);
+                    builds.increment();
+                }
+            };
+        }
+    }
+
+    private final LoaderCache<Typed, Map<String, Accessor>> accessors;
+    private final LoaderCache<Typed, Map<String, Mutator>> mutators;
+    private final LoaderCache<Typed, ConcurrentMap<Typed, List<Mapping>>> mappings;
+    public final Counters accessorCounters = new Counters();
+    public final Counters mutatorCounters = new Counters();
+    public final Counters mappingCounters = new Counters();
+    private final PropertyAccess access;
+
+    /**
+     * @param access the property access
+     * @param bound the maximum number of entries cached per owning class
+     */
+    public CachingInspector(PropertyAccess access, int bound) {
+        this.access = access;
+        this.accessors = new LoaderCache<>(bound, Typed::owner);
+        this.mutators = new LoaderCache<>(bound, Typed::owner);
+        this.mappings = new LoaderCache<>(bound, Typed::owner);
+    }
+
+    public CachingInspector(PropertyAccess access) {
+        this(access, 1024);
+    }
+
+    public CachingInspector() {
+        this(new ReflectionPropertyAccess());
+    }
+
+    @Override
+    public Map<String, Accessor> accessors(Typed type) {
+        final Map<String, Accessor> cached = accessors.get(type);
+        if (cached != null) {
+            accessorCounters.hits.increment();
+            return cached;
+        }
+        accessorCounters.misses.increment();
+        return accessors.computeIfAbsent(type, accessorCounters.timed(this::buildAccessors));
+    }
+
+    private Map<String, Accessor> buildAccessors(Typed type) {
+        final Map<String, Accessor> r = new ConcurrentHashMap<>();
+        for (Field field : access.fields(type)) {
+            final Accessor fa = access.accessor(field);
+            r.put(fa.label(), fa);
+        }
+        for (Method method : access.methods(type)) {
+            if (method.isSynthetic()) {
+                continue;
+            }
+            if (method.getParameterCount() != 0) {
+                continue;
+            }
+            final Class<?> returnType = method.getReturnType();
+            if (returnType == void.class) {
+                continue;
+            }
+            final String name = method.getName();
+            if (!name.startsWith("get") && !(name.startsWith("is") && (returnType == boolean.class || returnType == Boolean.class))) {
+                continue;
+            }
+            final Accessor ma = access.accessor(method);
+            r.put(ma.label(), ma);
+        }
+        return r;
+    }
+
+    @Override
+    public Map<String, Mutator> mutators(Typed type) {
+        final Map<String, Mutator> cached = mutators.get(type);
+        if (cached != null) {
+            mutatorCounters.hits.increment();
+            return cached;
+        }
+        mutatorCounters.misses.increment();
+        return mutators.computeIfAbsent(type, mutatorCounters.timed(this::buildMutators));
+    }
+
+    private Map<String, Mutator> buildMutators(Typed type) {
+        final Map<String, Mutator> r = new ConcurrentHashMap<>();
+        for (Field field : access.fields(type)) {
+            if (Modifier.isFinal(field.getModifiers())) {
+                continue;
+            }
+            final Mutator fm = access.mutator(field);
+            r.put(fm.label(), fm);
+        }
+        for (Method method : access.methods(type)) {
+            if (method.isSynthetic()) {
+                continue;
+            }
+            if (method.getParameterCount() != 1) {
+                continue;
+            }
+            if (!method.getName().startsWith("set")) {
+                continue;
+            }
+            final Mutator mm = access.mutator(method);
+            r.put(mm.label(), mm);
+        }
+        return r;
+    }
+
+    @Override
+    public List<Mapping> mappings(Typed sourcetype, Typed targetType) {
+        final Class<?> owner = Types.younger(sourcetype.owner(), targetType.owner());
+        ConcurrentMap<Typed, List<Mapping>> byTarget = mappings.get(owner, sourcetype);
+        if (byTarget != null) {
+            final List<Mapping> cached = byTarget.get(targetType);
+            if (cached != null) {
+                mappingCounters.hits.increment();
+                return cached;
+            }
+        }
+        mappingCounters.misses.increment();
+        if (byTarget == null) {
+            byTarget = mappings.computeIfAbsent(owner, sourcetype, source -> new ConcurrentHashMap<>());
+        }
+        return byTarget.computeIfAbsent(targetType, mappingCounters.timed(target -> buildMappings(sourcetype, target)));
+    }
+
+    private List<Mapping> buildMappings(Typed sourcetype, Typed targetType) {
+        final Map<String, Mutator> targetMutators = mutators(targetType);
+        final Map<String, Accessor> sourceAccessors = accessors(sourcetype);
+        final List<Mapping> result = new ArrayList<>();
+        for (Map.Entry<String, Accessor> entry : sourceAccessors.entrySet()) {
+            final String field = entry.getKey();
+            if (!targetMutators.containsKey(field)) {
+                continue;
+            }
+            result.add(new Mapping(entry.getValue(), targetMutators.get(field)));
+        }
+        return result;
+    }
+
+    /**
+     * Drops the properties and mappings of types owned by classes defined by
+     * {@code loader} or by one of its descendants.
+     *
+     * @param loader the class loader
+     */
+    public void invalidate(ClassLoader loader) {
+        accessors.invalidate(loader);
+        mutators.invalidate(loader);
+        mappings.invalidate(loader);
+    }
+
+    /**
+     * @return the number of cached accessor maps, mutator maps and mappings
+     */
+    public int size() {
+        int size = accessors.size() + mutators.size();
+        for (Map<Typed, List<Mapping>> byTarget : mappings.values()) {
+            size += byTarget.size();
+        }
+        return size;
+    }
+
+}
@@ -28,13 +28,19 @@ public class Context {
         this.path = path;
     }
 
+    /**
+     * Extends the path when tracing is enabled and, when sampled, only while a
+     * plan is being built: contexts derived while mapping keep the path of
+     * the planned context they are derived from.
+     */
     public Context dependent(Typed dep, String field) {
-        return new Context(dep, this.tracing, Tracing.Enabled == tracing ? Cons.of(field, this.path) : this.path);
+        final boolean traced = Tracing.Enabled == tracing || Tracing.Sampled == tracing && Plans.planning();
+        return new Context(dep, this.tracing, traced ? Cons.of(field, this.path) : this.path);
     }
 
     @Override
     public String toString() {
-        if (Tracing.Enabled == tracing && path != Cons.<String>nil()) {
+        if (Tracing.Disabled != tracing && path != Cons.<String>nil()) {
             final LinkedList<String> fs = path.stream().collect(Collectors.toCollection(LinkedList::new));
             final Spliterator<String> fsSpliterator = Spliterators.spliterator(fs.descendingIterator(), fs.size(), Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL);
             return String.format("%s::%s", StreamSupport.stream(fsSpliterator, false).collect(Collectors.joining(".")), type);
@@ -60,6 +66,14 @@ public class Context {
             return null;
         }
 
+        public T car() {
+            return car;
+        }
+
+        public Cons<T> cdr() {
+            return cdr;
+        }
+
         public Stream<T> stream() {
             return StreamSupport.stream(new ConsSpliterator<>(this), false);
         }
@@ -0,0 +1,47 @@
+package net.optionfactory.otomy.converters;
+
+/**
+ *
+ * @author rferranti
+ */
+public interface Converter {
+
+    public Conversion<?> convert(MappingContext ctx, Object source);
+
+    /**
+     * Declares whether this converter may apply to values of contexts whose
+     * source and target types resolve to the given classes. Returning
+     * {@code false} guarantees that {@link #convert(MappingContext, Object)}
+     * yields no valid conversion for any such context, allowing dispatchers to
+     * skip this converter altogether.
+     *
+     * @param sourceClass the resolved source class
+     * @param targetClass the resolved target class
+     * @param nullSource whether the source value is {@code null}
+     * @return {@code false} if this converter never applies
+     */
+    public default boolean applies(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+        return true;
+    }
+
+    /**
+     * Specializes this converter for the given context. The returned converter
+     * is only ever invoked with contexts having the same source and target
+     * types as {@code ctx}, so everything depending solely on those types can
+     * be resolved here once.
+     *
+     * @param ctx the context the plan is built for
+     * @return a converter specialized for {@code ctx}, this converter if no
+     * specialization is possible or {@code null} if this converter never
+     * applies to {@code ctx}
+     */
+    public default Converter plan(MappingContext ctx) {
+        final Class<?> sourceClass = ctx.source.type.resolve();
+        final Class<?> targetClass = ctx.target.type.resolve();
+        if (sourceClass == null || targetClass == null) {
+            return this;
+        }
+        return applies(sourceClass, targetClass, false) || applies(sourceClass, targetClass, true) ? this : null;
+    }
+
+}
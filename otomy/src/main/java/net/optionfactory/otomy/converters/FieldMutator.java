@@ -1,6 +1,8 @@
 package net.optionfactory.otomy.converters;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.util.Optional;
 import net.optionfactory.otomy.types.Typed;
 
 /**
@@ -34,4 +36,9 @@ public class FieldMutator implements Mutator {
         return Typed.field(field, mappingContext.target.type);
     }
 
+    @Override
+    public Optional<Member> member() {
+        return Optional.of(field);
+    }
+
 }
@@ -0,0 +1,105 @@
+package net.optionfactory.otomy.converters;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import net.optionfactory.otomy.types.LoaderCache;
+import net.optionfactory.otomy.types.Typed;
+
+/**
+ * The targets already mapped during a single mapping call, by source object
+ * identity and target type. Converters creating mutable targets register them
+ * before populating them, so shared source objects are mapped once and cycles
+ * are reproduced in the target graph.
+ */
+public class Identities {
+
+    private static final LoaderCache<Typed, Object> KEYS = new LoaderCache<>(4096, Typed::owner);
+
+    private final Map<Object, Map<Object, Object>> mapped = new IdentityHashMap<>();
+
+    /**
+     * @param source the source object
+     * @param targetType the target type
+     * @return the target {@code source} was mapped to or {@code null}
+     */
+    public Object get(Object source, Typed targetType) {
+        final Map<Object, Object> targets = mapped.get(source);
+        return targets == null ? null : targets.get(key(targetType));
+    }
+
+    public void put(Object source, Typed targetType, Object target) {
+        mapped.computeIfAbsent(source, s -> new HashMap<>(2)).put(key(targetType), target);
+    }
+
+    public void remove(Object source, Typed targetType) {
+        final Map<Object, Object> targets = mapped.get(source);
+        if (targets != null) {
+            targets.remove(key(targetType));
+        }
+    }
+
+    /**
+     * Target types are compared by their resolved classes and those of their
+     * generics: interned {@link Typed}s are equal only when declared the same
+     * way, so {@code List<T>} with {@code T} bound to {@code String} and
+     * {@code List<String>} differ while denoting the same target type. The
+     * key of a generic type is built once per {@code Typed} instance.
+     */
+    private static Object key(Typed type) {
+        if (!type.hasGenerics()) {
+            return type.resolve();
+        }
+        final Object cached = KEYS.get(type);
+        return cached != null ? cached : KEYS.putIfAbsent(type, structure(type));
+    }
+
+    private static Object structure(Typed type) {
+        final Typed[] generics = type.getGenerics();
+        final List<Object> key = new ArrayList<>(generics.length + 1);
+        key.add(type.resolve());
+        for (Typed generic : generics) {
+            key.add(key(generic));
+        }
+        return key;
+    }
+
+    /**
+     * @param ctx the context
+     * @param source the source object
+     * @return the target {@code source} was already mapped to in {@code ctx}
+     * or {@code null} when identities are not tracked
+     */
+    public static Object mapped(MappingContext ctx, Object source) {
+        return ctx.identities == null || source == null ? null : ctx.identities.get(source, ctx.target.type);
+    }
+
+    /**
+     * Registers {@code target} as the mapping of {@code source} in
+     * {@code ctx}, if identities are tracked.
+     *
+     * @param ctx the context
+     * @param source the source object
+     * @param target the target object
+     */
+    public static void register(MappingContext ctx, Object source, Object target) {
+        if (ctx.identities != null && source != null) {
+            ctx.identities.put(source, ctx.target.type, target);
+        }
+    }
+
+    /**
+     * Forgets the target {@code source} was mapped to in {@code ctx}, if
+     * identities are tracked.
+     *
+     * @param ctx the context
+     * @param source the source object
+     */
+    public static void forget(MappingContext ctx, Object source) {
+        if (ctx.identities != null && source != null) {
+            ctx.identities.remove(source, ctx.target.type);
+        }
+    }
+}
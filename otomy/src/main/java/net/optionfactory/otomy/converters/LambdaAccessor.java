@@ -0,0 +1,46 @@
+package net.optionfactory.otomy.converters;
+
+import java.lang.reflect.Member;
+import java.util.Optional;
+import java.util.function.Function;
+import net.optionfactory.otomy.types.Typed;
+
+/**
+ * Reads a property through a getter {@link Function}, taking its label and
+ * type from the given accessor.
+ */
+public class LambdaAccessor implements Accessor {
+
+    private final Accessor member;
+    private final Function<Object, Object> getter;
+
+    public LambdaAccessor(Accessor member, Function<Object, Object> getter) {
+        this.member = member;
+        this.getter = getter;
+    }
+
+    @Override
+    public Object access(MappingContext mappingContext, Object source) {
+        try {
+            return getter.apply(source);
+        } catch (Throwable ex) {
+            throw new MappingException(mappingContext, ex);
+        }
+    }
+
+    @Override
+    public String label() {
+        return member.label();
+    }
+
+    @Override
+    public Typed type(MappingContext mappingContext) {
+        return member.type(mappingContext);
+    }
+
+    @Override
+    public Optional<Member> member() {
+        return member.member();
+    }
+
+}
@@ -0,0 +1,46 @@
+package net.optionfactory.otomy.converters;
+
+import java.lang.reflect.Member;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import net.optionfactory.otomy.types.Typed;
+
+/**
+ * Writes a property through a setter {@link BiConsumer}, taking its label and
+ * type from the given mutator.
+ */
+public class LambdaMutator implements Mutator {
+
+    private final Mutator member;
+    private final BiConsumer<Object, Object> setter;
+
+    public LambdaMutator(Mutator member, BiConsumer<Object, Object> setter) {
+        this.member = member;
+        this.setter = setter;
+    }
+
+    @Override
+    public void mutate(MappingContext mappingContext, Object target, Object value) {
+        try {
+            setter.accept(target, value);
+        } catch (Throwable ex) {
+            throw new MappingException(mappingContext, ex);
+        }
+    }
+
+    @Override
+    public String label() {
+        return member.label();
+    }
+
+    @Override
+    public Typed type(MappingContext mappingContext) {
+        return member.type(mappingContext);
+    }
+
+    @Override
+    public Optional<Member> member() {
+        return member.member();
+    }
+
+}
@@ -0,0 +1,93 @@
+package net.optionfactory.otomy.converters;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Getters and setters accessed through {@link Function}s and
+ * {@link BiConsumer}s spun by the {@link LambdaMetafactory}, which the JIT
+ * can inline like hand-written calls. Fields, and methods the lookup class
+ * cannot link against, are accessed through method handles.
+ * <p>
+ * The lookup must have private access, e.g. be obtained through
+ * {@link MethodHandles#lookup()} by a class able to see the mapped types: a
+ * lookup created by otomy itself would grant access to otomy internals rather
+ * than to the caller types, so none is provided by default.
+ */
+public class LambdaPropertyAccess extends MethodHandlePropertyAccess {
+
+    public LambdaPropertyAccess(MethodHandles.Lookup lookup) {
+        super(lookup);
+    }
+
+    @Override
+    public Accessor accessor(Method getter) {
+        if (!linkable(getter)) {
+            return super.accessor(getter);
+        }
+        try {
+            final MethodHandle impl = lookup.unreflect(getter);
+            final CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    impl,
+                    impl.type().wrap());
+            final Function<Object, Object> fn = (Function<Object, Object>) site.getTarget().invokeExact();
+            return new LambdaAccessor(new MethodAccessor(getter), fn);
+        } catch (Throwable ex) {
+            return super.accessor(getter);
+        }
+    }
+
+    @Override
+    public Mutator mutator(Method setter) {
+        if (!linkable(setter)) {
+            return super.mutator(setter);
+        }
+        try {
+            final MethodHandle impl = lookup.unreflect(setter);
+            final CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    impl,
+                    impl.type().wrap().changeReturnType(void.class));
+            final BiConsumer<Object, Object> fn = (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+            return new LambdaMutator(new MethodMutator(setter), fn);
+        } catch (Throwable ex) {
+            return super.mutator(setter);
+        }
+    }
+
+    /**
+     * Spun lambda classes resolve the types they refer to through the lookup
+     * class loader.
+     */
+    private boolean linkable(Method method) {
+        if (!visible(method.getDeclaringClass()) || !visible(method.getReturnType())) {
+            return false;
+        }
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!visible(parameterType)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean visible(Class<?> type) {
+        if (type.isPrimitive()) {
+            return true;
+        }
+        try {
+            return Class.forName(type.getName(), false, lookup.lookupClass().getClassLoader()) == type;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
+    }
+}
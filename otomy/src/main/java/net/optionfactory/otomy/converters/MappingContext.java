@@ -8,28 +8,46 @@ public class MappingContext {
     public final Context target;
     public final Converter converter;
     public final Inspector inspector;
+    /**
+     * The targets mapped so far by the current call, {@code null} when
+     * identities are not tracked.
+     */
+    public final Identities identities;
 
-    public MappingContext(Context source, Context target, Inspector inspector, Converter converter) {
+    public MappingContext(Context source, Context target, Inspector inspector, Converter converter, Identities identities) {
         this.source = source;
         this.target = target;
         this.inspector = inspector;
         this.converter = converter;
+        this.identities = identities;
+    }
+
+    public MappingContext(Context source, Context target, Inspector inspector, Converter converter) {
+        this(source, target, inspector, converter, null);
+    }
+
+    /**
+     * @param identities the identities to track
+     * @return a context like this one tracking {@code identities}
+     */
+    public MappingContext withIdentities(Identities identities) {
+        return new MappingContext(source, target, inspector, converter, identities);
     }
 
     public MappingContext dependent(Typed sourceType, String sourceField, Typed targetType, String targetField) {
         final Context newSource = source.dependent(sourceType, sourceField);
         final Context newTarget = target.dependent(targetType, targetField);
-        return new MappingContext(newSource, newTarget, inspector, converter);
+        return new MappingContext(newSource, newTarget, inspector, converter, identities);
     }
 
     public MappingContext dependentTarget(Typed targetType, String targetField) {
         final Context newTarget = target.dependent(targetType, targetField);
-        return new MappingContext(source, newTarget, inspector, converter);
+        return new MappingContext(source, newTarget, inspector, converter, identities);
     }
 
     public MappingContext dependentSource(Typed sourceType, String sourceField) {
         final Context newSource = source.dependent(sourceType, sourceField);
-        return new MappingContext(newSource, target, inspector, converter);
+        return new MappingContext(newSource, target, inspector, converter, identities);
     }
 
     public MappingContext dependent(Typed sourceType, Typed targetType, String field, String... rest) {
@@ -39,7 +57,7 @@ public class MappingContext {
             newSource = newSource.dependent(sourceType, f);
             newTarget = newTarget.dependent(targetType, f);
         }
-        return new MappingContext(newSource, newTarget, inspector, converter);
+        return new MappingContext(newSource, newTarget, inspector, converter, identities);
     }
 
     @Override
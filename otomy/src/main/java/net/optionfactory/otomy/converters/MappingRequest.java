@@ -1,6 +1,7 @@
 package net.optionfactory.otomy.converters;
 
 import net.optionfactory.otomy.types.Typed;
+import net.optionfactory.otomy.types.Types;
 
 public class MappingRequest {
 
@@ -14,6 +15,13 @@ public class MappingRequest {
         this.hash = source.hashCode() + 31 * target.hashCode();
     }
 
+    /**
+     * @return the class with the youngest class loader either type refers to
+     */
+    public Class<?> owner() {
+        return Types.younger(source.owner(), target.owner());
+    }
+
     @Override
     public int hashCode() {
         return hash;
@@ -31,4 +39,9 @@ public class MappingRequest {
         return this.source.equals(other.source) && this.target.equals(other.target);
     }
 
+    @Override
+    public String toString() {
+        return source + " -> " + target;
+    }
+
 }
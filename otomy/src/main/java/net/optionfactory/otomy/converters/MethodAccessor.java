@@ -2,6 +2,8 @@ package net.optionfactory.otomy.converters;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Member;
+import java.util.Optional;
 import net.optionfactory.otomy.types.Typed;
 
 /**
@@ -37,4 +39,9 @@ public class MethodAccessor implements Accessor {
         return Typed.returnType(method, mappingContext.source.type);
     }
 
+    @Override
+    public Optional<Member> member() {
+        return Optional.of(method);
+    }
+
 }
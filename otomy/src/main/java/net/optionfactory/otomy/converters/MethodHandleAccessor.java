@@ -0,0 +1,48 @@
+package net.optionfactory.otomy.converters;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Member;
+import java.util.Optional;
+import net.optionfactory.otomy.types.Typed;
+
+/**
+ * Reads a property through a getter {@link MethodHandle}, taking its label and
+ * type from the given accessor.
+ */
+public class MethodHandleAccessor implements Accessor {
+
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+    private final Accessor member;
+    private final MethodHandle getter;
+
+    public MethodHandleAccessor(Accessor member, MethodHandle getter) {
+        this.member = member;
+        this.getter = getter.asType(GETTER);
+    }
+
+    @Override
+    public Object access(MappingContext mappingContext, Object source) {
+        try {
+            return (Object) getter.invokeExact(source);
+        } catch (Throwable ex) {
+            throw new MappingException(mappingContext, ex);
+        }
+    }
+
+    @Override
+    public String label() {
+        return member.label();
+    }
+
+    @Override
+    public Typed type(MappingContext mappingContext) {
+        return member.type(mappingContext);
+    }
+
+    @Override
+    public Optional<Member> member() {
+        return member.member();
+    }
+
+}
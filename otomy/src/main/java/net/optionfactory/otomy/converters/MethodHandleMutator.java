@@ -0,0 +1,48 @@
+package net.optionfactory.otomy.converters;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Member;
+import java.util.Optional;
+import net.optionfactory.otomy.types.Typed;
+
+/**
+ * Writes a property through a setter {@link MethodHandle}, taking its label and
+ * type from the given mutator.
+ */
+public class MethodHandleMutator implements Mutator {
+
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+    private final Mutator member;
+    private final MethodHandle setter;
+
+    public MethodHandleMutator(Mutator member, MethodHandle setter) {
+        this.member = member;
+        this.setter = setter.asType(SETTER);
+    }
+
+    @Override
+    public void mutate(MappingContext mappingContext, Object target, Object value) {
+        try {
+            setter.invokeExact(target, value);
+        } catch (Throwable ex) {
+            throw new MappingException(mappingContext, ex);
+        }
+    }
+
+    @Override
+    public String label() {
+        return member.label();
+    }
+
+    @Override
+    public Typed type(MappingContext mappingContext) {
+        return member.type(mappingContext);
+    }
+
+    @Override
+    public Optional<Member> member() {
+        return member.member();
+    }
+
+}
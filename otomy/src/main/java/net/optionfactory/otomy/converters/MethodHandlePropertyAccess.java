@@ -0,0 +1,161 @@
+package net.optionfactory.otomy.converters;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import net.optionfactory.otomy.types.Typed;
+
+/**
+ * Fields and methods accessed through {@link java.lang.invoke.MethodHandle}s
+ * unreflected once with the given {@link MethodHandles.Lookup}.
+ * <p>
+ * Besides public members, the non-static fields and methods the lookup has
+ * access to are exposed as well: a lookup created in the package of the mapped
+ * types reaches their package-private members, a lookup created in a mapped
+ * class reaches its private ones.
+ * <p>
+ * Members are listed from the top of the hierarchy down, so that a member of
+ * a subclass comes after, and takes precedence over, a superclass member with
+ * the same label.
+ */
+public class MethodHandlePropertyAccess implements PropertyAccess {
+
+    protected final MethodHandles.Lookup lookup;
+
+    public MethodHandlePropertyAccess(MethodHandles.Lookup lookup) {
+        this.lookup = lookup;
+    }
+
+    public MethodHandlePropertyAccess() {
+        this(MethodHandles.publicLookup());
+    }
+
+    @Override
+    public Field[] fields(Typed type) {
+        final List<Class<?>> hierarchy = hierarchy(type);
+        final Set<Field> publics = new LinkedHashSet<>(Arrays.asList(type.getFields()));
+        final Set<Field> fields = new LinkedHashSet<>();
+        for (Field field : publics) {
+            if (!hierarchy.contains(field.getDeclaringClass())) {
+                fields.add(field);
+            }
+        }
+        for (Class<?> c : hierarchy) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isPublic(field.getModifiers())
+                        ? publics.contains(field)
+                        : !Modifier.isStatic(field.getModifiers()) && !field.isSynthetic() && accessible(field)) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields.toArray(new Field[0]);
+    }
+
+    @Override
+    public Method[] methods(Typed type) {
+        final List<Class<?>> hierarchy = hierarchy(type);
+        final Set<Method> publics = new LinkedHashSet<>(Arrays.asList(type.getMethods()));
+        final Set<Method> methods = new LinkedHashSet<>();
+        for (Method method : publics) {
+            if (!hierarchy.contains(method.getDeclaringClass())) {
+                methods.add(method);
+            }
+        }
+        for (Class<?> c : hierarchy) {
+            for (Method method : c.getDeclaredMethods()) {
+                if (Modifier.isPublic(method.getModifiers())
+                        ? publics.contains(method)
+                        : !Modifier.isStatic(method.getModifiers()) && !method.isBridge() && accessible(method)) {
+                    methods.add(method);
+                }
+            }
+        }
+        return methods.toArray(new Method[0]);
+    }
+
+    /**
+     * The classes of {@code type} below {@link Object}, superclasses first.
+     */
+    private static List<Class<?>> hierarchy(Typed type) {
+        final List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> c = type.resolve(); c != null && c != Object.class; c = c.getSuperclass()) {
+            hierarchy.add(0, c);
+        }
+        return hierarchy;
+    }
+
+    @Override
+    public Accessor accessor(Field field) {
+        final FieldAccessor reflective = new FieldAccessor(field);
+        try {
+            return new MethodHandleAccessor(reflective, instance(field, lookup.unreflectGetter(field)));
+        } catch (IllegalAccessException ex) {
+            return reflective;
+        }
+    }
+
+    @Override
+    public Accessor accessor(Method getter) {
+        final MethodAccessor reflective = new MethodAccessor(getter);
+        try {
+            return new MethodHandleAccessor(reflective, instance(getter, lookup.unreflect(getter)));
+        } catch (IllegalAccessException ex) {
+            return reflective;
+        }
+    }
+
+    @Override
+    public Mutator mutator(Field field) {
+        final FieldMutator reflective = new FieldMutator(field);
+        try {
+            return new MethodHandleMutator(reflective, instance(field, lookup.unreflectSetter(field)));
+        } catch (IllegalAccessException ex) {
+            return reflective;
+        }
+    }
+
+    @Override
+    public Mutator mutator(Method setter) {
+        final MethodMutator reflective = new MethodMutator(setter);
+        try {
+            return new MethodHandleMutator(reflective, instance(setter, lookup.unreflect(setter)));
+        } catch (IllegalAccessException ex) {
+            return reflective;
+        }
+    }
+
+    /**
+     * Handles to static members are adapted to ignore the target instance.
+     */
+    private static MethodHandle instance(Member member, MethodHandle handle) {
+        return Modifier.isStatic(member.getModifiers()) ? MethodHandles.dropArguments(handle, 0, Object.class) : handle;
+    }
+
+    private boolean accessible(Field field) {
+        try {
+            lookup.unreflectGetter(field);
+            return true;
+        } catch (IllegalAccessException ex) {
+            return false;
+        }
+    }
+
+    private boolean accessible(Method method) {
+        try {
+            lookup.unreflect(method);
+            return true;
+        } catch (IllegalAccessException ex) {
+            return false;
+        }
+    }
+
+}
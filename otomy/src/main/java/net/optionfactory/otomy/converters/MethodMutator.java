@@ -2,6 +2,8 @@ package net.optionfactory.otomy.converters;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Member;
+import java.util.Optional;
 import net.optionfactory.otomy.types.Typed;
 
 /**
@@ -35,4 +37,10 @@ public class MethodMutator implements Mutator {
     public Typed type(MappingContext mappingContext) {
         return Typed.parameter(method, 0, mappingContext.target.type);
     }
+
+    @Override
+    public Optional<Member> member() {
+        return Optional.of(method);
+    }
+
 }
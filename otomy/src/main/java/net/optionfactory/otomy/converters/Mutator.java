@@ -1,5 +1,7 @@
 package net.optionfactory.otomy.converters;
 
+import java.lang.reflect.Member;
+import java.util.Optional;
 import net.optionfactory.otomy.types.Typed;
 
 /**
@@ -13,4 +15,11 @@ public interface Mutator {
     public String label();
 
     public Typed type(MappingContext mappingContext);
+
+    /**
+     * The field or method backing this mutator, if any.
+     */
+    public default Optional<Member> member() {
+        return Optional.empty();
+    }
 }
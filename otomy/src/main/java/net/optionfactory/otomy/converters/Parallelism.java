@@ -0,0 +1,136 @@
+package net.optionfactory.otomy.converters;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits the elements of large sources into chunks mapped concurrently.
+ * Sources with fewer elements than the threshold are mapped sequentially.
+ * When the executor is a {@link ForkJoinPool} ranges are split recursively,
+ * otherwise one task per chunk is submitted and awaited: executors with a
+ * bounded number of threads should not be shared by nested parallel
+ * mappings.
+ */
+public class Parallelism {
+
+    private static final Parallelism DISABLED = new Parallelism(Integer.MAX_VALUE, Runnable::run);
+
+    private final int threshold;
+    private final int chunk;
+    private final Executor executor;
+
+    public Parallelism(int threshold, Executor executor) {
+        if (threshold < 2) {
+            throw new IllegalArgumentException("threshold must be at least 2");
+        }
+        this.threshold = threshold;
+        this.chunk = Math.max(1, threshold / 2);
+        this.executor = executor;
+    }
+
+    /**
+     * @return a parallelism mapping every source sequentially
+     */
+    public static Parallelism disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * @param threshold the minimum number of elements mapped concurrently
+     * @return a parallelism running on the common {@link ForkJoinPool}
+     */
+    public static Parallelism common(int threshold) {
+        return new Parallelism(threshold, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @return the minimum number of elements mapped concurrently
+     */
+    public int threshold() {
+        return threshold;
+    }
+
+    /**
+     * @param size the number of elements of the source
+     * @return whether a source of {@code size} elements is split
+     */
+    public boolean applies(int size) {
+        return this != DISABLED && size >= threshold;
+    }
+
+    /**
+     * A range of indexes to be processed.
+     */
+    @FunctionalInterface
+    public interface Range {
+
+        void run(int from, int to);
+    }
+
+    /**
+     * Runs {@code range} over {@code [0, size)}, concurrently when
+     * {@code size} is at least the threshold. Returns once every index has
+     * been processed, rethrowing the first failure.
+     *
+     * @param size the number of indexes
+     * @param range the work for a range of indexes
+     */
+    public void run(int size, Range range) {
+        if (!applies(size)) {
+            range.run(0, size);
+            return;
+        }
+        if (executor instanceof ForkJoinPool) {
+            ((ForkJoinPool) executor).invoke(new Split(range, 0, size, chunk));
+            return;
+        }
+        final int chunks = (size + chunk - 1) / chunk;
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[chunks];
+        for (int i = 0; i != chunks; ++i) {
+            final int from = i * chunk;
+            final int to = Math.min(size, from + chunk);
+            futures[i] = CompletableFuture.runAsync(() -> range.run(from, to), executor);
+        }
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    private static class Split extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Range range;
+        private final int from;
+        private final int to;
+        private final int chunk;
+
+        public Split(Range range, int from, int to, int chunk) {
+            this.range = range;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                range.run(from, to);
+                return;
+            }
+            final int mid = (from + to) >>> 1;
+            invokeAll(new Split(range, from, mid, chunk), new Split(range, mid, to, chunk));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package net.optionfactory.otomy.converters;
+
+public abstract class Plans {
+
+    private static final ValueConverter NEVER = (ctx, source) -> ValueConverter.NO;
+    private static final ThreadLocal<Boolean> PLANNING = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    /**
+     * A converter never yielding a valid conversion.
+     */
+    public static ValueConverter never() {
+        return NEVER;
+    }
+
+    /**
+     * Plans the context converter for {@code ctx}.
+     *
+     * @param ctx the context to plan
+     * @return the planned converter, never {@code null}
+     */
+    public static ValueConverter of(MappingContext ctx) {
+        final Boolean outer = PLANNING.get();
+        PLANNING.set(Boolean.TRUE);
+        try {
+            final Converter planned = ctx.converter.plan(ctx);
+            return planned != null ? ValueConverter.of(planned) : NEVER;
+        } finally {
+            PLANNING.set(outer);
+        }
+    }
+
+    /**
+     * @return whether a plan is being built on the current thread
+     */
+    public static boolean planning() {
+        return PLANNING.get();
+    }
+
+    /**
+     * Plans the context converter for {@code ctx} on first use. Plans are
+     * built lazily so that recursive type graphs do not recurse while
+     * planning.
+     *
+     * @param ctx the context to plan
+     * @return a converter delegating to the planned one
+     */
+    public static ValueConverter lazy(MappingContext ctx) {
+        return new Lazy(ctx);
+    }
+
+    private static class Lazy implements ValueConverter {
+
+        private final MappingContext ctx;
+        private volatile ValueConverter planned;
+
+        public Lazy(MappingContext ctx) {
+            this.ctx = ctx;
+        }
+
+        @Override
+        public Object apply(MappingContext context, Object source) {
+            ValueConverter p = planned;
+            if (p == null) {
+                p = Plans.of(ctx);
+                planned = p;
+            }
+            return p.apply(context, source);
+        }
+
+        @Override
+        public Converter plan(MappingContext context) {
+            return Plans.of(ctx);
+        }
+
+    }
+}
@@ -0,0 +1,27 @@
+package net.optionfactory.otomy.converters;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import net.optionfactory.otomy.types.Typed;
+
+/**
+ * Discovers the fields and methods of a type and builds the
+ * {@link Accessor}s and {@link Mutator}s used to read and write them.
+ *
+ * @see CachingInspector
+ */
+public interface PropertyAccess {
+
+    Field[] fields(Typed type);
+
+    Method[] methods(Typed type);
+
+    Accessor accessor(Field field);
+
+    Accessor accessor(Method getter);
+
+    Mutator mutator(Field field);
+
+    Mutator mutator(Method setter);
+
+}
@@ -0,0 +1,43 @@
+package net.optionfactory.otomy.converters;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import net.optionfactory.otomy.types.Typed;
+
+/**
+ * Public fields and methods, accessed through {@link Field#get(Object)} and
+ * {@link Method#invoke(Object, Object...)}.
+ */
+public class ReflectionPropertyAccess implements PropertyAccess {
+
+    @Override
+    public Field[] fields(Typed type) {
+        return type.getFields();
+    }
+
+    @Override
+    public Method[] methods(Typed type) {
+        return type.getMethods();
+    }
+
+    @Override
+    public Accessor accessor(Field field) {
+        return new FieldAccessor(field);
+    }
+
+    @Override
+    public Accessor accessor(Method getter) {
+        return new MethodAccessor(getter);
+    }
+
+    @Override
+    public Mutator mutator(Field field) {
+        return new FieldMutator(field);
+    }
+
+    @Override
+    public Mutator mutator(Method setter) {
+        return new MethodMutator(setter);
+    }
+
+}
@@ -0,0 +1,94 @@
+package net.optionfactory.otomy.converters;
+
+/**
+ * A {@link Converter} yielding converted values directly, signaling that it
+ * does not apply to a value with {@link #NO} instead of allocating a
+ * {@link Conversion} per value. A {@code null} result is a valid conversion to
+ * {@code null}.
+ */
+@FunctionalInterface
+public interface ValueConverter extends Converter {
+
+    /**
+     * The result of a converter not applying to a value.
+     */
+    public static final Object NO = new Object() {
+        @Override
+        public String toString() {
+            return "NO";
+        }
+    };
+
+    public Object apply(MappingContext ctx, Object source);
+
+    @Override
+    public default Conversion<?> convert(MappingContext ctx, Object source) {
+        final Object value = apply(ctx, source);
+        if (value == NO) {
+            return Conversion.no();
+        }
+        return value == null ? Conversion.nil() : Conversion.of(value);
+    }
+
+    /**
+     * Applies {@code converter} to {@code source}, unwrapping the
+     * {@link Conversion} of converters not implementing this interface.
+     *
+     * @param converter the converter to apply
+     * @param ctx the context
+     * @param source the source value
+     * @return the converted value or {@link #NO}
+     */
+    public static Object apply(Converter converter, MappingContext ctx, Object source) {
+        if (converter instanceof ValueConverter) {
+            return ((ValueConverter) converter).apply(ctx, source);
+        }
+        final Conversion<?> conversion = converter.convert(ctx, source);
+        return conversion.valid ? conversion.value : NO;
+    }
+
+    /**
+     * Adapts a {@link Converter} to this interface.
+     *
+     * @param converter the converter to adapt
+     * @return the converter itself when it already is a value converter, an
+     * adapter otherwise
+     */
+    public static ValueConverter of(Converter converter) {
+        if (converter instanceof ValueConverter) {
+            return (ValueConverter) converter;
+        }
+        return new Adapter(converter);
+    }
+
+    static class Adapter implements ValueConverter {
+
+        private final Converter converter;
+
+        public Adapter(Converter converter) {
+            this.converter = converter;
+        }
+
+        @Override
+        public Object apply(MappingContext ctx, Object source) {
+            final Conversion<?> conversion = converter.convert(ctx, source);
+            return conversion.valid ? conversion.value : NO;
+        }
+
+        @Override
+        public Conversion<?> convert(MappingContext ctx, Object source) {
+            return converter.convert(ctx, source);
+        }
+
+        @Override
+        public boolean applies(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+            return converter.applies(sourceClass, targetClass, nullSource);
+        }
+
+        @Override
+        public Converter plan(MappingContext ctx) {
+            final Converter planned = converter.plan(ctx);
+            return planned == converter ? this : planned;
+        }
+    }
+}
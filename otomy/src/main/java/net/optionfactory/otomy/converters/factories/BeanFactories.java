@@ -0,0 +1,36 @@
+package net.optionfactory.otomy.converters.factories;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Resolves, once per class, the first factory able to create beans of that
+ * class. Classes no factory can create are remembered as well.
+ */
+public class BeanFactories implements BeanFactory {
+
+    private final Collection<BeanFactory> factories;
+    private final ClassValue<Optional<Supplier<?>>> suppliers = new ClassValue<Optional<Supplier<?>>>() {
+        @Override
+        protected Optional<Supplier<?>> computeValue(Class<?> type) {
+            for (BeanFactory factory : factories) {
+                final Optional<Supplier<?>> candidate = factory.supplier(type);
+                if (candidate.isPresent()) {
+                    return candidate;
+                }
+            }
+            return Optional.empty();
+        }
+    };
+
+    public BeanFactories(Collection<BeanFactory> factories) {
+        this.factories = factories;
+    }
+
+    @Override
+    public Optional<Supplier<?>> supplier(Class<?> type) {
+        return suppliers.get(type);
+    }
+
+}
@@ -0,0 +1,30 @@
+package net.optionfactory.otomy.converters.factories;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Creates the target beans of a given class.
+ *
+ * @see BeanFactories
+ */
+public interface BeanFactory {
+
+    /**
+     * Resolves how instances of {@code type} are created.
+     *
+     * @param type the bean class
+     * @return the supplier of new instances of {@code type} or empty if this
+     * factory cannot create them
+     */
+    public Optional<Supplier<?>> supplier(Class<?> type);
+
+    /**
+     * A factory creating instances of exactly {@code type} through the given
+     * supplier, e.g. a static factory method.
+     */
+    public static <T> BeanFactory of(Class<T> type, Supplier<? extends T> supplier) {
+        final Optional<Supplier<?>> found = Optional.of(supplier);
+        return t -> t == type ? found : Optional.empty();
+    }
+}
@@ -0,0 +1,76 @@
+package net.optionfactory.otomy.converters.factories;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import net.optionfactory.otomy.converters.MappingContext;
+
+public class CollectionFactories implements CollectionFactory {
+
+    private final Collection<CollectionFactory> factories;
+
+    public CollectionFactories(Collection<CollectionFactory> factories) {
+        this.factories = factories;
+    }
+
+    @Override
+    public Optional<Collection<?>> collection(MappingContext ctx, int initialSize) {
+        for (CollectionFactory factory : factories) {
+            final Optional<Collection<?>> candidate = factory.collection(ctx, initialSize);
+            if (candidate.isPresent()) {
+                return candidate;
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Map<?, ?>> map(MappingContext ctx, int initialSize) {
+        for (CollectionFactory factory : factories) {
+            final Optional<Map<?, ?>> candidate = factory.map(ctx, initialSize);
+            if (candidate.isPresent()) {
+                return candidate;
+            }
+        }
+        return Optional.empty();
+
+    }
+
+    @Override
+    public CollectionFactory plan(MappingContext ctx) {
+        CollectionFactory collections = null;
+        CollectionFactory maps = null;
+        for (CollectionFactory factory : factories) {
+            if (collections == null && factory.collection(ctx, 0).isPresent()) {
+                collections = factory.plan(ctx);
+            }
+            if (maps == null && factory.map(ctx, 0).isPresent()) {
+                maps = factory.plan(ctx);
+            }
+        }
+        return new Selected(collections, maps);
+    }
+
+    private static class Selected implements CollectionFactory {
+
+        private final CollectionFactory collections;
+        private final CollectionFactory maps;
+
+        public Selected(CollectionFactory collections, CollectionFactory maps) {
+            this.collections = collections;
+            this.maps = maps;
+        }
+
+        @Override
+        public Optional<Collection<?>> collection(MappingContext ctx, int initialSize) {
+            return collections == null ? Optional.empty() : collections.collection(ctx, initialSize);
+        }
+
+        @Override
+        public Optional<Map<?, ?>> map(MappingContext ctx, int initialSize) {
+            return maps == null ? Optional.empty() : maps.map(ctx, initialSize);
+        }
+
+    }
+
+}
@@ -10,4 +10,12 @@ public interface CollectionFactory {
     public Optional<Collection<?>> collection(MappingContext ctx, int initialSize);
 
     public Optional<Map<?, ?>> map(MappingContext ctx, int initialSize);
+
+    /**
+     * Selects the factory to be used for every collection created for contexts
+     * having the same target type as {@code ctx}.
+     */
+    public default CollectionFactory plan(MappingContext ctx) {
+        return this;
+    }
 }
@@ -0,0 +1,96 @@
+package net.optionfactory.otomy.converters.factories;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Creates beans through their public no-arg constructor. The constructor is
+ * looked up once and invoked through a {@link Supplier} spun by the
+ * {@link LambdaMetafactory} when the class is visible from the lookup class,
+ * through a method handle otherwise.
+ */
+public class ConstructorBeanFactory implements BeanFactory {
+
+    private final MethodHandles.Lookup lookup;
+
+    public ConstructorBeanFactory(MethodHandles.Lookup lookup) {
+        this.lookup = lookup;
+    }
+
+    public ConstructorBeanFactory() {
+        this(MethodHandles.lookup());
+    }
+
+    @Override
+    public Optional<Supplier<?>> supplier(Class<?> type) {
+        if (type.isPrimitive() || type.isArray() || type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return Optional.empty();
+        }
+        final Constructor<?> constructor;
+        try {
+            constructor = type.getConstructor();
+        } catch (NoSuchMethodException | SecurityException ex) {
+            return Optional.empty();
+        }
+        final MethodHandle handle;
+        try {
+            handle = lookup.unreflectConstructor(constructor);
+        } catch (IllegalAccessException ex) {
+            return Optional.of(() -> reflective(constructor));
+        }
+        if (visible(type)) {
+            try {
+                final CallSite site = LambdaMetafactory.metafactory(lookup, "get",
+                        MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class),
+                        handle,
+                        handle.type());
+                return Optional.of((Supplier<?>) site.getTarget().invokeExact());
+            } catch (Throwable ex) {
+                // fall back to the method handle
+            }
+        }
+        final MethodHandle generic = handle.asType(MethodType.methodType(Object.class));
+        return Optional.of(() -> invoke(generic));
+    }
+
+    private static Object reflective(Constructor<?> constructor) {
+        try {
+            return constructor.newInstance();
+        } catch (InvocationTargetException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new UndeclaredThrowableException(ex.getCause());
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Object invoke(MethodHandle constructor) {
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new UndeclaredThrowableException(ex);
+        }
+    }
+
+    private boolean visible(Class<?> type) {
+        try {
+            return Class.forName(type.getName(), false, lookup.lookupClass().getClassLoader()) == type;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
+    }
+}
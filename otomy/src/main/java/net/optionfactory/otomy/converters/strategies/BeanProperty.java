@@ -0,0 +1,48 @@
+package net.optionfactory.otomy.converters.strategies;
+
+import net.optionfactory.otomy.converters.Accessor;
+import net.optionfactory.otomy.converters.Mapping;
+import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.converters.Mutator;
+import net.optionfactory.otomy.converters.Plans;
+import net.optionfactory.otomy.converters.ValueConverter;
+import net.optionfactory.otomy.types.Typed;
+
+/**
+ * A bean property mapping planned for a context: types, labels and the
+ * dependent context are resolved once.
+ */
+class BeanProperty {
+
+    public final Accessor accessor;
+    public final Mutator mutator;
+    public final Typed accessorType;
+    public final String accessorLabel;
+    public final Typed mutatorType;
+    public final String mutatorLabel;
+    public final MappingContext ctx;
+    public final ValueConverter converter;
+
+    public BeanProperty(MappingContext parent, Mapping mapping) {
+        this.accessor = mapping.accessor;
+        this.mutator = mapping.mutator;
+        this.accessorType = accessor.type(parent);
+        this.accessorLabel = accessor.label();
+        this.mutatorType = mutator.type(parent);
+        this.mutatorLabel = mutator.label();
+        this.ctx = parent.dependent(accessorType, accessorLabel, mutatorType, mutatorLabel);
+        this.converter = Plans.lazy(ctx);
+    }
+
+    public MappingContext context(MappingContext planned, MappingContext parent) {
+        return parent == planned ? ctx : parent.dependent(accessorType, accessorLabel, mutatorType, mutatorLabel);
+    }
+
+    public void copy(MappingContext planned, MappingContext parent, Object source, Object target) {
+        final MappingContext depCtx = context(planned, parent);
+        final Object converted = converter.apply(depCtx, accessor.access(depCtx, source));
+        if (converted != ValueConverter.NO) {
+            mutator.mutate(depCtx, target, converted);
+        }
+    }
+}
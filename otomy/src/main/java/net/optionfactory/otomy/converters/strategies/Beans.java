@@ -0,0 +1,122 @@
+package net.optionfactory.otomy.converters.strategies;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import net.optionfactory.otomy.converters.Accessor;
+import net.optionfactory.otomy.converters.Identities;
+import net.optionfactory.otomy.converters.Mapping;
+import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.converters.MappingException;
+import net.optionfactory.otomy.converters.Mutator;
+import net.optionfactory.otomy.converters.ValueConverter;
+import net.optionfactory.otomy.converters.factories.BeanFactories;
+import net.optionfactory.otomy.converters.factories.BeanFactory;
+import net.optionfactory.otomy.converters.factories.ConstructorBeanFactory;
+import net.optionfactory.otomy.types.Typed;
+
+/**
+ *
+ * @author rferranti
+ */
+public class Beans implements ValueConverter {
+
+    private final BeanFactory factory;
+
+    public Beans(BeanFactory factory) {
+        this.factory = factory;
+    }
+
+    public Beans() {
+        this(new BeanFactories(Collections.singletonList(new ConstructorBeanFactory())));
+    }
+
+    @Override
+    public Object apply(MappingContext ctx, Object source) {
+        final Class<?> targetClass = ctx.target.type.resolve();
+        final Optional<Supplier<?>> maybeSupplier = targetClass == null ? Optional.empty() : factory.supplier(targetClass);
+        if (!maybeSupplier.isPresent()) {
+            return NO;
+        }
+        final Object known = Identities.mapped(ctx, source);
+        if (known != null) {
+            return known;
+        }
+        final Object target = makeTargetBean(ctx, maybeSupplier.get());
+        Identities.register(ctx, source, target);
+        for (Mapping mapping : ctx.inspector.mappings(ctx.source.type, ctx.target.type)) {
+            final Accessor accessor = mapping.accessor;
+            final Mutator mutator = mapping.mutator;
+            final Typed accessorType = accessor.type(ctx);
+            final String accessorLabel = accessor.label();
+            final Typed mutatorType = mutator.type(ctx);
+            final String mutatorLabel = mutator.label();
+            final MappingContext depCtx = ctx.dependent(accessorType, accessorLabel, mutatorType, mutatorLabel);
+            final Object converted = ValueConverter.apply(ctx.converter, depCtx, accessor.access(depCtx, source));
+            if (converted != NO) {
+                mutator.mutate(depCtx, target, converted);
+            }
+        }
+        return target;
+    }
+
+    @Override
+    public boolean applies(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+        return factory.supplier(targetClass).isPresent();
+    }
+
+    @Override
+    public ValueConverter plan(MappingContext ctx) {
+        final Class<?> targetClass = ctx.target.type.resolve();
+        final Optional<Supplier<?>> maybeSupplier = targetClass == null ? Optional.empty() : factory.supplier(targetClass);
+        if (!maybeSupplier.isPresent()) {
+            return null;
+        }
+        final List<Mapping> mappings = ctx.inspector.mappings(ctx.source.type, ctx.target.type);
+        final BeanProperty[] properties = new BeanProperty[mappings.size()];
+        for (int i = 0; i != properties.length; ++i) {
+            properties[i] = new BeanProperty(ctx, mappings.get(i));
+        }
+        return new Plan(ctx, maybeSupplier.get(), properties);
+    }
+
+    static Object makeTargetBean(MappingContext ctx, Supplier<?> supplier) {
+        try {
+            return supplier.get();
+        } catch (MappingException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            throw new MappingException(ctx, ex);
+        }
+    }
+
+    private static class Plan implements ValueConverter {
+
+        private final MappingContext planned;
+        private final Supplier<?> supplier;
+        private final BeanProperty[] properties;
+
+        public Plan(MappingContext planned, Supplier<?> supplier, BeanProperty[] properties) {
+            this.planned = planned;
+            this.supplier = supplier;
+            this.properties = properties;
+        }
+
+        @Override
+        public Object apply(MappingContext ctx, Object source) {
+            final Object known = Identities.mapped(ctx, source);
+            if (known != null) {
+                return known;
+            }
+            final Object target = makeTargetBean(ctx, supplier);
+            Identities.register(ctx, source, target);
+            for (BeanProperty property : properties) {
+                property.copy(planned, ctx, source, target);
+            }
+            return target;
+        }
+
+    }
+
+}
@@ -0,0 +1,117 @@
+package net.optionfactory.otomy.converters.strategies;
+
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.converters.ValueConverter;
+import net.optionfactory.otomy.types.Typed;
+import net.optionfactory.otomy.types.Types;
+
+public class Boxing implements ValueConverter {
+
+    @Override
+    public Object apply(MappingContext ctx, Object source) {
+        final Class<?> st = ctx.source.type.resolve();
+        final Class<?> tt = ctx.target.type.resolve();
+        if (Types.isBoxType(st) || !Types.isBoxType(tt)) {
+            return NO;
+        }
+        final Typed valueType = valueType(ctx.target.type, tt);
+        final Function<Object, Object> box = boxer(tt);
+        if (valueType == null || box == null) {
+            return NO;
+        }
+        final MappingContext depCtx = ctx.dependentTarget(valueType, "value");
+        final Object value = ValueConverter.apply(ctx.converter, depCtx, source);
+        return value != NO ? box.apply(value) : NO;
+    }
+
+    @Override
+    public ValueConverter plan(MappingContext planned) {
+        final Class<?> st = planned.source.type.resolve();
+        final Class<?> tt = planned.target.type.resolve();
+        if (st == null || tt == null) {
+            return this;
+        }
+        if (Types.isBoxType(st) || !Types.isBoxType(tt)) {
+            return null;
+        }
+        final Typed valueType = valueType(planned.target.type, tt);
+        final Function<Object, Object> box = boxer(tt);
+        if (valueType == null || box == null) {
+            return null;
+        }
+        final Dependent dependent = new Dependent(planned, ctx -> ctx.dependentTarget(valueType, "value"));
+        return (ctx, source) -> {
+            final Object value = dependent.apply(ctx, source);
+            return value != NO ? box.apply(value) : NO;
+        };
+    }
+
+    private static Typed valueType(Typed target, Class<?> tt) {
+        if (tt == AtomicReference.class || tt == SoftReference.class || tt == WeakReference.class || tt == Optional.class) {
+            return target.getGeneric(0);
+        }
+        if (tt == AtomicBoolean.class) {
+            return Typed.class_(Boolean.class);
+        }
+        if (tt == AtomicLong.class) {
+            return Typed.class_(Long.class);
+        }
+        if (tt == AtomicInteger.class) {
+            return Typed.class_(Integer.class);
+        }
+        if (tt == AtomicLongArray.class) {
+            return Typed.class_(long[].class);
+        }
+        if (tt == AtomicIntegerArray.class) {
+            return Typed.class_(int[].class);
+        }
+        return null;
+    }
+
+    private static Function<Object, Object> boxer(Class<?> tt) {
+        if (tt == AtomicReference.class) {
+            return AtomicReference::new;
+        }
+        if (tt == SoftReference.class) {
+            return SoftReference::new;
+        }
+        if (tt == WeakReference.class) {
+            return WeakReference::new;
+        }
+        if (tt == Optional.class) {
+            return Optional::ofNullable;
+        }
+        if (tt == AtomicBoolean.class) {
+            return v -> new AtomicBoolean((Boolean) v);
+        }
+        if (tt == AtomicLong.class) {
+            return v -> new AtomicLong((Long) v);
+        }
+        if (tt == AtomicInteger.class) {
+            return v -> new AtomicInteger((Integer) v);
+        }
+        if (tt == AtomicLongArray.class) {
+            return v -> new AtomicLongArray((long[]) v);
+        }
+        if (tt == AtomicIntegerArray.class) {
+            return v -> new AtomicIntegerArray((int[]) v);
+        }
+        return null;
+    }
+
+    @Override
+    public boolean applies(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+        return !Types.isBoxType(sourceClass) && Types.isBoxType(targetClass);
+    }
+
+}
@@ -0,0 +1,31 @@
+package net.optionfactory.otomy.converters.strategies;
+
+import java.util.function.UnaryOperator;
+import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.converters.Plans;
+import net.optionfactory.otomy.converters.ValueConverter;
+
+/**
+ * A single wrapped value mapping planned for a context: the dependent context
+ * is derived once and reused whenever the plan is invoked with the context it
+ * was planned for.
+ */
+class Dependent {
+
+    private final MappingContext planned;
+    private final UnaryOperator<MappingContext> derive;
+    private final MappingContext ctx;
+    private final ValueConverter converter;
+
+    public Dependent(MappingContext planned, UnaryOperator<MappingContext> derive) {
+        this.planned = planned;
+        this.derive = derive;
+        this.ctx = derive.apply(planned);
+        this.converter = Plans.lazy(ctx);
+    }
+
+    public Object apply(MappingContext parent, Object value) {
+        final MappingContext depCtx = parent == planned ? ctx : derive.apply(parent);
+        return converter.apply(depCtx, value);
+    }
+}
@@ -0,0 +1,351 @@
+package net.optionfactory.otomy.converters.strategies;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import net.optionfactory.otomy.bytecode.ClassFile;
+import net.optionfactory.otomy.bytecode.GeneratedClassLoader;
+import net.optionfactory.otomy.converters.Identities;
+import net.optionfactory.otomy.converters.Mapping;
+import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.converters.MappingRequest;
+import net.optionfactory.otomy.converters.Plans;
+import net.optionfactory.otomy.converters.ValueConverter;
+import net.optionfactory.otomy.converters.factories.BeanFactories;
+import net.optionfactory.otomy.converters.factories.BeanFactory;
+import net.optionfactory.otomy.converters.factories.ConstructorBeanFactory;
+import net.optionfactory.otomy.types.LoaderCache;
+import net.optionfactory.otomy.types.Typed;
+import net.optionfactory.otomy.types.Types;
+
+import static net.optionfactory.otomy.bytecode.ClassFile.*;
+
+/**
+ * Maps beans through a class generated at runtime for each source and target
+ * type, calling getters, setters and fields directly. Properties having the
+ * same primitive or immutable type on both sides are copied inline, every
+ * other property is converted through the context converter.
+ * <p>
+ * Only public classes are handled: other beans, and properties backed by
+ * members the generated class cannot access, are left to {@link Beans}.
+ * Target beans are created through the given {@link BeanFactory}.
+ */
+public class GeneratedBeans implements ValueConverter {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final String COPIER = ClassFile.internalName(Copier.class);
+    private static final String CONTEXT = ClassFile.descriptor(MappingContext.class);
+
+    private final Set<Typed> immutables;
+    private final BeanFactory factory;
+    private final LoaderCache<MappingRequest, Generated> generated = new LoaderCache<>(1024, MappingRequest::owner);
+    private final LoaderCache<PlanRequest, ValueConverter> unplanned = new LoaderCache<>(1024, PlanRequest::owner);
+
+    public GeneratedBeans(Set<Typed> immutables, BeanFactory factory) {
+        this.immutables = immutables;
+        this.factory = factory;
+    }
+
+    public GeneratedBeans(Set<Typed> immutables) {
+        this(immutables, new BeanFactories(Collections.singletonList(new ConstructorBeanFactory())));
+    }
+
+    @Override
+    public Object apply(MappingContext ctx, Object source) {
+        if (source == null) {
+            return NO;
+        }
+        final PlanRequest req = new PlanRequest(ctx);
+        ValueConverter converter = unplanned.get(req);
+        if (converter == null) {
+            final ValueConverter planned = plan(ctx);
+            converter = unplanned.putIfAbsent(req, planned != null ? planned : Plans.never());
+        }
+        return converter.apply(ctx, source);
+    }
+
+    /**
+     * Drops the copiers generated for types owned by classes defined by
+     * {@code loader} or by one of its descendants.
+     *
+     * @param loader the class loader
+     */
+    public void invalidate(ClassLoader loader) {
+        generated.invalidate(loader);
+        unplanned.invalidate(loader);
+    }
+
+    @Override
+    public boolean applies(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+        return !nullSource && generatable(sourceClass, targetClass);
+    }
+
+    @Override
+    public ValueConverter plan(MappingContext ctx) {
+        final Class<?> sourceClass = ctx.source.type.resolve();
+        final Class<?> targetClass = ctx.target.type.resolve();
+        if (sourceClass == null || targetClass == null || !generatable(sourceClass, targetClass)) {
+            return null;
+        }
+        final Optional<Supplier<?>> maybeSupplier = factory.supplier(targetClass);
+        if (!maybeSupplier.isPresent()) {
+            return null;
+        }
+        final List<Mapping> mappings = ctx.inspector.mappings(ctx.source.type, ctx.target.type);
+        final BeanProperty[] properties = new BeanProperty[mappings.size()];
+        for (int i = 0; i != properties.length; ++i) {
+            properties[i] = new BeanProperty(ctx, mappings.get(i));
+        }
+        final MappingRequest req = new MappingRequest(ctx.source.type, ctx.target.type);
+        Generated g = generated.get(req);
+        if (g == null || g.mappings != mappings) {
+            g = new Generated(mappings, generate(sourceClass, targetClass, properties));
+            generated.put(req, g);
+        }
+        if (g.type == null) {
+            return null;
+        }
+        try {
+            return g.type.getConstructor().newInstance().bind(ctx, maybeSupplier.get(), properties);
+        } catch (ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+
+    private boolean generatable(Class<?> sourceClass, Class<?> targetClass) {
+        return !sourceClass.isPrimitive()
+                && !sourceClass.isArray()
+                && !targetClass.isPrimitive()
+                && !targetClass.isArray()
+                && accessible(sourceClass)
+                && accessible(targetClass)
+                && factory.supplier(targetClass).isPresent();
+    }
+
+    private static boolean accessible(Class<?> type) {
+        for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean accessible(Member member) {
+        return member != null
+                && Modifier.isPublic(member.getModifiers())
+                && !Modifier.isStatic(member.getModifiers())
+                && accessible(member.getDeclaringClass());
+    }
+
+    private boolean inline(BeanProperty property) {
+        final Class<?> type = property.mutatorType.resolve();
+        return type != null
+                && type == property.accessorType.resolve()
+                && (Types.isImmutableFromJavaLang(type) || immutables.contains(property.mutatorType))
+                && property.mutatorType.isAssignableFrom(property.accessorType);
+    }
+
+    private Class<? extends Copier> generate(Class<?> sourceClass, Class<?> targetClass, BeanProperty[] properties) {
+        final GeneratedClassLoader loader = new GeneratedClassLoader(targetClass.getClassLoader(), sourceClass.getClassLoader(), GeneratedBeans.class.getClassLoader());
+        if (!loader.resolves(sourceClass) || !loader.resolves(targetClass) || !loader.resolves(Copier.class)) {
+            return null;
+        }
+        final String name = String.format("net/optionfactory/otomy/generated/%sTo%s$%s", sourceClass.getSimpleName(), targetClass.getSimpleName(), SEQUENCE.incrementAndGet());
+        final String source = ClassFile.internalName(sourceClass);
+        final String target = ClassFile.internalName(targetClass);
+        final ClassFile cf = new ClassFile(name, COPIER);
+
+        cf.method(ACC_PUBLIC, "<init>", "()V", 1, 1)
+                .local(ALOAD, 0)
+                .invoke(INVOKESPECIAL, COPIER, "<init>", "()V")
+                .op(RETURN);
+
+        final Code copy = cf.method(ACC_PUBLIC, "copy", "(" + CONTEXT + "Ljava/lang/Object;Ljava/lang/Object;)V", 6, 5)
+                .local(ALOAD, 2)
+                .type(CHECKCAST, source)
+                .local(ASTORE, 2)
+                .local(ALOAD, 3)
+                .type(CHECKCAST, target)
+                .local(ASTORE, 3);
+        for (int i = 0; i != properties.length; ++i) {
+            final BeanProperty property = properties[i];
+            final Member accessor = property.accessor.member().orElse(null);
+            final Member mutator = property.mutator.member().orElse(null);
+            if (!accessible(accessor) || !accessible(mutator) || !loader.resolves(readType(accessor)) || !loader.resolves(writeType(mutator))) {
+                // delegate the whole property to its accessor and mutator
+                copy.local(ALOAD, 0).local(ALOAD, 1).push(i).local(ALOAD, 2).local(ALOAD, 3)
+                        .invoke(INVOKEVIRTUAL, COPIER, "copyProperty", "(" + CONTEXT + "ILjava/lang/Object;Ljava/lang/Object;)V");
+                continue;
+            }
+            final Class<?> readType = readType(accessor);
+            final Class<?> writeType = writeType(mutator);
+            final boolean inline = inline(property);
+            if (inline && readType.isPrimitive()) {
+                copy.local(ALOAD, 3).local(ALOAD, 2);
+                read(copy, accessor);
+                write(copy, mutator);
+                continue;
+            }
+            final Label next = new Label();
+            copy.local(ALOAD, 2);
+            read(copy, accessor);
+            box(copy, readType);
+            copy.local(ASTORE, 4);
+            final Label convert = new Label();
+            if (inline) {
+                copy.local(ALOAD, 4).jump(IFNULL, convert).local(ALOAD, 3).local(ALOAD, 4);
+                if (!writeType.isAssignableFrom(readType)) {
+                    copy.type(CHECKCAST, ClassFile.internalName(writeType));
+                }
+                write(copy, mutator);
+                copy.jump(GOTO, next);
+            }
+            copy.mark(convert)
+                    .local(ALOAD, 0).local(ALOAD, 1).push(i).local(ALOAD, 4)
+                    .invoke(INVOKEVIRTUAL, COPIER, "convertProperty", "(" + CONTEXT + "ILjava/lang/Object;)Ljava/lang/Object;")
+                    .local(ASTORE, 4)
+                    .local(ALOAD, 4)
+                    .field(GETSTATIC, COPIER, "SKIP", "Ljava/lang/Object;")
+                    .jump(IF_ACMPEQ, next)
+                    .local(ALOAD, 3)
+                    .local(ALOAD, 4);
+            unbox(copy, writeType);
+            write(copy, mutator);
+            copy.mark(next);
+        }
+        copy.op(RETURN);
+
+        try {
+            return loader.define(name, cf.toByteArray()).asSubclass(Copier.class);
+        } catch (LinkageError ex) {
+            return null;
+        }
+    }
+
+    private static Class<?> readType(Member accessor) {
+        return accessor instanceof Field ? ((Field) accessor).getType() : ((Method) accessor).getReturnType();
+    }
+
+    private static Class<?> writeType(Member mutator) {
+        return mutator instanceof Field ? ((Field) mutator).getType() : ((Method) mutator).getParameterTypes()[0];
+    }
+
+    private static void read(Code code, Member accessor) {
+        final String owner = ClassFile.internalName(accessor.getDeclaringClass());
+        if (accessor instanceof Field) {
+            code.field(GETFIELD, owner, accessor.getName(), ClassFile.descriptor(((Field) accessor).getType()));
+            return;
+        }
+        final Method getter = (Method) accessor;
+        final int opcode = getter.getDeclaringClass().isInterface() ? INVOKEINTERFACE : INVOKEVIRTUAL;
+        code.invoke(opcode, owner, getter.getName(), ClassFile.methodDescriptor(getter.getReturnType()));
+    }
+
+    private static void write(Code code, Member mutator) {
+        final String owner = ClassFile.internalName(mutator.getDeclaringClass());
+        if (mutator instanceof Field) {
+            code.field(PUTFIELD, owner, mutator.getName(), ClassFile.descriptor(((Field) mutator).getType()));
+            return;
+        }
+        final Method setter = (Method) mutator;
+        final int opcode = setter.getDeclaringClass().isInterface() ? INVOKEINTERFACE : INVOKEVIRTUAL;
+        code.invoke(opcode, owner, setter.getName(), ClassFile.methodDescriptor(setter.getReturnType(), setter.getParameterTypes()));
+        final Class<?> returned = setter.getReturnType();
+        if (returned == long.class || returned == double.class) {
+            code.op(POP2);
+        } else if (returned != void.class) {
+            code.op(POP);
+        }
+    }
+
+    private static void box(Code code, Class<?> type) {
+        if (!type.isPrimitive()) {
+            return;
+        }
+        final Class<?> boxed = Types.boxed(type);
+        code.invoke(INVOKESTATIC, ClassFile.internalName(boxed), "valueOf", ClassFile.methodDescriptor(boxed, type));
+    }
+
+    private static void unbox(Code code, Class<?> type) {
+        if (!type.isPrimitive()) {
+            if (type != Object.class) {
+                code.type(CHECKCAST, ClassFile.internalName(type));
+            }
+            return;
+        }
+        final Class<?> owner = type == boolean.class || type == char.class ? Types.boxed(type) : Number.class;
+        code.type(CHECKCAST, ClassFile.internalName(owner))
+                .invoke(INVOKEVIRTUAL, ClassFile.internalName(owner), type.getName() + "Value", ClassFile.methodDescriptor(type));
+    }
+
+    private static class Generated {
+
+        public final List<Mapping> mappings;
+        public final Class<? extends Copier> type;
+
+        public Generated(List<Mapping> mappings, Class<? extends Copier> type) {
+            this.mappings = mappings;
+            this.type = type;
+        }
+    }
+
+    /**
+     * The base class of generated bean copiers.
+     */
+    public abstract static class Copier implements ValueConverter {
+
+        /**
+         * Returned by {@link #convertProperty} when no valid conversion
+         * exists.
+         */
+        public static final Object SKIP = NO;
+
+        private MappingContext planned;
+        private Supplier<?> supplier;
+        private BeanProperty[] properties;
+
+        protected Copier() {
+        }
+
+        Copier bind(MappingContext planned, Supplier<?> supplier, BeanProperty[] properties) {
+            this.planned = planned;
+            this.supplier = supplier;
+            this.properties = properties;
+            return this;
+        }
+
+        protected abstract void copy(MappingContext ctx, Object source, Object target);
+
+        @Override
+        public final Object apply(MappingContext ctx, Object source) {
+            if (source == null) {
+                return NO;
+            }
+            final Object known = Identities.mapped(ctx, source);
+            if (known != null) {
+                return known;
+            }
+            final Object target = Beans.makeTargetBean(ctx, supplier);
+            Identities.register(ctx, source, target);
+            copy(ctx, source, target);
+            return target;
+        }
+
+        protected final Object convertProperty(MappingContext ctx, int property, Object value) {
+            final BeanProperty p = properties[property];
+            return p.converter.apply(p.context(planned, ctx), value);
+        }
+
+        protected final void copyProperty(MappingContext ctx, int property, Object source, Object target) {
+            properties[property].copy(planned, ctx, source, target);
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package net.optionfactory.otomy.converters.strategies;
 
 import java.util.Set;
-import net.optionfactory.otomy.converters.Conversion;
-import net.optionfactory.otomy.converters.Converter;
+import java.util.stream.Collectors;
 import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.converters.ValueConverter;
 import net.optionfactory.otomy.types.Typed;
 import net.optionfactory.otomy.types.Types;
 
@@ -11,21 +11,28 @@ import net.optionfactory.otomy.types.Types;
  *
  * @author rferranti
  */
-public class Immutables implements Converter {
+public class Immutables implements ValueConverter {
 
     private final Set<Typed> immutables;
+    private final Set<Class<?>> immutableClasses;
 
     public Immutables(Set<Typed> immutables) {
         this.immutables = immutables;
+        this.immutableClasses = immutables.stream().map(Typed::resolve).collect(Collectors.toSet());
     }
 
     @Override
-    public Conversion<?> convert(MappingContext ctx, Object source) {
+    public Object apply(MappingContext ctx, Object source) {
         final Class<?> t = ctx.target.type.resolve();
         if (!Types.isImmutableFromJavaLang(t) && !immutables.contains(ctx.target.type)) {
-            return Conversion.no();
+            return NO;
         }
-        return ctx.target.type.isAssignableFrom(ctx.source.type) ? Conversion.of(source) : Conversion.no();
+        return ctx.target.type.isAssignableFrom(ctx.source.type) ? source : NO;
+    }
+
+    @Override
+    public boolean applies(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+        return Types.isImmutableFromJavaLang(targetClass) || immutableClasses.contains(targetClass);
     }
 
 
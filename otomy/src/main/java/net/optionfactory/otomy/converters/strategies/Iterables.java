@@ -0,0 +1,464 @@
+package net.optionfactory.otomy.converters.strategies;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntFunction;
+import net.optionfactory.otomy.TypedMapper.Tracing;
+import net.optionfactory.otomy.converters.Identities;
+import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.converters.Parallelism;
+import net.optionfactory.otomy.converters.Plans;
+import net.optionfactory.otomy.converters.ValueConverter;
+import net.optionfactory.otomy.converters.factories.CollectionFactory;
+import net.optionfactory.otomy.types.Typed;
+import net.optionfactory.otomy.types.Types;
+
+/**
+ * Maps maps, iterables and arrays element by element. Elements whose target
+ * type is immutable and assignable from their source type are copied in bulk
+ * instead, unless a {@code null} element is found. Sized sources reaching the
+ * {@link Parallelism} threshold are mapped concurrently and assembled in
+ * encounter order, unless identities are tracked.
+ *
+ * @author rferranti
+ */
+public class Iterables implements ValueConverter {
+
+    private final CollectionFactory factory;
+    private final Set<Typed> immutables;
+    private final Parallelism parallelism;
+
+    public Iterables(CollectionFactory factory, Set<Typed> immutables, Parallelism parallelism) {
+        this.factory = factory;
+        this.immutables = immutables;
+        this.parallelism = parallelism;
+    }
+
+    public Iterables(CollectionFactory factory, Set<Typed> immutables) {
+        this(factory, immutables, Parallelism.disabled());
+    }
+
+    public Iterables(CollectionFactory factory) {
+        this(factory, Collections.emptySet());
+    }
+
+    @Override
+    public Object apply(MappingContext ctx, Object source) {
+        final Class<?> sourceClass = ctx.source.type.resolve();
+        final Class<?> targetClass = ctx.target.type.resolve();
+        final ValueConverter converter = ValueConverter.of(ctx.converter);
+        if (Map.class.isAssignableFrom(targetClass) && Map.class.isAssignableFrom(sourceClass)) {
+            //map to map
+            final Element key = element(ctx.source.type.getGeneric(0), ctx.target.type.getGeneric(0), "key", converter);
+            final Element value = element(ctx.source.type.getGeneric(1), ctx.target.type.getGeneric(1), "value", converter);
+            return mapToMap(ctx, false, parallelism, factory, key, value, source);
+        }
+        if (Iterable.class.isAssignableFrom(sourceClass) && Iterable.class.isAssignableFrom(targetClass)) {
+            //iterable to iterable
+            final Element element = element(ctx.source.type.getGeneric(0), ctx.target.type.getGeneric(0), null, converter);
+            return iterableToIterable(ctx, false, parallelism, factory, element, source);
+        }
+        if (Iterable.class.isAssignableFrom(sourceClass) && targetClass.isArray()) {
+            //iterable to array
+            final Element element = element(ctx.source.type.getGeneric(0), ctx.target.type.getComponentType(), null, converter);
+            return iterableToArray(ctx, false, parallelism, element, source);
+        }
+        if (sourceClass.isArray() && Iterable.class.isAssignableFrom(targetClass)) {
+            // array to iterable
+            final Element element = element(ctx.source.type.getComponentType(), ctx.target.type.getGeneric(0), null, converter);
+            return arrayToIterable(ctx, false, parallelism, factory, element, source);
+        }
+        if (sourceClass.isArray() && targetClass.isArray()) {
+            // array to array
+            final Element element = element(ctx.source.type.getComponentType(), ctx.target.type.getComponentType(), null, converter);
+            return arrayToArray(ctx, false, parallelism, element, source);
+        }
+        return NO;
+    }
+
+    @Override
+    public boolean applies(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+        final boolean sourceIsIterable = Iterable.class.isAssignableFrom(sourceClass) || sourceClass.isArray();
+        final boolean targetIsIterable = Iterable.class.isAssignableFrom(targetClass) || targetClass.isArray();
+        return (Map.class.isAssignableFrom(sourceClass) && Map.class.isAssignableFrom(targetClass))
+                || (sourceIsIterable && targetIsIterable);
+    }
+
+    @Override
+    public ValueConverter plan(MappingContext planned) {
+        final Class<?> sourceClass = planned.source.type.resolve();
+        final Class<?> targetClass = planned.target.type.resolve();
+        if (Map.class.isAssignableFrom(targetClass) && Map.class.isAssignableFrom(sourceClass)) {
+            final CollectionFactory f = factory.plan(planned);
+            final Element key = plannedElement(planned, planned.source.type.getGeneric(0), planned.target.type.getGeneric(0), "key");
+            final Element value = plannedElement(planned, planned.source.type.getGeneric(1), planned.target.type.getGeneric(1), "value");
+            return (ctx, source) -> mapToMap(ctx, reusable(planned, ctx), parallelism, f, key, value, source);
+        }
+        if (Iterable.class.isAssignableFrom(sourceClass) && Iterable.class.isAssignableFrom(targetClass)) {
+            final CollectionFactory f = factory.plan(planned);
+            final Element element = plannedElement(planned, planned.source.type.getGeneric(0), planned.target.type.getGeneric(0), null);
+            return (ctx, source) -> iterableToIterable(ctx, reusable(planned, ctx), parallelism, f, element, source);
+        }
+        if (Iterable.class.isAssignableFrom(sourceClass) && targetClass.isArray()) {
+            final Element element = plannedElement(planned, planned.source.type.getGeneric(0), planned.target.type.getComponentType(), null);
+            return (ctx, source) -> iterableToArray(ctx, reusable(planned, ctx), parallelism, element, source);
+        }
+        if (sourceClass.isArray() && Iterable.class.isAssignableFrom(targetClass)) {
+            final CollectionFactory f = factory.plan(planned);
+            final Element element = plannedElement(planned, planned.source.type.getComponentType(), planned.target.type.getGeneric(0), null);
+            return (ctx, source) -> arrayToIterable(ctx, reusable(planned, ctx), parallelism, f, element, source);
+        }
+        if (sourceClass.isArray() && targetClass.isArray()) {
+            final Element element = plannedElement(planned, planned.source.type.getComponentType(), planned.target.type.getComponentType(), null);
+            return (ctx, source) -> arrayToArray(ctx, reusable(planned, ctx), parallelism, element, source);
+        }
+        return null;
+    }
+
+    private Element element(Typed sourceType, Typed targetType, String label, ValueConverter converter) {
+        return new Element(sourceType, targetType, label, converter, null, copies(sourceType, targetType));
+    }
+
+    private Element plannedElement(MappingContext planned, Typed sourceType, Typed targetType, String label) {
+        return Element.planned(planned, sourceType, targetType, label, copies(sourceType, targetType));
+    }
+
+    private boolean copies(Typed sourceType, Typed targetType) {
+        final Class<?> sourceClass = sourceType.resolve();
+        final Class<?> targetClass = targetType.resolve();
+        return sourceClass != null
+                && targetClass != null
+                && !sourceClass.isPrimitive()
+                && !targetClass.isPrimitive()
+                && (Types.isImmutableFromJavaLang(targetClass) || immutables.contains(targetType))
+                && targetType.isAssignableFrom(sourceType);
+    }
+
+    private static boolean reusable(MappingContext planned, MappingContext ctx) {
+        return ctx == planned && ctx.target.tracing != Tracing.Enabled;
+    }
+
+    private static Object mapToMap(MappingContext ctx, boolean reuse, Parallelism parallelism, CollectionFactory factory, Element key, Element value, Object source) {
+        final Object known = Identities.mapped(ctx, source);
+        if (known != null) {
+            return known;
+        }
+        final Map<Object, Object> sourceMap = (Map<Object, Object>) source;
+        final Optional<Map<Object, Object>> maybeResult = (Optional) factory.map(ctx, sourceMap.size());
+        if (!maybeResult.isPresent()) {
+            return NO;
+        }
+        final Map<Object, Object> result = maybeResult.get();
+        Identities.register(ctx, source, result);
+        if (key.copied && value.copied && !hasNulls(sourceMap)) {
+            result.putAll(sourceMap);
+            return result;
+        }
+        if (concurrent(ctx, parallelism, sourceMap.size())) {
+            final List<Map.Entry<Object, Object>> entries = new ArrayList<>(sourceMap.entrySet());
+            final Object[] keys = new Object[entries.size()];
+            final Object[] values = new Object[entries.size()];
+            final AtomicBoolean failed = new AtomicBoolean();
+            parallelism.run(entries.size(), (from, to) -> {
+                for (int i = from; i != to && !failed.get(); ++i) {
+                    keys[i] = key.apply(ctx, reuse, i, entries.get(i).getKey());
+                    values[i] = value.apply(ctx, reuse, i, entries.get(i).getValue());
+                    if (keys[i] == NO || values[i] == NO) {
+                        failed.set(true);
+                    }
+                }
+            });
+            if (failed.get()) {
+                return NO;
+            }
+            for (int i = 0; i != entries.size(); ++i) {
+                result.put(keys[i], values[i]);
+            }
+            return result;
+        }
+        long i = 0;
+        for (Map.Entry<Object, Object> sourceEntry : sourceMap.entrySet()) {
+            final Object k = key.apply(ctx, reuse, i, sourceEntry.getKey());
+            final Object v = value.apply(ctx, reuse, i, sourceEntry.getValue());
+            if (k == NO || v == NO) {
+                return NO;
+            }
+            result.put(k, v);
+            ++i;
+        }
+        return result;
+    }
+
+    private static Object iterableToIterable(MappingContext ctx, boolean reuse, Parallelism parallelism, CollectionFactory factory, Element element, Object source) {
+        final Object known = Identities.mapped(ctx, source);
+        if (known != null) {
+            return known;
+        }
+        final Iterable<?> sourceIterable = (Iterable<?>) source;
+        final int maybeSize = (int) sourceIterable.spliterator().getExactSizeIfKnown();
+        final Optional<Collection<Object>> maybeCollection = (Optional) factory.collection(ctx, maybeSize);
+        if (!maybeCollection.isPresent()) {
+            return NO;
+        }
+        final Collection<Object> collection = maybeCollection.get();
+        Identities.register(ctx, source, collection);
+        if (element.copied && source instanceof Collection && !hasNulls((Collection<?>) source)) {
+            collection.addAll((Collection<?>) source);
+            return collection;
+        }
+        if (source instanceof Collection && concurrent(ctx, parallelism, ((Collection<?>) source).size())) {
+            final Object[] sources = ((Collection<?>) source).toArray();
+            final Object[] targets = concurrently(ctx, reuse, parallelism, element, sources.length, idx -> sources[idx]);
+            if (targets == null) {
+                return NO;
+            }
+            collection.addAll(Arrays.asList(targets));
+            return collection;
+        }
+        long i = 0;
+        for (Object sourceElement : sourceIterable) {
+            final Object el = element.apply(ctx, reuse, i, sourceElement);
+            if (el == NO) {
+                return NO;
+            }
+            collection.add(el);
+            ++i;
+        }
+        return collection;
+    }
+
+    private static Object iterableToArray(MappingContext ctx, boolean reuse, Parallelism parallelism, Element element, Object source) {
+        final Object known = Identities.mapped(ctx, source);
+        if (known != null) {
+            return known;
+        }
+        final Iterable<?> sourceAsIterable = (Iterable<?>) source;
+        final int size = size(sourceAsIterable);
+        final Object targetArray = Array.newInstance(element.targetType.resolve(), size);
+        Identities.register(ctx, source, targetArray);
+        if (element.copied && source instanceof Collection && !hasNulls((Collection<?>) source)) {
+            return ((Collection<?>) source).toArray((Object[]) targetArray);
+        }
+        if (source instanceof Collection && concurrent(ctx, parallelism, size)) {
+            final Object[] sources = ((Collection<?>) source).toArray();
+            final Object[] targets = concurrently(ctx, reuse, parallelism, element, sources.length, idx -> sources[idx]);
+            return targets == null ? NO : fill(targetArray, targets);
+        }
+        int i = 0;
+        for (Object sourceElement : sourceAsIterable) {
+            final Object el = element.apply(ctx, reuse, i, sourceElement);
+            if (el == NO) {
+                return NO;
+            }
+            Array.set(targetArray, i, el);
+            ++i;
+        }
+        return targetArray;
+    }
+
+    private static Object arrayToIterable(MappingContext ctx, boolean reuse, Parallelism parallelism, CollectionFactory factory, Element element, Object source) {
+        final Object known = Identities.mapped(ctx, source);
+        if (known != null) {
+            return known;
+        }
+        final int len = Array.getLength(source);
+        final Optional<Collection<Object>> maybeCollection = (Optional) factory.collection(ctx, len);
+        if (!maybeCollection.isPresent()) {
+            return NO;
+        }
+        final Collection<Object> targetCollection = maybeCollection.get();
+        Identities.register(ctx, source, targetCollection);
+        if (element.copied && source instanceof Object[] && !hasNulls((Object[]) source)) {
+            targetCollection.addAll(Arrays.asList((Object[]) source));
+            return targetCollection;
+        }
+        if (concurrent(ctx, parallelism, len)) {
+            final Object[] targets = concurrently(ctx, reuse, parallelism, element, len, reader(source));
+            if (targets == null) {
+                return NO;
+            }
+            targetCollection.addAll(Arrays.asList(targets));
+            return targetCollection;
+        }
+        for (int i = 0; i != len; ++i) {
+            final Object el = element.apply(ctx, reuse, i, Array.get(source, i));
+            if (el == NO) {
+                return NO;
+            }
+            targetCollection.add(el);
+        }
+        return targetCollection;
+    }
+
+    private static Object arrayToArray(MappingContext ctx, boolean reuse, Parallelism parallelism, Element element, Object source) {
+        final Object known = Identities.mapped(ctx, source);
+        if (known != null) {
+            return known;
+        }
+        final int len = Array.getLength(source);
+        final Object targetArray = Array.newInstance(element.targetType.resolve(), len);
+        Identities.register(ctx, source, targetArray);
+        if (element.copied && source instanceof Object[] && !hasNulls((Object[]) source)) {
+            System.arraycopy(source, 0, targetArray, 0, len);
+            return targetArray;
+        }
+        if (concurrent(ctx, parallelism, len)) {
+            final Object[] targets = concurrently(ctx, reuse, parallelism, element, len, reader(source));
+            return targets == null ? NO : fill(targetArray, targets);
+        }
+        for (int i = 0; i != len; ++i) {
+            final Object el = element.apply(ctx, reuse, i, Array.get(source, i));
+            if (el == NO) {
+                return NO;
+            }
+            Array.set(targetArray, i, el);
+        }
+        return targetArray;
+    }
+
+    /**
+     * The identities of a call are not shared across threads: tracked calls
+     * are always mapped sequentially.
+     */
+    private static boolean concurrent(MappingContext ctx, Parallelism parallelism, int size) {
+        return ctx.identities == null && parallelism.applies(size);
+    }
+
+    /**
+     * Maps {@code size} elements concurrently.
+     *
+     * @return the mapped elements in encounter order or {@code null} when an
+     * element could not be mapped
+     */
+    private static Object[] concurrently(MappingContext ctx, boolean reuse, Parallelism parallelism, Element element, int size, IntFunction<Object> sources) {
+        final Object[] targets = new Object[size];
+        final AtomicBoolean failed = new AtomicBoolean();
+        parallelism.run(size, (from, to) -> {
+            for (int i = from; i != to && !failed.get(); ++i) {
+                targets[i] = element.apply(ctx, reuse, i, sources.apply(i));
+                if (targets[i] == NO) {
+                    failed.set(true);
+                }
+            }
+        });
+        return failed.get() ? null : targets;
+    }
+
+    private static IntFunction<Object> reader(Object array) {
+        if (array instanceof Object[]) {
+            final Object[] elements = (Object[]) array;
+            return i -> elements[i];
+        }
+        return i -> Array.get(array, i);
+    }
+
+    private static Object fill(Object targetArray, Object[] elements) {
+        if (targetArray instanceof Object[]) {
+            System.arraycopy(elements, 0, targetArray, 0, elements.length);
+            return targetArray;
+        }
+        for (int i = 0; i != elements.length; ++i) {
+            Array.set(targetArray, i, elements[i]);
+        }
+        return targetArray;
+    }
+
+    private static boolean hasNulls(Collection<?> collection) {
+        for (Object element : collection) {
+            if (element == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasNulls(Object[] array) {
+        for (Object element : array) {
+            if (element == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasNulls(Map<?, ?> map) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int size(Iterable<?> iterable) {
+        final long maybeSize = iterable.spliterator().getExactSizeIfKnown();
+        if (maybeSize != -1) {
+            return (int) maybeSize;
+        }
+        long i = 0;
+        for (Object object : iterable) {
+            ++i;
+        }
+        //TODO: MAX_INT
+        return (int) i;
+    }
+
+    private static class Element {
+
+        public final Typed sourceType;
+        public final Typed targetType;
+        public final String label;
+        public final ValueConverter converter;
+        public final MappingContext planned;
+        public final boolean copied;
+
+        public Element(Typed sourceType, Typed targetType, String label, ValueConverter converter, MappingContext planned, boolean copied) {
+            this.sourceType = sourceType;
+            this.targetType = targetType;
+            this.label = label;
+            this.converter = converter;
+            this.planned = planned;
+            this.copied = copied;
+        }
+
+        /**
+         * The planned context stands for every element, so its path reads
+         * {@code *} rather than an index.
+         */
+        public static Element planned(MappingContext parent, Typed sourceType, Typed targetType, String label, boolean copied) {
+            final MappingContext ctx = label == null
+                    ? parent.dependent(sourceType, targetType, "*")
+                    : parent.dependent(sourceType, targetType, "entries", "*", label);
+            return new Element(sourceType, targetType, label, Plans.lazy(ctx), ctx, copied);
+        }
+
+        /**
+         * Converts the {@code i}-th element, copying non-null values of
+         * copied elements as they are.
+         */
+        public Object apply(MappingContext parent, boolean reuse, long i, Object value) {
+            if (copied && value != null) {
+                return value;
+            }
+            return converter.apply(context(parent, reuse, i), value);
+        }
+
+        public MappingContext context(MappingContext parent, boolean reuse, long i) {
+            if (reuse) {
+                return planned;
+            }
+            final String idx = Long.toString(i);
+            return label == null
+                    ? parent.dependent(sourceType, targetType, idx)
+                    : parent.dependent(sourceType, targetType, "entries", idx, label);
+        }
+    }
+}
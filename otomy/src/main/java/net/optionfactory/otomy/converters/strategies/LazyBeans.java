@@ -0,0 +1,611 @@
+package net.optionfactory.otomy.converters.strategies;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import net.optionfactory.otomy.bytecode.ClassFile;
+import net.optionfactory.otomy.bytecode.GeneratedClassLoader;
+import net.optionfactory.otomy.converters.Accessor;
+import net.optionfactory.otomy.converters.Mapping;
+import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.converters.MappingException;
+import net.optionfactory.otomy.converters.MappingRequest;
+import net.optionfactory.otomy.converters.Mutator;
+import net.optionfactory.otomy.converters.Plans;
+import net.optionfactory.otomy.converters.ValueConverter;
+import net.optionfactory.otomy.types.LoaderCache;
+import net.optionfactory.otomy.types.Typed;
+import net.optionfactory.otomy.types.Types;
+
+import static net.optionfactory.otomy.bytecode.ClassFile.*;
+
+/**
+ * Maps beans to instances of a class generated at runtime whose nested beans
+ * and collections are converted on first access. Properties of primitive or
+ * immutable types are copied when the target is created; every other
+ * property is converted, with the context captured at creation, the first
+ * time its getter is called. Setting a property before reading it discards
+ * the pending conversion.
+ * <p>
+ * Public, non-final, non-abstract targets with a public or protected no-arg
+ * constructor are subclassed, overriding the public non-final getters of
+ * properties set through setters. Public interfaces whose abstract methods
+ * are all getters and setters are implemented with a field per property,
+ * mapped from the source properties having the same name as a getter. Other
+ * targets, and classes without a property to defer, are left to the
+ * following converters.
+ * <p>
+ * Generated classes keep their state and property fields private and
+ * synthetic, and carry the generic signatures of the target type, so that
+ * lazy targets can themselves be inspected and mapped.
+ * <p>
+ * Lazy targets retain their source until every deferred property has been
+ * converted: sources must not change in the meantime. Deferred conversions
+ * run after the mapping call has returned, so mappings tracking identities
+ * are left to the following converters.
+ */
+public class LazyBeans implements ValueConverter {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final String STATE = ClassFile.internalName(State.class);
+    private static final String STATE_FIELD = "otomy$state";
+
+    private final Set<Typed> immutables;
+    private final LoaderCache<MappingRequest, Generated> generated = new LoaderCache<>(1024, MappingRequest::owner);
+    private final LoaderCache<PlanRequest, ValueConverter> unplanned = new LoaderCache<>(1024, PlanRequest::owner);
+
+    public LazyBeans(Set<Typed> immutables) {
+        this.immutables = immutables;
+    }
+
+    public LazyBeans() {
+        this(Collections.emptySet());
+    }
+
+    @Override
+    public Object apply(MappingContext ctx, Object source) {
+        if (source == null) {
+            return NO;
+        }
+        final PlanRequest req = new PlanRequest(ctx);
+        ValueConverter converter = unplanned.get(req);
+        if (converter == null) {
+            final ValueConverter planned = plan(ctx);
+            converter = unplanned.putIfAbsent(req, planned != null ? planned : Plans.never());
+        }
+        return converter.apply(ctx, source);
+    }
+
+    /**
+     * Drops the classes generated for types owned by classes defined by
+     * {@code loader} or by one of its descendants.
+     *
+     * @param loader the class loader
+     */
+    public void invalidate(ClassLoader loader) {
+        generated.invalidate(loader);
+        unplanned.invalidate(loader);
+    }
+
+    @Override
+    public boolean applies(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+        return !nullSource && bean(sourceClass) && bean(targetClass) && (targetClass.isInterface() || subclassable(targetClass));
+    }
+
+    @Override
+    public ValueConverter plan(MappingContext ctx) {
+        final Class<?> sourceClass = ctx.source.type.resolve();
+        final Class<?> targetClass = ctx.target.type.resolve();
+        if (sourceClass == null || targetClass == null || !applies(sourceClass, targetClass, false)) {
+            return null;
+        }
+        final List<Mapping> mappings = targetClass.isInterface()
+                ? interfaceMappings(ctx, targetClass)
+                : ctx.inspector.mappings(ctx.source.type, ctx.target.type);
+        if (mappings == null) {
+            return null;
+        }
+        final BeanProperty[] properties = new BeanProperty[mappings.size()];
+        for (int i = 0; i != properties.length; ++i) {
+            properties[i] = new BeanProperty(ctx, mappings.get(i));
+        }
+        final MappingRequest req = new MappingRequest(ctx.source.type, ctx.target.type);
+        Generated g = generated.get(req);
+        if (g == null || g.mappings != mappings && !targetClass.isInterface()) {
+            g = generate(ctx, targetClass, mappings, properties);
+            generated.put(req, g);
+        }
+        if (g.constructor == null) {
+            return null;
+        }
+        return new Plan(ctx, g, targetClass.isInterface() ? g.mappings(properties) : properties);
+    }
+
+    private boolean bean(Class<?> type) {
+        return !type.isPrimitive()
+                && !type.isArray()
+                && !type.isEnum()
+                && !Types.isImmutableFromJavaLang(type)
+                && !Iterable.class.isAssignableFrom(type)
+                && !Map.class.isAssignableFrom(type)
+                && !type.getName().startsWith("java.")
+                && accessible(type);
+    }
+
+    private static boolean subclassable(Class<?> type) {
+        if (Modifier.isFinal(type.getModifiers()) || Modifier.isAbstract(type.getModifiers())) {
+            return false;
+        }
+        try {
+            final Constructor<?> constructor = type.getDeclaredConstructor();
+            return Modifier.isPublic(constructor.getModifiers()) || Modifier.isProtected(constructor.getModifiers());
+        } catch (NoSuchMethodException | SecurityException ex) {
+            return false;
+        }
+    }
+
+    private static boolean accessible(Class<?> type) {
+        for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean overridable(Member member) {
+        return member instanceof Method
+                && Modifier.isPublic(member.getModifiers())
+                && !Modifier.isFinal(member.getModifiers())
+                && !Modifier.isStatic(member.getModifiers())
+                && accessible(member.getDeclaringClass());
+    }
+
+    /**
+     * Whether a property is converted on first access rather than copied.
+     */
+    private boolean deferrable(Typed type) {
+        final Class<?> c = type.resolve();
+        return c != null && !c.isPrimitive() && !Types.isImmutableFromJavaLang(c) && !c.isEnum() && !immutables.contains(type);
+    }
+
+    /**
+     * The source properties having the same name as a getter of the target
+     * interface, mapped to fields of the generated class once it exists, or
+     * {@code null} if the interface declares other abstract methods.
+     */
+    private List<Mapping> interfaceMappings(MappingContext ctx, Class<?> targetClass) {
+        final Map<String, Method> getters = getters(targetClass);
+        if (getters == null) {
+            return null;
+        }
+        final Map<String, Accessor> accessors = ctx.inspector.accessors(ctx.source.type);
+        final List<Mapping> mappings = new ArrayList<>();
+        for (Map.Entry<String, Method> getter : getters.entrySet()) {
+            final Accessor accessor = accessors.get(getter.getKey());
+            if (accessor != null) {
+                mappings.add(new Mapping(accessor, new GeneratedField(getter.getKey(), getter.getValue())));
+            }
+        }
+        return mappings;
+    }
+
+    /**
+     * The getters of an interface by property name, {@code null} if it
+     * declares abstract methods other than getters and setters of the same
+     * type.
+     */
+    private static Map<String, Method> getters(Class<?> type) {
+        final Map<String, Method> getters = new LinkedHashMap<>();
+        final List<Method> setters = new ArrayList<>();
+        for (Method method : type.getMethods()) {
+            if (!Modifier.isAbstract(method.getModifiers())) {
+                continue;
+            }
+            final String name = method.getName();
+            if (method.getParameterCount() == 0 && method.getReturnType() != void.class && (name.startsWith("get") && name.length() > 3 || name.startsWith("is") && name.length() > 2)) {
+                getters.putIfAbsent(label(method), method);
+            } else if (method.getParameterCount() == 1 && method.getReturnType() == void.class && name.startsWith("set") && name.length() > 3) {
+                setters.add(method);
+            } else {
+                return null;
+            }
+        }
+        for (Method setter : setters) {
+            final Method getter = getters.get(label(setter));
+            if (getter == null || getter.getReturnType() != setter.getParameterTypes()[0]) {
+                return null;
+            }
+        }
+        return getters;
+    }
+
+    private static String label(Method method) {
+        final String name = method.getName();
+        final int offset = name.startsWith("is") ? 2 : 3;
+        return Character.toLowerCase(name.charAt(offset)) + name.substring(offset + 1);
+    }
+
+    private Generated generate(MappingContext ctx, Class<?> targetClass, List<Mapping> mappings, BeanProperty[] properties) {
+        final GeneratedClassLoader loader = new GeneratedClassLoader(targetClass.getClassLoader(), LazyBeans.class.getClassLoader());
+        if (!loader.resolves(targetClass) || !loader.resolves(State.class)) {
+            return new Generated(mappings, null, new boolean[properties.length]);
+        }
+        final String name = String.format("net/optionfactory/otomy/generated/%sLazy$%s", targetClass.getSimpleName(), SEQUENCE.incrementAndGet());
+        final boolean itf = targetClass.isInterface();
+        final String superName = itf ? "java/lang/Object" : ClassFile.internalName(targetClass);
+        final ClassFile cf = itf
+                ? new ClassFile(name, superName, ClassFile.internalName(targetClass))
+                : new ClassFile(name, superName);
+        final String targetSignature = signature(ctx.target.type);
+        if (targetSignature != null) {
+            cf.signature(itf ? "Ljava/lang/Object;" + targetSignature : targetSignature);
+        }
+        cf.field(ACC_PRIVATE | ACC_SYNTHETIC, STATE_FIELD, "L" + STATE + ";");
+        cf.method(ACC_PUBLIC, "<init>", "(L" + STATE + ";)V", 2, 2)
+                .local(ALOAD, 0)
+                .invoke(INVOKESPECIAL, superName, "<init>", "()V")
+                .local(ALOAD, 0)
+                .local(ALOAD, 1)
+                .field(PUTFIELD, name, STATE_FIELD, "L" + STATE + ";")
+                .op(RETURN);
+        final boolean[] deferred = new boolean[properties.length];
+        if (itf) {
+            final Map<String, Method> getters = getters(targetClass);
+            final Map<String, Integer> indexes = new LinkedHashMap<>();
+            for (int i = 0; i != mappings.size(); ++i) {
+                indexes.put(mappings.get(i).mutator.label(), i);
+            }
+            for (Map.Entry<String, Method> entry : getters.entrySet()) {
+                final Method getter = entry.getValue();
+                final Class<?> type = getter.getReturnType();
+                if (!loader.resolves(type)) {
+                    return new Generated(mappings, null, deferred);
+                }
+                final Integer index = indexes.get(entry.getKey());
+                final boolean lazy = index != null && !type.isPrimitive() && deferrable(properties[index].mutatorType);
+                if (lazy) {
+                    deferred[index] = true;
+                }
+                final Typed propertyType = Typed.returnType(getter, ctx.target.type);
+                cf.field(ACC_PRIVATE | ACC_SYNTHETIC, entry.getKey(), ClassFile.descriptor(type), signature(propertyType));
+                final Code get = cf.method(ACC_PUBLIC, getter.getName(), ClassFile.methodDescriptor(type), 3, 1)
+                        .signature(signature(propertyType, new Typed[0]));
+                if (lazy) {
+                    load(get, name, index);
+                }
+                get.local(ALOAD, 0)
+                        .field(GETFIELD, name, entry.getKey(), ClassFile.descriptor(type))
+                        .op(ClassFile.return_(type));
+                final Optional<Method> setter = setter(targetClass, entry.getKey(), type);
+                if (setter.isPresent()) {
+                    final Code set = cf.method(ACC_PUBLIC, setter.get().getName(), ClassFile.methodDescriptor(void.class, type), 4, 3)
+                            .signature(signature(Typed.class_(void.class), propertyType))
+                            .local(ALOAD, 0)
+                            .local(ClassFile.load(type), 1)
+                            .field(PUTFIELD, name, entry.getKey(), ClassFile.descriptor(type));
+                    if (lazy) {
+                        loaded(set, name, index);
+                    }
+                    set.op(RETURN);
+                }
+            }
+        } else {
+            final Map<String, Accessor> getters = ctx.inspector.accessors(ctx.target.type);
+            for (int i = 0; i != properties.length; ++i) {
+                final Accessor current = getters.get(properties[i].mutatorLabel);
+                final Member getter = current == null ? null : current.member().orElse(null);
+                final Member setter = properties[i].mutator.member().orElse(null);
+                if (!deferrable(properties[i].mutatorType) || !overridable(getter) || !overridable(setter)) {
+                    continue;
+                }
+                final Method g = (Method) getter;
+                final Method s = (Method) setter;
+                if (g.getReturnType().isPrimitive() || !loader.resolves(g.getReturnType()) || !loader.resolves(s.getReturnType()) || !loader.resolves(s.getParameterTypes()[0])) {
+                    continue;
+                }
+                deferred[i] = true;
+                final Code get = cf.method(ACC_PUBLIC, g.getName(), ClassFile.methodDescriptor(g.getReturnType()), 3, 1)
+                        .signature(signature(Typed.returnType(g, ctx.target.type), new Typed[0]));
+                load(get, name, i);
+                get.local(ALOAD, 0)
+                        .invoke(INVOKESPECIAL, superName, g.getName(), ClassFile.methodDescriptor(g.getReturnType()))
+                        .op(ARETURN);
+                final Class<?> parameter = s.getParameterTypes()[0];
+                final Code set = cf.method(ACC_PUBLIC, s.getName(), ClassFile.methodDescriptor(s.getReturnType(), parameter), 5, 2)
+                        .signature(signature(Typed.returnType(s, ctx.target.type), Typed.parameter(s, 0, ctx.target.type)))
+                        .local(ALOAD, 0)
+                        .local(ALOAD, 1)
+                        .invoke(INVOKESPECIAL, superName, s.getName(), ClassFile.methodDescriptor(s.getReturnType(), parameter));
+                loaded(set, name, i);
+                set.op(ClassFile.return_(s.getReturnType()));
+            }
+        }
+        if (!itf && !any(deferred)) {
+            return new Generated(mappings, null, deferred);
+        }
+        try {
+            final Class<?> type = loader.define(name, cf.toByteArray());
+            return new Generated(mappings, type.getConstructor(State.class), deferred);
+        } catch (LinkageError | ReflectiveOperationException ex) {
+            return new Generated(mappings, null, deferred);
+        }
+    }
+
+    /**
+     * The generic signature of a resolved type, {@code null} when it is not
+     * parameterized and its descriptor says it all.
+     */
+    private static String signature(Typed type) {
+        final StringBuilder sb = new StringBuilder();
+        signature(type, sb);
+        return sb.indexOf("<") == -1 ? null : sb.toString();
+    }
+
+    /**
+     * The generic signature of a method, {@code null} when none of its types
+     * is parameterized.
+     */
+    private static String signature(Typed returnType, Typed... parameterTypes) {
+        final StringBuilder sb = new StringBuilder("(");
+        for (Typed parameterType : parameterTypes) {
+            signature(parameterType, sb);
+        }
+        signature(returnType, sb.append(')'));
+        return sb.indexOf("<") == -1 ? null : sb.toString();
+    }
+
+    private static void signature(Typed type, StringBuilder sb) {
+        final Class<?> c = type.resolve(Object.class);
+        if (c.isArray()) {
+            signature(type.getComponentType(), sb.append('['));
+            return;
+        }
+        if (c.isPrimitive()) {
+            sb.append(ClassFile.descriptor(c));
+            return;
+        }
+        sb.append('L').append(ClassFile.internalName(c));
+        if (!(type.getType() instanceof Class) && type.hasGenerics()) {
+            sb.append('<');
+            for (Typed generic : type.getGenerics()) {
+                if (generic.resolve() == null) {
+                    sb.append('*');
+                    continue;
+                }
+                if (generic.getType() instanceof WildcardType) {
+                    sb.append(((WildcardType) generic.getType()).getLowerBounds().length != 0 ? '-' : '+');
+                }
+                signature(generic, sb);
+            }
+            sb.append('>');
+        }
+        sb.append(';');
+    }
+
+    private static boolean any(boolean[] values) {
+        for (boolean value : values) {
+            if (value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Optional<Method> setter(Class<?> type, String label, Class<?> parameter) {
+        try {
+            final Method setter = type.getMethod("set" + Character.toUpperCase(label.charAt(0)) + label.substring(1), parameter);
+            return Modifier.isAbstract(setter.getModifiers()) ? Optional.of(setter) : Optional.empty();
+        } catch (NoSuchMethodException ex) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Emits {@code if (state != null) state.load(this, index)}.
+     */
+    private static void load(Code code, String name, int index) {
+        final Label loaded = new Label();
+        code.local(ALOAD, 0)
+                .field(GETFIELD, name, STATE_FIELD, "L" + STATE + ";")
+                .jump(IFNULL, loaded)
+                .local(ALOAD, 0)
+                .field(GETFIELD, name, STATE_FIELD, "L" + STATE + ";")
+                .local(ALOAD, 0)
+                .push(index)
+                .invoke(INVOKEVIRTUAL, STATE, "load", "(Ljava/lang/Object;I)V")
+                .mark(loaded);
+    }
+
+    /**
+     * Emits {@code if (state != null) state.loaded(index)}, leaving the
+     * stack untouched.
+     */
+    private static void loaded(Code code, String name, int index) {
+        final Label done = new Label();
+        code.local(ALOAD, 0)
+                .field(GETFIELD, name, STATE_FIELD, "L" + STATE + ";")
+                .jump(IFNULL, done)
+                .local(ALOAD, 0)
+                .field(GETFIELD, name, STATE_FIELD, "L" + STATE + ";")
+                .push(index)
+                .invoke(INVOKEVIRTUAL, STATE, "loaded", "(I)V")
+                .mark(done);
+    }
+
+    private static class Generated {
+
+        public final List<Mapping> mappings;
+        public final Constructor<?> constructor;
+        public final boolean[] deferred;
+
+        public Generated(List<Mapping> mappings, Constructor<?> constructor, boolean[] deferred) {
+            this.mappings = mappings;
+            this.constructor = constructor;
+            this.deferred = deferred;
+        }
+
+        /**
+         * Binds the mutators of interface properties to the fields of the
+         * generated class.
+         */
+        public BeanProperty[] mappings(BeanProperty[] properties) {
+            for (BeanProperty property : properties) {
+                ((GeneratedField) property.mutator).bind(constructor.getDeclaringClass());
+            }
+            return properties;
+        }
+    }
+
+    /**
+     * A property of an interface, typed as its getter and written to the
+     * field backing it in the generated class.
+     */
+    private static class GeneratedField implements Mutator {
+
+        private final String label;
+        private final Method getter;
+        private volatile Field field;
+
+        public GeneratedField(String label, Method getter) {
+            this.label = label;
+            this.getter = getter;
+        }
+
+        public void bind(Class<?> generated) {
+            try {
+                final Field f = generated.getDeclaredField(label);
+                f.setAccessible(true);
+                field = f;
+            } catch (NoSuchFieldException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        @Override
+        public void mutate(MappingContext ctx, Object self, Object value) {
+            try {
+                field.set(self, value);
+            } catch (IllegalAccessException | IllegalArgumentException ex) {
+                throw new MappingException(ctx, ex);
+            }
+        }
+
+        @Override
+        public String label() {
+            return label;
+        }
+
+        @Override
+        public Typed type(MappingContext ctx) {
+            return Typed.returnType(getter, ctx.target.type);
+        }
+    }
+
+    private static class Plan implements ValueConverter {
+
+        private final MappingContext planned;
+        private final Constructor<?> constructor;
+        private final BeanProperty[] properties;
+        private final boolean[] deferred;
+        private final int pending;
+
+        public Plan(MappingContext planned, Generated generated, BeanProperty[] properties) {
+            this.planned = planned;
+            this.constructor = generated.constructor;
+            this.properties = properties;
+            this.deferred = generated.deferred;
+            int count = 0;
+            for (boolean d : deferred) {
+                count += d ? 1 : 0;
+            }
+            this.pending = count;
+        }
+
+        @Override
+        public Object apply(MappingContext ctx, Object source) {
+            if (source == null || ctx.identities != null) {
+                return NO;
+            }
+            try {
+                final Object target = constructor.newInstance(new State(this, ctx, source));
+                for (int i = 0; i != properties.length; ++i) {
+                    if (!deferred[i]) {
+                        properties[i].copy(planned, ctx, source, target);
+                    }
+                }
+                return target;
+            } catch (MappingException ex) {
+                throw ex;
+            } catch (ReflectiveOperationException ex) {
+                throw new MappingException(ctx, ex);
+            } catch (RuntimeException ex) {
+                throw new MappingException(ctx, ex);
+            }
+        }
+    }
+
+    /**
+     * The deferred properties of a lazy target, referenced by the generated
+     * class.
+     */
+    public static final class State {
+
+        private final Plan plan;
+        private final AtomicIntegerArray loaded;
+        private MappingContext ctx;
+        private Object source;
+        private int pending;
+
+        State(Plan plan, MappingContext ctx, Object source) {
+            this.plan = plan;
+            this.loaded = new AtomicIntegerArray(plan.properties.length);
+            this.ctx = plan.pending == 0 ? null : ctx;
+            this.source = plan.pending == 0 ? null : source;
+            this.pending = plan.pending;
+        }
+
+        /**
+         * Converts the {@code property} of {@code target} unless already
+         * converted or set.
+         */
+        public void load(Object target, int property) {
+            if (loaded.get(property) != 0) {
+                return;
+            }
+            synchronized (this) {
+                if (loaded.get(property) != 0) {
+                    return;
+                }
+                plan.properties[property].copy(plan.planned, ctx, source, target);
+                loaded(property);
+            }
+        }
+
+        /**
+         * Marks {@code property} as set, discarding its pending conversion.
+         */
+        public synchronized void loaded(int property) {
+            if (loaded.get(property) != 0) {
+                return;
+            }
+            loaded.set(property, 1);
+            if (--pending == 0) {
+                ctx = null;
+                source = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package net.optionfactory.otomy.converters.strategies;
+
+import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.converters.ValueConverter;
+
+/**
+ *
+ * @author rferranti
+ */
+public class Nulls implements ValueConverter {
+
+    @Override
+    public Object apply(MappingContext ctx, Object source) {
+        return source != null || ctx.target.type.resolve().isPrimitive() ? NO : null;
+    }
+
+    @Override
+    public boolean applies(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+        return nullSource && !targetClass.isPrimitive();
+    }
+
+}
@@ -0,0 +1,67 @@
+package net.optionfactory.otomy.converters.strategies;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.converters.ValueConverter;
+
+public class NullsToBoxed implements ValueConverter {
+
+    @Override
+    public Object apply(MappingContext ctx, Object source) {
+        if (source != null) {
+            return NO;
+        }
+        final Class<?> tt = ctx.target.type.resolve();
+        if (tt == Optional.class) {
+            return Optional.empty();
+        }
+        if (tt == AtomicReference.class) {
+            return new AtomicReference<>();
+        }
+        if (tt == AtomicBoolean.class) {
+            return new AtomicBoolean();
+        }
+        if (tt == AtomicInteger.class) {
+            return new AtomicInteger();
+        }
+        if (tt == AtomicIntegerArray.class) {
+            return new AtomicIntegerArray(0);
+        }
+        if (tt == AtomicLong.class) {
+            return new AtomicLong();
+        }
+        if (tt == AtomicLongArray.class) {
+            return new AtomicLongArray(0);
+        }
+        if (tt == SoftReference.class) {
+            return new SoftReference<>(null);
+        }
+        if (tt == WeakReference.class) {
+            return new WeakReference<>(null);
+        }
+        return NO;
+    }
+
+    @Override
+    public boolean applies(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+        return nullSource && (targetClass == Optional.class
+                || targetClass == AtomicReference.class
+                || targetClass == AtomicBoolean.class
+                || targetClass == AtomicInteger.class
+                || targetClass == AtomicIntegerArray.class
+                || targetClass == AtomicLong.class
+                || targetClass == AtomicLongArray.class
+                || targetClass == SoftReference.class
+                || targetClass == WeakReference.class);
+    }
+
+}
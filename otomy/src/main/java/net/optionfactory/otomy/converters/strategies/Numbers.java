@@ -1,83 +1,94 @@
 package net.optionfactory.otomy.converters.strategies;
 
+import java.lang.reflect.Modifier;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import net.optionfactory.otomy.converters.Conversion;
-import net.optionfactory.otomy.converters.Converter;
 import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.converters.ValueConverter;
 
-public class Numbers implements Converter {
+public class Numbers implements ValueConverter {
 
     @Override
-    public Conversion<?> convert(MappingContext ctx, Object source) {
+    public Object apply(MappingContext ctx, Object source) {
         final Class<?> tc = ctx.target.type.resolve();
         if(!Number.class.isAssignableFrom(tc) && !tc.isPrimitive() || tc == char.class) {
-            return Conversion.no();
+            return NO;
         }
         if(source instanceof CharSequence){
             if(tc == Long.class || tc == long.class){
-                return Conversion.of(Long.parseLong(source.toString()));
+                return Long.parseLong(source.toString());
             }
             if(tc == Integer.class || tc == int.class){
-                return Conversion.of(Integer.parseInt(source.toString()));
+                return Integer.parseInt(source.toString());
             
             }
             if(tc == Short.class || tc == short.class){
-                return Conversion.of(Short.parseShort(source.toString()));
+                return Short.parseShort(source.toString());
             
             }
             if(tc == Byte.class || tc == byte.class){
-                return Conversion.of(Byte.parseByte(source.toString()));
+                return Byte.parseByte(source.toString());
             
             }
             if(tc == Double.class || tc == double.class){
-                return Conversion.of(Double.parseDouble(source.toString()));
+                return Double.parseDouble(source.toString());
             
             }
             if(tc == Float.class || tc == float.class){
-                return Conversion.of(Float.parseFloat(source.toString()));
+                return Float.parseFloat(source.toString());
             
             }
             if(tc == BigInteger.class){
-                return Conversion.of(new BigInteger(source.toString()));
+                return new BigInteger(source.toString());
             
             }
             if(tc == BigDecimal.class){
-                return Conversion.of(new BigDecimal(source.toString()));
+                return new BigDecimal(source.toString());
             }
             //TODO: Atomic*
         }
         if(source instanceof Number){
             final Number n = (Number)source;
             if(tc == Long.class || tc == long.class){
-                return Conversion.of(n.longValue());
+                return n.longValue();
             }
             if(tc == Integer.class || tc == int.class){
-                return Conversion.of(n.intValue());
+                return n.intValue();
             }
             if(tc == Short.class || tc == short.class){
-                return Conversion.of(n.shortValue());
+                return n.shortValue();
             }
             if(tc == Byte.class || tc == byte.class){
-                return Conversion.of(n.byteValue());
+                return n.byteValue();
             }
             if(tc == Double.class || tc == double.class){
-                return Conversion.of(n.doubleValue());
+                return n.doubleValue();
             }
             if(tc == Float.class || tc == float.class){
-                return Conversion.of(n.floatValue());
+                return n.floatValue();
             }
             if(tc == BigInteger.class && source == BigDecimal.class){
-                return Conversion.of(((BigDecimal)n).toBigInteger());                
+                return ((BigDecimal)n).toBigInteger();                
             }
             if(tc == BigInteger.class){
-                return Conversion.of(BigInteger.valueOf(n.longValue()));
+                return BigInteger.valueOf(n.longValue());
             }
             if(tc == BigDecimal.class){
-                return Conversion.of(new BigDecimal(source.toString()));
+                return new BigDecimal(source.toString());
             }            
 
         }
-        return Conversion.no();
+        return NO;
+    }
+
+    @Override
+    public boolean applies(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+        if (nullSource || (!Number.class.isAssignableFrom(targetClass) && !targetClass.isPrimitive()) || targetClass == char.class) {
+            return false;
+        }
+        return sourceClass.isPrimitive()
+                || !Modifier.isFinal(sourceClass.getModifiers())
+                || CharSequence.class.isAssignableFrom(sourceClass)
+                || Number.class.isAssignableFrom(sourceClass);
     }
 }
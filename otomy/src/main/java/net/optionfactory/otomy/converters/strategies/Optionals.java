@@ -0,0 +1,100 @@
+package net.optionfactory.otomy.converters.strategies;
+
+import java.util.Optional;
+import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.converters.ValueConverter;
+import net.optionfactory.otomy.types.Typed;
+
+public class Optionals implements ValueConverter {
+
+    @Override
+    public Object apply(MappingContext ctx, Object source) {
+        final Class<?> resolvedSource = ctx.source.type.resolve();
+        final Class<?> resolvedTarget = ctx.target.type.resolve();
+        final boolean targetIsOptional = Optional.class == resolvedTarget;
+        final boolean sourceIsOptional = Optional.class == resolvedSource;
+        if (sourceIsOptional && targetIsOptional) {
+            // optional to optional
+            final Optional<?> m = (Optional<?>) source;
+            if (!m.isPresent()) {
+                return Optional.empty();
+            }
+            final Typed elSourceType = ctx.source.type.getGeneric(0);
+            final Typed elTargetType = ctx.target.type.getGeneric(0);
+            final MappingContext dependent = ctx.dependent(elSourceType, elTargetType, "value");
+            final Object value = ValueConverter.apply(ctx.converter, dependent, m.get());
+            return value != NO ? Optional.of(value) : NO;
+        }
+        if (sourceIsOptional && !resolvedTarget.isPrimitive()) {
+            //optional to nullable
+            final Optional<?> m = (Optional<?>) source;
+            if (!m.isPresent()) {
+                return null;
+            }
+            final Typed elSourceType = ctx.source.type.getGeneric(0);
+            final MappingContext dependent = ctx.dependentSource(elSourceType, "value");
+            return ValueConverter.apply(ctx.converter, dependent, m.get());
+        }
+        if (targetIsOptional) {
+            //non-optional to optional
+            if(source == null){
+                return Optional.empty();
+            }
+            final Typed elTargetType = ctx.target.type.getGeneric(0);
+            final MappingContext dependent = ctx.dependentTarget(elTargetType, "value");
+            final Object nakedValue = ValueConverter.apply(ctx.converter, dependent, source);
+            return nakedValue != NO ? Optional.ofNullable(nakedValue) : NO;
+        }
+        return NO;
+    }
+
+    @Override
+    public ValueConverter plan(MappingContext planned) {
+        final Class<?> resolvedSource = planned.source.type.resolve();
+        final Class<?> resolvedTarget = planned.target.type.resolve();
+        if (resolvedSource == null || resolvedTarget == null) {
+            return this;
+        }
+        final boolean targetIsOptional = Optional.class == resolvedTarget;
+        final boolean sourceIsOptional = Optional.class == resolvedSource;
+        if (sourceIsOptional && targetIsOptional) {
+            final Typed elSourceType = planned.source.type.getGeneric(0);
+            final Typed elTargetType = planned.target.type.getGeneric(0);
+            final Dependent dependent = new Dependent(planned, ctx -> ctx.dependent(elSourceType, elTargetType, "value"));
+            return (ctx, source) -> {
+                final Optional<?> m = (Optional<?>) source;
+                if (!m.isPresent()) {
+                    return Optional.empty();
+                }
+                final Object value = dependent.apply(ctx, m.get());
+                return value != NO ? Optional.of(value) : NO;
+            };
+        }
+        if (sourceIsOptional && !resolvedTarget.isPrimitive()) {
+            final Typed elSourceType = planned.source.type.getGeneric(0);
+            final Dependent dependent = new Dependent(planned, ctx -> ctx.dependentSource(elSourceType, "value"));
+            return (ctx, source) -> {
+                final Optional<?> m = (Optional<?>) source;
+                return m.isPresent() ? dependent.apply(ctx, m.get()) : null;
+            };
+        }
+        if (targetIsOptional) {
+            final Typed elTargetType = planned.target.type.getGeneric(0);
+            final Dependent dependent = new Dependent(planned, ctx -> ctx.dependentTarget(elTargetType, "value"));
+            return (ctx, source) -> {
+                if (source == null) {
+                    return Optional.empty();
+                }
+                final Object nakedValue = dependent.apply(ctx, source);
+                return nakedValue != NO ? Optional.ofNullable(nakedValue) : NO;
+            };
+        }
+        return null;
+    }
+
+    @Override
+    public boolean applies(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+        return sourceClass == Optional.class || targetClass == Optional.class;
+    }
+
+}
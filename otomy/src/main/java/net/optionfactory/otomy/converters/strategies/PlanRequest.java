@@ -0,0 +1,52 @@
+package net.optionfactory.otomy.converters.strategies;
+
+import net.optionfactory.otomy.converters.Converter;
+import net.optionfactory.otomy.converters.Inspector;
+import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.converters.MappingRequest;
+
+/**
+ * A mapping request together with the inspector and converter it is planned
+ * for: plans built for one context converter cannot be reused by another.
+ * Inspectors and converters are compared by identity.
+ */
+class PlanRequest {
+
+    public final MappingRequest request;
+    public final Inspector inspector;
+    public final Converter converter;
+    private final int hash;
+
+    public PlanRequest(MappingContext ctx) {
+        this.request = new MappingRequest(ctx.source.type, ctx.target.type);
+        this.inspector = ctx.inspector;
+        this.converter = ctx.converter;
+        this.hash = request.hashCode() + 31 * System.identityHashCode(inspector) + 961 * System.identityHashCode(converter);
+    }
+
+    public Class<?> owner() {
+        return request.owner();
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object rhs) {
+        if (this == rhs) {
+            return true;
+        }
+        if (rhs instanceof PlanRequest == false) {
+            return false;
+        }
+        final PlanRequest other = (PlanRequest) rhs;
+        return this.inspector == other.inspector && this.converter == other.converter && this.request.equals(other.request);
+    }
+
+    @Override
+    public String toString() {
+        return request.toString();
+    }
+}
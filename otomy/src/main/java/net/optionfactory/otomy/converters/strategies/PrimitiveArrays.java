@@ -0,0 +1,355 @@
+package net.optionfactory.otomy.converters.strategies;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.converters.ValueConverter;
+import net.optionfactory.otomy.converters.factories.CollectionFactory;
+import net.optionfactory.otomy.types.Typed;
+import net.optionfactory.otomy.types.Types;
+
+/**
+ * Copies sequences of primitives in tight loops, without converting each
+ * element through the context converter. Primitive arrays,
+ * {@link AtomicIntegerArray}s, {@link AtomicLongArray}s, and arrays and
+ * iterables of boxed primitives are mapped to one another whenever one side
+ * is primitive and the target primitive type is the same as, or a widening
+ * of, the source one. Every other sequence is left to {@link Iterables}, or to
+ * {@link Unboxing} for atomic arrays.
+ */
+public class PrimitiveArrays implements ValueConverter {
+
+    private enum Kind {
+        ARRAY, BOXED, ATOMIC, ITERABLE
+    }
+
+    private final CollectionFactory factory;
+
+    public PrimitiveArrays(CollectionFactory factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    public Object apply(MappingContext ctx, Object source) {
+        final ValueConverter plan = plan(ctx);
+        return plan == null || source == null ? NO : plan.apply(ctx, source);
+    }
+
+    @Override
+    public boolean applies(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+        if (nullSource) {
+            return false;
+        }
+        final boolean sourceIsPrimitive = primitiveSequence(sourceClass);
+        final boolean targetIsPrimitive = primitiveSequence(targetClass);
+        return (sourceIsPrimitive || targetIsPrimitive)
+                && (sourceIsPrimitive || boxedSequence(sourceClass))
+                && (targetIsPrimitive || boxedSequence(targetClass));
+    }
+
+    @Override
+    public ValueConverter plan(MappingContext planned) {
+        final Class<?> sourceClass = planned.source.type.resolve();
+        final Class<?> targetClass = planned.target.type.resolve();
+        if (sourceClass == null || targetClass == null || !applies(sourceClass, targetClass, false)) {
+            return null;
+        }
+        final Kind sourceKind = kind(sourceClass);
+        final Kind targetKind = kind(targetClass);
+        final Class<?> sp = primitive(planned.source.type, sourceKind);
+        final Class<?> tp = primitive(planned.target.type, targetKind);
+        if (sp == null || tp == null || !widens(sp, tp)) {
+            return null;
+        }
+        final CollectionFactory f = targetKind == Kind.ITERABLE ? factory.plan(planned) : null;
+        return (ctx, source) -> {
+            Object values = read(source, sourceKind, sp);
+            if (values == null) {
+                return NO;
+            }
+            boolean owned = sourceKind != Kind.ARRAY;
+            if (sp != tp) {
+                values = widen(values, tp);
+                owned = true;
+            }
+            return write(ctx, f, values, owned, targetKind, tp);
+        };
+    }
+
+    private static boolean primitiveSequence(Class<?> type) {
+        return (type.isArray() && type.getComponentType().isPrimitive())
+                || type == AtomicIntegerArray.class
+                || type == AtomicLongArray.class;
+    }
+
+    /**
+     * Iterables, whose element type is checked when planning, and arrays of
+     * boxed primitives.
+     */
+    private static boolean boxedSequence(Class<?> type) {
+        return Iterable.class.isAssignableFrom(type) || (type.isArray() && Types.unboxed(type.getComponentType()) != null);
+    }
+
+    private static Kind kind(Class<?> type) {
+        if (type.isArray()) {
+            return type.getComponentType().isPrimitive() ? Kind.ARRAY : Kind.BOXED;
+        }
+        return type == AtomicIntegerArray.class || type == AtomicLongArray.class ? Kind.ATOMIC : Kind.ITERABLE;
+    }
+
+    private static Class<?> primitive(Typed type, Kind kind) {
+        switch (kind) {
+            case ARRAY:
+                return type.resolve().getComponentType();
+            case BOXED:
+                return Types.unboxed(type.resolve().getComponentType());
+            case ATOMIC:
+                return type.resolve() == AtomicIntegerArray.class ? int.class : long.class;
+            default:
+                final Class<?> element = type.getGeneric(0).resolve();
+                return element == null ? null : Types.unboxed(element);
+        }
+    }
+
+    private static boolean widens(Class<?> from, Class<?> to) {
+        if (from == to) {
+            return true;
+        }
+        if (to == double.class) {
+            return from != boolean.class;
+        }
+        if (to == float.class || to == long.class) {
+            return from == int.class || from == short.class || from == char.class || from == byte.class || (to == float.class && from == long.class);
+        }
+        if (to == int.class) {
+            return from == short.class || from == char.class || from == byte.class;
+        }
+        return to == short.class && from == byte.class;
+    }
+
+    private static Object read(Object source, Kind kind, Class<?> primitive) {
+        switch (kind) {
+            case ARRAY:
+                return source;
+            case BOXED:
+                return unbox(Arrays.asList((Object[]) source), primitive);
+            case ATOMIC:
+                if (source instanceof AtomicIntegerArray) {
+                    final AtomicIntegerArray atomic = (AtomicIntegerArray) source;
+                    final int[] values = new int[atomic.length()];
+                    for (int i = 0; i != values.length; ++i) {
+                        values[i] = atomic.get(i);
+                    }
+                    return values;
+                }
+                final AtomicLongArray atomic = (AtomicLongArray) source;
+                final long[] values = new long[atomic.length()];
+                for (int i = 0; i != values.length; ++i) {
+                    values[i] = atomic.get(i);
+                }
+                return values;
+            default:
+                return unbox((Iterable<?>) source, primitive);
+        }
+    }
+
+    private static Object unbox(Iterable<?> source, Class<?> primitive) {
+        final Object[] boxed;
+        if (source instanceof Collection) {
+            boxed = ((Collection<?>) source).toArray();
+        } else {
+            final ArrayList<Object> elements = new ArrayList<>();
+            source.forEach(elements::add);
+            boxed = elements.toArray();
+        }
+        for (Object element : boxed) {
+            if (element == null) {
+                return null;
+            }
+        }
+        if (primitive == int.class) {
+            final int[] values = new int[boxed.length];
+            for (int i = 0; i != values.length; ++i) {
+                values[i] = (Integer) boxed[i];
+            }
+            return values;
+        }
+        if (primitive == long.class) {
+            final long[] values = new long[boxed.length];
+            for (int i = 0; i != values.length; ++i) {
+                values[i] = (Long) boxed[i];
+            }
+            return values;
+        }
+        if (primitive == double.class) {
+            final double[] values = new double[boxed.length];
+            for (int i = 0; i != values.length; ++i) {
+                values[i] = (Double) boxed[i];
+            }
+            return values;
+        }
+        final Object values = Array.newInstance(primitive, boxed.length);
+        for (int i = 0; i != boxed.length; ++i) {
+            Array.set(values, i, boxed[i]);
+        }
+        return values;
+    }
+
+    /**
+     * Widens a primitive array. Arrays of {@code byte}, {@code short} and
+     * {@code char} are widened to {@code int} first.
+     */
+    private static Object widen(Object values, Class<?> to) {
+        if (values instanceof byte[] && to == short.class) {
+            final byte[] from = (byte[]) values;
+            final short[] widened = new short[from.length];
+            for (int i = 0; i != from.length; ++i) {
+                widened[i] = from[i];
+            }
+            return widened;
+        }
+        if (values instanceof byte[] || values instanceof short[] || values instanceof char[]) {
+            final int length = Array.getLength(values);
+            final int[] widened = new int[length];
+            if (values instanceof byte[]) {
+                final byte[] from = (byte[]) values;
+                for (int i = 0; i != length; ++i) {
+                    widened[i] = from[i];
+                }
+            } else if (values instanceof short[]) {
+                final short[] from = (short[]) values;
+                for (int i = 0; i != length; ++i) {
+                    widened[i] = from[i];
+                }
+            } else {
+                final char[] from = (char[]) values;
+                for (int i = 0; i != length; ++i) {
+                    widened[i] = from[i];
+                }
+            }
+            return to == int.class ? widened : widen(widened, to);
+        }
+        if (values instanceof int[]) {
+            final int[] from = (int[]) values;
+            if (to == long.class) {
+                final long[] widened = new long[from.length];
+                for (int i = 0; i != from.length; ++i) {
+                    widened[i] = from[i];
+                }
+                return widened;
+            }
+            if (to == float.class) {
+                final float[] widened = new float[from.length];
+                for (int i = 0; i != from.length; ++i) {
+                    widened[i] = from[i];
+                }
+                return widened;
+            }
+            final double[] widened = new double[from.length];
+            for (int i = 0; i != from.length; ++i) {
+                widened[i] = from[i];
+            }
+            return widened;
+        }
+        if (values instanceof long[]) {
+            final long[] from = (long[]) values;
+            if (to == float.class) {
+                final float[] widened = new float[from.length];
+                for (int i = 0; i != from.length; ++i) {
+                    widened[i] = from[i];
+                }
+                return widened;
+            }
+            final double[] widened = new double[from.length];
+            for (int i = 0; i != from.length; ++i) {
+                widened[i] = from[i];
+            }
+            return widened;
+        }
+        final float[] from = (float[]) values;
+        final double[] widened = new double[from.length];
+        for (int i = 0; i != from.length; ++i) {
+            widened[i] = from[i];
+        }
+        return widened;
+    }
+
+    private static Object write(MappingContext ctx, CollectionFactory factory, Object values, boolean owned, Kind kind, Class<?> primitive) {
+        final int length = Array.getLength(values);
+        switch (kind) {
+            case ARRAY:
+                if (owned) {
+                    return values;
+                }
+                final Object copy = Array.newInstance(primitive, length);
+                System.arraycopy(values, 0, copy, 0, length);
+                return copy;
+            case BOXED:
+                return box(values, primitive, length);
+            case ATOMIC:
+                return primitive == int.class ? new AtomicIntegerArray((int[]) values) : new AtomicLongArray((long[]) values);
+            default:
+                @SuppressWarnings("unchecked")
+                final Optional<Collection<Object>> maybeCollection = (Optional) factory.collection(ctx, length);
+                if (!maybeCollection.isPresent()) {
+                    return NO;
+                }
+                final Collection<Object> collection = maybeCollection.get();
+                if (values instanceof int[]) {
+                    for (int value : (int[]) values) {
+                        collection.add(value);
+                    }
+                } else if (values instanceof long[]) {
+                    for (long value : (long[]) values) {
+                        collection.add(value);
+                    }
+                } else if (values instanceof double[]) {
+                    for (double value : (double[]) values) {
+                        collection.add(value);
+                    }
+                } else {
+                    for (int i = 0; i != length; ++i) {
+                        collection.add(Array.get(values, i));
+                    }
+                }
+                return collection;
+        }
+    }
+
+    private static Object[] box(Object values, Class<?> primitive, int length) {
+        if (values instanceof int[]) {
+            final int[] from = (int[]) values;
+            final Integer[] boxed = new Integer[length];
+            for (int i = 0; i != length; ++i) {
+                boxed[i] = from[i];
+            }
+            return boxed;
+        }
+        if (values instanceof long[]) {
+            final long[] from = (long[]) values;
+            final Long[] boxed = new Long[length];
+            for (int i = 0; i != length; ++i) {
+                boxed[i] = from[i];
+            }
+            return boxed;
+        }
+        if (values instanceof double[]) {
+            final double[] from = (double[]) values;
+            final Double[] boxed = new Double[length];
+            for (int i = 0; i != length; ++i) {
+                boxed[i] = from[i];
+            }
+            return boxed;
+        }
+        final Object[] boxed = (Object[]) Array.newInstance(Types.boxed(primitive), length);
+        for (int i = 0; i != length; ++i) {
+            boxed[i] = Array.get(values, i);
+        }
+        return boxed;
+    }
+}
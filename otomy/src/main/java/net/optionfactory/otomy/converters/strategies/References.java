@@ -0,0 +1,71 @@
+package net.optionfactory.otomy.converters.strategies;
+
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.converters.ValueConverter;
+import net.optionfactory.otomy.types.Typed;
+import net.optionfactory.otomy.types.Types;
+
+public class References implements ValueConverter {
+
+    @Override
+    public Object apply(MappingContext ctx, Object source) {
+        final Class<?> st = ctx.source.type.resolve();
+        final Class<?> tt = ctx.target.type.resolve();
+        if(!Types.isReferenceType(st) || !Types.isReferenceType(tt)){
+            return NO;
+        }
+        final Function<Object, Object> wrap = wrapper(tt);
+        if (wrap == null) {
+            return NO;
+        }
+        final Object referenced = Types.referenceValue(st, source);
+        final MappingContext depCtx = ctx.dependent(ctx.source.type.getGeneric(0), ctx.target.type.getGeneric(0), "value");
+        final Object value = ValueConverter.apply(ctx.converter, depCtx, referenced);
+        return value != NO ? wrap.apply(value) : NO;
+    }
+
+    @Override
+    public ValueConverter plan(MappingContext planned) {
+        final Class<?> st = planned.source.type.resolve();
+        final Class<?> tt = planned.target.type.resolve();
+        if (st == null || tt == null) {
+            return this;
+        }
+        if (!Types.isReferenceType(st) || !Types.isReferenceType(tt)) {
+            return null;
+        }
+        final Function<Object, Object> wrap = wrapper(tt);
+        if (wrap == null) {
+            return null;
+        }
+        final Typed elSourceType = planned.source.type.getGeneric(0);
+        final Typed elTargetType = planned.target.type.getGeneric(0);
+        final Dependent dependent = new Dependent(planned, ctx -> ctx.dependent(elSourceType, elTargetType, "value"));
+        return (ctx, source) -> {
+            final Object value = dependent.apply(ctx, Types.referenceValue(st, source));
+            return value != NO ? wrap.apply(value) : NO;
+        };
+    }
+
+    private static Function<Object, Object> wrapper(Class<?> tt) {
+        if (tt == AtomicReference.class) {
+            return AtomicReference::new;
+        }
+        if (tt == WeakReference.class) {
+            return WeakReference::new;
+        }
+        if (tt == SoftReference.class) {
+            return SoftReference::new;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean applies(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+        return Types.isReferenceType(sourceClass) && Types.isReferenceType(targetClass);
+    }
+}
@@ -0,0 +1,190 @@
+package net.optionfactory.otomy.converters.strategies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import net.optionfactory.otomy.converters.Converter;
+import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.converters.Parallelism;
+import net.optionfactory.otomy.converters.ValueConverter;
+import net.optionfactory.otomy.converters.factories.BeanFactories;
+import net.optionfactory.otomy.converters.factories.BeanFactory;
+import net.optionfactory.otomy.converters.factories.CollectionFactories;
+import net.optionfactory.otomy.converters.factories.CollectionFactory;
+import net.optionfactory.otomy.converters.factories.ConstructorBeanFactory;
+import net.optionfactory.otomy.converters.factories.JavaLangCollectionFactory;
+import net.optionfactory.otomy.types.Typed;
+
+/**
+ *
+ * @author rferranti
+ */
+public class Strategies implements ValueConverter {
+
+    private final Collection<Converter> converters;
+    private final ValueConverter[] all;
+    private final ClassValue<ClassValue<ValueConverter[][]>> index = new ClassValue<ClassValue<ValueConverter[][]>>() {
+        @Override
+        protected ClassValue<ValueConverter[][]> computeValue(Class<?> targetClass) {
+            return new ClassValue<ValueConverter[][]>() {
+                @Override
+                protected ValueConverter[][] computeValue(Class<?> sourceClass) {
+                    return new ValueConverter[][]{
+                        filter(sourceClass, targetClass, false),
+                        filter(sourceClass, targetClass, true)
+                    };
+                }
+            };
+        }
+    };
+
+    public Strategies(Collection<Converter> converters) {
+        this.converters = converters;
+        this.all = converters.stream().map(ValueConverter::of).toArray(ValueConverter[]::new);
+    }
+
+    @Override
+    public Object apply(MappingContext ctx, Object source) {
+        for (ValueConverter converter : candidates(ctx.source.type.resolve(), ctx.target.type.resolve(), source == null)) {
+            final Object value = converter.apply(ctx, source);
+            if (value != NO) {
+                return value;
+            }
+        }
+        return NO;
+    }
+
+    @Override
+    public boolean applies(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+        return candidates(sourceClass, targetClass, nullSource).length != 0;
+    }
+
+    /**
+     * Returns, in order, the converters that may apply to the given classes.
+     * Candidates are computed once per class pair and null-ness and include
+     * every converter not declaring itself inapplicable; pairs for which no
+     * converter applies are remembered as an empty array. Candidates are
+     * attached to the source class through a {@link ClassValue} per target
+     * class, so neither class is kept reachable by the other.
+     */
+    private ValueConverter[] candidates(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+        if (sourceClass == null || targetClass == null) {
+            return all;
+        }
+        return index.get(targetClass).get(sourceClass)[nullSource ? 1 : 0];
+    }
+
+    private ValueConverter[] filter(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+        return Stream.of(all)
+                .filter(c -> c.applies(sourceClass, targetClass, nullSource))
+                .toArray(ValueConverter[]::new);
+    }
+
+    @Override
+    public ValueConverter plan(MappingContext ctx) {
+        final List<Converter> planned = new ArrayList<>(converters.size());
+        for (Converter converter : converters) {
+            final Converter p = converter.plan(ctx);
+            if (p != null) {
+                planned.add(p);
+            }
+        }
+        if (planned.isEmpty()) {
+            return null;
+        }
+        return planned.size() == 1 ? ValueConverter.of(planned.get(0)) : new Strategies(planned);
+    }
+
+    /**
+     * @param decorator the decorator
+     * @return strategies trying, in the same order, each of these converters
+     * as decorated by {@code decorator}
+     */
+    public Strategies decorate(Function<? super Converter, ? extends Converter> decorator) {
+        return new Strategies(converters.stream().map(decorator).collect(Collectors.toList()));
+    }
+
+    public static Strategies composite(Collection<Converter> converters) {
+        return new Strategies(converters);
+    }
+
+    public static Strategies composite(Converter... converters) {
+        return new Strategies(Arrays.asList(converters));
+    }
+
+    public static Strategies defaults(Set<Typed> customImmutables, Collection<CollectionFactory> customCollectionFactories, Collection<BeanFactory> customBeanFactories, Collection<Converter> customNullConverters, Collection<Converter> customConverters, Parallelism parallelism) {
+        final List<CollectionFactory> factories = new ArrayList<>();
+        factories.addAll(customCollectionFactories);
+        factories.add(new JavaLangCollectionFactory());
+
+        final List<BeanFactory> beanFactories = new ArrayList<>();
+        beanFactories.addAll(customBeanFactories);
+        beanFactories.add(new ConstructorBeanFactory());
+        final BeanFactory beans = new BeanFactories(beanFactories);
+        final CollectionFactory collections = new CollectionFactories(factories);
+
+        final List<Converter> builtin = Arrays.<Converter>asList(
+                new NullsToBoxed(),
+                new Nulls(),
+                new Immutables(customImmutables),
+                new Optionals(),
+                new PrimitiveArrays(collections),
+                new Iterables(collections, customImmutables, parallelism),
+                new Dates(),
+                new Numbers(),
+                new References()
+        );
+
+        final List<Converter> generic = Arrays.<Converter>asList(
+                new Unboxing(),
+                new Boxing(),
+                new Strings(),
+                new GeneratedBeans(customImmutables, beans),
+                new Beans(beans)
+        );
+
+        final Stream<Converter> cs = Stream.concat(
+                Stream.concat(
+                        Stream.concat(customNullConverters.stream(), builtin.stream()),
+                        customConverters.stream()), generic.stream());
+        return new Strategies(cs.collect(Collectors.toList()));
+
+    }
+
+    public static Strategies defaults(Set<Typed> customImmutables, Collection<CollectionFactory> customCollectionFactories, Collection<BeanFactory> customBeanFactories, Collection<Converter> customNullConverters, Collection<Converter> customConverters) {
+        return defaults(customImmutables, customCollectionFactories, customBeanFactories, customNullConverters, customConverters, Parallelism.disabled());
+    }
+
+    public static Strategies defaults(Parallelism parallelism) {
+        return defaults(Collections.emptySet(), Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), parallelism);
+    }
+
+    public static Strategies defaults(Set<Typed> customImmutables, Collection<CollectionFactory> customCollectionFactories, Collection<Converter> customNullConverters, Collection<Converter> customConverters) {
+        return defaults(customImmutables, customCollectionFactories, Collections.emptyList(), customNullConverters, customConverters);
+    }
+
+    /**
+     * @param customImmutables types copied when lazy targets are created
+     * @param strategies the strategies handling every other mapping
+     * @return strategies mapping beans to lazy targets, through
+     * {@link LazyBeans}, before trying {@code strategies}
+     */
+    public static Strategies lazy(Set<Typed> customImmutables, Converter strategies) {
+        return composite(new LazyBeans(customImmutables), strategies);
+    }
+
+    public static Strategies lazy() {
+        return lazy(Collections.emptySet(), defaults());
+    }
+
+    public static Strategies defaults() {
+        return defaults(Collections.emptySet(), Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+    }
+
+}
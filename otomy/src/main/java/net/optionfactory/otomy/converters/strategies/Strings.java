@@ -0,0 +1,23 @@
+package net.optionfactory.otomy.converters.strategies;
+
+import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.converters.ValueConverter;
+
+/**
+ *
+ * @author rferranti
+ */
+public class Strings implements ValueConverter {
+
+    @Override
+    public Object apply(MappingContext ctx, Object source) {
+        return ctx.target.type.resolve() == String.class ? source.toString() : NO;
+    }
+
+    @Override
+    public boolean applies(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+        return targetClass == String.class;
+    }
+
+    
+}
@@ -0,0 +1,97 @@
+package net.optionfactory.otomy.converters.strategies;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.converters.ValueConverter;
+import net.optionfactory.otomy.types.Typed;
+import net.optionfactory.otomy.types.Types;
+
+public class Unboxing implements ValueConverter {
+
+    @Override
+    public Object apply(MappingContext ctx, Object source) {
+        final Class<?> st = ctx.source.type.resolve();
+        final Class<?> tt = ctx.target.type.resolve();
+        if (!Types.isBoxType(st) || Types.isBoxType(tt)) {
+            return NO;
+        }
+        final Function<Object, Object> unbox = unboxer(st);
+        if (unbox == null) {
+            return NO;
+        }
+        final MappingContext depCtx = ctx.dependentSource(ctx.source.type.getGeneric(0), "value");
+        return ValueConverter.apply(ctx.converter, depCtx, unbox.apply(source));
+    }
+
+    @Override
+    public ValueConverter plan(MappingContext planned) {
+        final Class<?> st = planned.source.type.resolve();
+        final Class<?> tt = planned.target.type.resolve();
+        if (st == null || tt == null) {
+            return this;
+        }
+        if (!Types.isBoxType(st) || Types.isBoxType(tt)) {
+            return null;
+        }
+        final Function<Object, Object> unbox = unboxer(st);
+        if (unbox == null) {
+            return null;
+        }
+        final Typed valueType = planned.source.type.getGeneric(0);
+        final Dependent dependent = new Dependent(planned, ctx -> ctx.dependentSource(valueType, "value"));
+        return (ctx, source) -> dependent.apply(ctx, unbox.apply(source));
+    }
+
+    private static Function<Object, Object> unboxer(Class<?> st) {
+        if (Types.isReferenceType(st)) {
+            return v -> Types.referenceValue(st, v);
+        }
+        if (st == Optional.class) {
+            return v -> ((Optional<?>) v).orElse(null);
+        }
+        if (st == AtomicBoolean.class) {
+            return v -> ((AtomicBoolean) v).get();
+        }
+        if (st == AtomicLong.class) {
+            return v -> ((AtomicLong) v).get();
+        }
+        if (st == AtomicInteger.class) {
+            return v -> ((AtomicInteger) v).get();
+        }
+        // atomic arrays reach here only when their elements need converting:
+        // PrimitiveArrays copies them to primitive and boxed sequences
+        if (st == AtomicLongArray.class) {
+            return v -> {
+                final AtomicLongArray alr = (AtomicLongArray) v;
+                final long[] copy = new long[alr.length()];
+                for (int i = 0; i != copy.length; ++i) {
+                    copy[i] = alr.get(i);
+                }
+                return copy;
+            };
+        }
+        if (st == AtomicIntegerArray.class) {
+            return v -> {
+                final AtomicIntegerArray alr = (AtomicIntegerArray) v;
+                final int[] copy = new int[alr.length()];
+                for (int i = 0; i != copy.length; ++i) {
+                    copy[i] = alr.get(i);
+                }
+                return copy;
+            };
+        }
+        return null;
+    }
+
+    @Override
+    public boolean applies(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+        return Types.isBoxType(sourceClass) && !Types.isBoxType(targetClass);
+    }
+
+}
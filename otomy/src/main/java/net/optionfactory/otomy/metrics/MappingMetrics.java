@@ -0,0 +1,278 @@
+package net.optionfactory.otomy.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import net.optionfactory.otomy.Mapper;
+import net.optionfactory.otomy.MappingFunction;
+import net.optionfactory.otomy.Merge;
+import net.optionfactory.otomy.converters.CachingInspector;
+import net.optionfactory.otomy.converters.Converter;
+import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.converters.MappingException;
+import net.optionfactory.otomy.converters.MappingRequest;
+import net.optionfactory.otomy.converters.ValueConverter;
+import net.optionfactory.otomy.types.LoaderCache;
+import net.optionfactory.otomy.types.Typed;
+
+/**
+ * Collects the metrics of the mappers and converters it decorates. Nothing
+ * is measured unless a mapper or converter is decorated, so undecorated ones
+ * pay nothing.
+ *
+ * <pre>
+ * final MappingMetrics metrics = new MappingMetrics(inspector);
+ * final Mapper mapper = metrics.mapper(new TypedMapper(inspector, Strategies.defaults().decorate(metrics::converter), Tracing.Disabled));
+ * metrics.register("net.optionfactory.otomy:type=MappingMetrics");
+ * </pre>
+ */
+public class MappingMetrics implements MappingMetricsMXBean {
+
+    private static final int BUCKETS = 22;
+
+    private final CachingInspector inspector;
+    private final LoaderCache<MappingRequest, Pair> pairs = new LoaderCache<>(4096, MappingRequest::owner);
+    private final List<Metered> converters = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param inspector the inspector whose caches are reported or
+     * {@code null}
+     */
+    public MappingMetrics(CachingInspector inspector) {
+        this.inspector = inspector;
+    }
+
+    /**
+     * @param mapper the mapper to measure
+     * @return a mapper measuring calls to {@code mapper}
+     */
+    public Mapper mapper(Mapper mapper) {
+        return new MeteredMapper(mapper);
+    }
+
+    /**
+     * @param converter the converter to measure
+     * @return a converter counting when {@code converter} yields a value and
+     * when it falls through
+     */
+    public Converter converter(Converter converter) {
+        final Metered metered = new Metered(ValueConverter.of(converter), converter.getClass().getName(), new LongAdder(), new LongAdder());
+        converters.add(metered);
+        return metered;
+    }
+
+    public ObjectName register(MBeanServer server, String name) throws JMException {
+        final ObjectName objectName = new ObjectName(name);
+        server.registerMBean(this, objectName);
+        return objectName;
+    }
+
+    public ObjectName register(String name) throws JMException {
+        return register(ManagementFactory.getPlatformMBeanServer(), name);
+    }
+
+    @Override
+    public Map<String, Long> getCalls() {
+        return byPair(p -> p.calls.sum());
+    }
+
+    @Override
+    public Map<String, Long> getFailures() {
+        return byPair(p -> p.failures.sum());
+    }
+
+    @Override
+    public long[] getLatencyBucketsMicros() {
+        final long[] bounds = new long[BUCKETS];
+        for (int i = 0; i != BUCKETS; ++i) {
+            bounds[i] = i == BUCKETS - 1 ? Long.MAX_VALUE : 1L << i;
+        }
+        return bounds;
+    }
+
+    @Override
+    public Map<String, long[]> getLatencies() {
+        final Map<String, long[]> latencies = new TreeMap<>();
+        for (Pair pair : pairs.values()) {
+            final long[] histogram = new long[BUCKETS];
+            for (int i = 0; i != BUCKETS; ++i) {
+                histogram[i] = pair.latencies.get(i);
+            }
+            latencies.merge(pair.name, histogram, (a, b) -> {
+                for (int i = 0; i != BUCKETS; ++i) {
+                    a[i] += b[i];
+                }
+                return a;
+            });
+        }
+        return latencies;
+    }
+
+    @Override
+    public Map<String, Long> getConverterHits() {
+        final Map<String, Long> hits = new TreeMap<>();
+        for (Metered c : converters) {
+            hits.merge(c.name, c.hits.sum(), Long::sum);
+        }
+        return hits;
+    }
+
+    @Override
+    public Map<String, Long> getConverterFallthroughs() {
+        final Map<String, Long> fallthroughs = new TreeMap<>();
+        for (Metered c : converters) {
+            fallthroughs.merge(c.name, c.fallthroughs.sum(), Long::sum);
+        }
+        return fallthroughs;
+    }
+
+    @Override
+    public int getTypedCacheSize() {
+        return Typed.cached();
+    }
+
+    @Override
+    public int getInspectorCacheSize() {
+        return inspector == null ? 0 : inspector.size();
+    }
+
+    @Override
+    public double getInspectorHitRatio() {
+        if (inspector == null) {
+            return Double.NaN;
+        }
+        final long hits = inspector.accessorCounters.hits() + inspector.mutatorCounters.hits() + inspector.mappingCounters.hits();
+        final long misses = inspector.accessorCounters.misses() + inspector.mutatorCounters.misses() + inspector.mappingCounters.misses();
+        return hits + misses == 0 ? Double.NaN : (double) hits / (hits + misses);
+    }
+
+    @Override
+    public void reset() {
+        pairs.clear();
+        for (Metered c : converters) {
+            c.hits.reset();
+            c.fallthroughs.reset();
+        }
+    }
+
+    private Map<String, Long> byPair(ToLongFunction<Pair> metric) {
+        final Map<String, Long> values = new TreeMap<>();
+        for (Pair pair : pairs.values()) {
+            values.merge(pair.name, metric.applyAsLong(pair), Long::sum);
+        }
+        return values;
+    }
+
+    private Pair pair(Typed sourceType, Typed targetType) {
+        final MappingRequest request = new MappingRequest(sourceType, targetType);
+        final Pair pair = pairs.get(request);
+        return pair != null ? pair : pairs.computeIfAbsent(request, r -> new Pair(r.source + " -> " + r.target));
+    }
+
+    private static class Pair {
+
+        public final String name;
+        public final LongAdder calls = new LongAdder();
+        public final LongAdder failures = new LongAdder();
+        public final AtomicLongArray latencies = new AtomicLongArray(BUCKETS);
+
+        public Pair(String name) {
+            this.name = name;
+        }
+
+        public <S, R> R measure(MappingFunction<S, R> mapping, S source) {
+            final long start = System.nanoTime();
+            try {
+                return mapping.apply(source);
+            } catch (MappingException ex) {
+                failures.increment();
+                throw ex;
+            } finally {
+                final long micros = (System.nanoTime() - start) / 1000;
+                latencies.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros)));
+                calls.increment();
+            }
+        }
+    }
+
+    private class MeteredMapper implements Mapper {
+
+        private final Mapper mapper;
+
+        public MeteredMapper(Mapper mapper) {
+            this.mapper = mapper;
+        }
+
+        @Override
+        public <R> R map(Typed sourceType, Object source, Typed targetType) {
+            return pair(sourceType, targetType).measure(s -> mapper.<R>map(sourceType, s, targetType), source);
+        }
+
+        @Override
+        public <R> R mapInto(Typed sourceType, Object source, Typed targetType, R target, Merge merge) {
+            return pair(sourceType, targetType).measure(s -> mapper.mapInto(sourceType, s, targetType, target, merge), source);
+        }
+
+        @Override
+        public <S, R> MappingFunction<S, R> prepare(Typed sourceType, Typed targetType) {
+            final MappingFunction<S, R> prepared = mapper.prepare(sourceType, targetType);
+            final Pair pair = pair(sourceType, targetType);
+            return source -> pair.measure(prepared, source);
+        }
+
+        @Override
+        public <S, R> MappingFunction<S, R> prepare(Typed sourceType, Typed targetType, R orElse) {
+            final MappingFunction<S, R> prepared = mapper.prepare(sourceType, targetType, orElse);
+            final Pair pair = pair(sourceType, targetType);
+            return source -> pair.measure(prepared, source);
+        }
+    }
+
+    private static class Metered implements ValueConverter {
+
+        private final ValueConverter converter;
+        private final String name;
+        private final LongAdder hits;
+        private final LongAdder fallthroughs;
+
+        public Metered(ValueConverter converter, String name, LongAdder hits, LongAdder fallthroughs) {
+            this.converter = converter;
+            this.name = name;
+            this.hits = hits;
+            this.fallthroughs = fallthroughs;
+        }
+
+        @Override
+        public Object apply(MappingContext ctx, Object source) {
+            final Object value = converter.apply(ctx, source);
+            if (value == NO) {
+                fallthroughs.increment();
+            } else {
+                hits.increment();
+            }
+            return value;
+        }
+
+        @Override
+        public boolean applies(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+            return converter.applies(sourceClass, targetClass, nullSource);
+        }
+
+        @Override
+        public ValueConverter plan(MappingContext ctx) {
+            final Converter planned = converter.plan(ctx);
+            if (planned == null) {
+                return null;
+            }
+            return planned == converter ? this : new Metered(ValueConverter.of(planned), name, hits, fallthroughs);
+        }
+    }
+}
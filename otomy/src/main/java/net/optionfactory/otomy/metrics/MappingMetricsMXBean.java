@@ -0,0 +1,34 @@
+package net.optionfactory.otomy.metrics;
+
+import java.util.Map;
+
+/**
+ * Mapping throughput, latency and cache health, by {@code source -> target}
+ * pair and by converter.
+ */
+public interface MappingMetricsMXBean {
+
+    Map<String, Long> getCalls();
+
+    Map<String, Long> getFailures();
+
+    /**
+     * @return the exclusive upper bounds, in microseconds, of the latency
+     * buckets
+     */
+    long[] getLatencyBucketsMicros();
+
+    Map<String, long[]> getLatencies();
+
+    Map<String, Long> getConverterHits();
+
+    Map<String, Long> getConverterFallthroughs();
+
+    int getTypedCacheSize();
+
+    int getInspectorCacheSize();
+
+    double getInspectorHitRatio();
+
+    void reset();
+}
@@ -0,0 +1,337 @@
+package net.optionfactory.otomy.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import net.optionfactory.otomy.Mapper;
+import net.optionfactory.otomy.MappingFunction;
+import net.optionfactory.otomy.Merge;
+import net.optionfactory.otomy.converters.Context.Cons;
+import net.optionfactory.otomy.converters.Converter;
+import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.converters.ValueConverter;
+import net.optionfactory.otomy.types.Typed;
+
+/**
+ * Traces one in {@code rate} top-level mapping calls, aggregating per path
+ * how often it is visited, the converter handling it and the time spent.
+ * Paths are taken from the target contexts, so the decorated mapper should
+ * be configured with {@link net.optionfactory.otomy.TypedMapper.Tracing#Sampled}
+ * (or {@code Enabled}); element indexes are folded into {@code *}. Elements
+ * mapped concurrently on other threads are not traced, their time being
+ * accounted to the collection.
+ *
+ * <pre>
+ * final SampledTracing tracing = new SampledTracing(1000);
+ * final Mapper mapper = tracing.mapper(new TypedMapper(inspector, Strategies.defaults().decorate(tracing::converter), Tracing.Sampled));
+ * ...
+ * tracing.folded(System.out);
+ * </pre>
+ */
+public class SampledTracing {
+
+    private final ThreadLocal<Sample> current = new ThreadLocal<>();
+    private final int rate;
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder samples = new LongAdder();
+    private final ConcurrentMap<String, Stats> paths = new ConcurrentHashMap<>();
+
+    /**
+     * @param rate one in how many top-level calls is traced
+     */
+    public SampledTracing(int rate) {
+        if (rate < 1) {
+            throw new IllegalArgumentException("rate must be positive");
+        }
+        this.rate = rate;
+    }
+
+    /**
+     * @param mapper the mapper to sample
+     * @return a mapper tracing one in {@code rate} calls to {@code mapper}
+     */
+    public Mapper mapper(Mapper mapper) {
+        return new SampledMapper(mapper);
+    }
+
+    /**
+     * @param converter the converter to trace
+     * @return a converter recording the paths it handles while a call is
+     * traced on the current thread
+     */
+    public Converter converter(Converter converter) {
+        final String name = converter.getClass().getSimpleName();
+        return new Traced(ValueConverter.of(converter), name.isEmpty() ? converter.getClass().getName() : name);
+    }
+
+    /**
+     * @return the number of calls traced so far
+     */
+    public long samples() {
+        return samples.sum();
+    }
+
+    /**
+     * @return the statistics of every traced path, by folded stack
+     */
+    public Map<String, Stats> paths() {
+        return new TreeMap<>(paths);
+    }
+
+    /**
+     * Writes the self time, in nanoseconds, of every traced path in the
+     * folded-stack format read by flame graph tools: one line per path, its
+     * frames separated by {@code ;}, followed by a space and the value.
+     *
+     * @param out where to write
+     */
+    public void folded(Appendable out) {
+        try {
+            for (Stats stats : paths().values()) {
+                out.append(stats.stack).append(' ').append(Long.toString(stats.selfNanos())).append('\n');
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public String folded() {
+        final StringBuilder sb = new StringBuilder();
+        folded(sb);
+        return sb.toString();
+    }
+
+    public void reset() {
+        paths.clear();
+        samples.reset();
+    }
+
+    private void record(String stack, long nanos, long selfNanos) {
+        Stats stats = paths.get(stack);
+        if (stats == null) {
+            stats = paths.computeIfAbsent(stack, Stats::new);
+        }
+        stats.visits.increment();
+        stats.nanos.add(nanos);
+        stats.selfNanos.add(selfNanos);
+    }
+
+    /**
+     * The statistics of a traced path.
+     */
+    public static class Stats {
+
+        /**
+         * The folded stack: the top-level mapping followed by a frame per
+         * converter, each labeled with the path it handles.
+         */
+        public final String stack;
+        private final LongAdder visits = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder selfNanos = new LongAdder();
+
+        public Stats(String stack) {
+            this.stack = stack;
+        }
+
+        public long visits() {
+            return visits.sum();
+        }
+
+        /**
+         * @return the time spent mapping the path, nested paths included
+         */
+        public long nanos() {
+            return nanos.sum();
+        }
+
+        /**
+         * @return the time spent mapping the path, nested paths excluded
+         */
+        public long selfNanos() {
+            return selfNanos.sum();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s visits:%s nanos:%s self:%s", stack, visits(), nanos(), selfNanos());
+        }
+    }
+
+    /**
+     * The traced call running on a thread: a stack of the frames entered.
+     */
+    private static class Sample {
+
+        private final List<Frame> frames = new ArrayList<>();
+
+        public Frame top() {
+            return frames.get(frames.size() - 1);
+        }
+
+        public Frame push(String stack, Cons<String> path) {
+            final Frame frame = new Frame(stack, path, System.nanoTime());
+            frames.add(frame);
+            return frame;
+        }
+
+        public void pop() {
+            frames.remove(frames.size() - 1);
+        }
+    }
+
+    private static class Frame {
+
+        public final String stack;
+        public final Cons<String> path;
+        public final long start;
+        public long children;
+
+        public Frame(String stack, Cons<String> path, long start) {
+            this.stack = stack;
+            this.path = path;
+            this.start = start;
+        }
+    }
+
+    private class SampledMapper implements Mapper {
+
+        private final Mapper mapper;
+
+        public SampledMapper(Mapper mapper) {
+            this.mapper = mapper;
+        }
+
+        @Override
+        public <R> R map(Typed sourceType, Object source, Typed targetType) {
+            if (ThreadLocalRandom.current().nextInt(rate) != 0 || current.get() != null) {
+                return mapper.map(sourceType, source, targetType);
+            }
+            return trace(sourceType, targetType, s -> mapper.<R>map(sourceType, s, targetType), source);
+        }
+
+        @Override
+        public <R> R mapInto(Typed sourceType, Object source, Typed targetType, R target, Merge merge) {
+            if (ThreadLocalRandom.current().nextInt(rate) != 0 || current.get() != null) {
+                return mapper.mapInto(sourceType, source, targetType, target, merge);
+            }
+            return trace(sourceType, targetType, s -> mapper.mapInto(sourceType, s, targetType, target, merge), source);
+        }
+
+        @Override
+        public <S, R> MappingFunction<S, R> prepare(Typed sourceType, Typed targetType) {
+            return sampled(sourceType, targetType, mapper.<S, R>prepare(sourceType, targetType));
+        }
+
+        @Override
+        public <S, R> MappingFunction<S, R> prepare(Typed sourceType, Typed targetType, R orElse) {
+            return sampled(sourceType, targetType, mapper.<S, R>prepare(sourceType, targetType, orElse));
+        }
+
+        private <S, R> MappingFunction<S, R> sampled(Typed sourceType, Typed targetType, MappingFunction<S, R> prepared) {
+            return source -> {
+                if (ThreadLocalRandom.current().nextInt(rate) != 0 || current.get() != null) {
+                    return prepared.apply(source);
+                }
+                return trace(sourceType, targetType, prepared, source);
+            };
+        }
+
+        private <S, R> R trace(Typed sourceType, Typed targetType, MappingFunction<S, R> mapping, S source) {
+            final Sample sample = new Sample();
+            final Frame root = sample.push((sourceType + "->" + targetType).replace(" ", ""), null);
+            current.set(sample);
+            active.incrementAndGet();
+            try {
+                return mapping.apply(source);
+            } finally {
+                active.decrementAndGet();
+                current.remove();
+                final long nanos = System.nanoTime() - root.start;
+                record(root.stack, nanos, nanos - root.children);
+                samples.increment();
+            }
+        }
+    }
+
+    private class Traced implements ValueConverter {
+
+        private final ValueConverter converter;
+        private final String name;
+
+        public Traced(ValueConverter converter, String name) {
+            this.converter = converter;
+            this.name = name;
+        }
+
+        @Override
+        public Object apply(MappingContext ctx, Object source) {
+            if (active.get() == 0) {
+                return converter.apply(ctx, source);
+            }
+            final Sample sample = current.get();
+            if (sample == null) {
+                return converter.apply(ctx, source);
+            }
+            final Frame parent = sample.top();
+            final Frame frame = sample.push(parent.stack + ';' + label(parent.path, ctx.target.path), ctx.target.path);
+            Object value = NO;
+            try {
+                value = converter.apply(ctx, source);
+                return value;
+            } finally {
+                sample.pop();
+                final long nanos = System.nanoTime() - frame.start;
+                if (value != NO) {
+                    record(frame.stack, nanos, nanos - frame.children);
+                    parent.children += nanos;
+                } else {
+                    parent.children += frame.children;
+                }
+            }
+        }
+
+        /**
+         * Labels a frame with the converter name preceded by the path
+         * segments added since the parent frame, if any.
+         */
+        private String label(Cons<String> parent, Cons<String> path) {
+            final List<String> segments = new ArrayList<>();
+            for (Cons<String> c = path; c != parent && c != null; c = c.cdr()) {
+                segments.add(c.car());
+            }
+            if (segments.isEmpty()) {
+                return name;
+            }
+            final StringBuilder sb = new StringBuilder();
+            for (int i = segments.size() - 1; i >= 0; --i) {
+                final String segment = segments.get(i);
+                sb.append(!segment.isEmpty() && segment.chars().allMatch(Character::isDigit) ? "*" : segment.replace(';', '_').replace(' ', '_'));
+                sb.append(i == 0 ? ':' : '.');
+            }
+            return sb.append(name).toString();
+        }
+
+        @Override
+        public boolean applies(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+            return converter.applies(sourceClass, targetClass, nullSource);
+        }
+
+        @Override
+        public ValueConverter plan(MappingContext ctx) {
+            final Converter planned = converter.plan(ctx);
+            if (planned == null) {
+                return null;
+            }
+            return planned == converter ? this : new Traced(ValueConverter.of(planned), name);
+        }
+    }
+}
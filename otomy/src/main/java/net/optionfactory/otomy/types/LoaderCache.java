@@ -0,0 +1,297 @@
+package net.optionfactory.otomy.types;
+
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * A cache partitioned by the class owning each key, that is the class of the
+ * youngest class loader a key references. Partitions are attached to their
+ * owner through a {@link ClassValue}, so cached values never keep a class
+ * loader reachable once its classes are unloaded. Each partition holds at
+ * most {@code bound} entries: when exceeded, entries are evicted down to three
+ * quarters of the bound, those read since the previous eviction being spared
+ * once (a clock).
+ * <p>
+ * Keys owned by {@link Types#UNRELATED}, referencing classes of sibling
+ * loaders, have no single owner to attach to: they are kept in a side
+ * partition of an eighth of the bound, holding values softly so that they
+ * do not keep those loaders reachable under memory pressure. The side
+ * partition is dropped whenever any loader is invalidated.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class LoaderCache<K, V> {
+
+    private final int bound;
+    private final int unrelatedBound;
+    private final Function<? super K, Class<?>> owner;
+    private final Set<Owner<K, V>> owners = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<K, Entry<V>> unowned = new ConcurrentHashMap<>();
+    private final ConcurrentMap<K, Entry<SoftReference<V>>> unrelated = new ConcurrentHashMap<>();
+    private final ClassValue<ConcurrentMap<K, Entry<V>>> partitions = new ClassValue<ConcurrentMap<K, Entry<V>>>() {
+        @Override
+        protected ConcurrentMap<K, Entry<V>> computeValue(Class<?> type) {
+            final ConcurrentMap<K, Entry<V>> partition = new ConcurrentHashMap<>();
+            owners.add(new Owner<>(type, partition));
+            return partition;
+        }
+    };
+
+    public LoaderCache(int bound, Function<? super K, Class<?>> owner) {
+        if (bound < 1) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        this.bound = bound;
+        this.unrelatedBound = Math.max(1, bound >> 3);
+        this.owner = owner;
+    }
+
+    public V get(K key) {
+        return get(owner.apply(key), key);
+    }
+
+    /**
+     * @param owner the class owning {@code key}
+     * @param key the key
+     * @return the cached value or {@code null}
+     */
+    public V get(Class<?> owner, K key) {
+        if (owner == Types.UNRELATED) {
+            return unrelated(key);
+        }
+        final Entry<V> entry = partition(owner).get(key);
+        return entry == null ? null : entry.read();
+    }
+
+    /**
+     * Computes the value of {@code key} at most once at a time: concurrent
+     * callers for the same key wait for the value being computed.
+     *
+     * @param key the key
+     * @param compute the function computing the value of a missing key
+     * @return the cached or computed value
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> compute) {
+        return computeIfAbsent(owner.apply(key), key, compute);
+    }
+
+    /**
+     * @param owner the class owning {@code key}
+     * @param key the key
+     * @param compute the function computing the value of a missing key
+     * @return the cached or computed value
+     * @see #computeIfAbsent(java.lang.Object, java.util.function.Function)
+     */
+    public V computeIfAbsent(Class<?> owner, K key, Function<? super K, ? extends V> compute) {
+        if (owner == Types.UNRELATED) {
+            final V cached = unrelated(key);
+            if (cached != null) {
+                return cached;
+            }
+            final V value = compute.apply(key);
+            return value == null ? null : putUnrelated(key, value);
+        }
+        final ConcurrentMap<K, Entry<V>> partition = partition(owner);
+        final Entry<V> cached = partition.get(key);
+        if (cached != null) {
+            return cached.read();
+        }
+        final Entry<V> computed = partition.computeIfAbsent(key, k -> {
+            final V value = compute.apply(k);
+            return value == null ? null : new Entry<>(value);
+        });
+        evict(partition, bound);
+        return computed == null ? null : computed.value;
+    }
+
+    public void put(K key, V value) {
+        final Class<?> type = owner.apply(key);
+        if (type == Types.UNRELATED) {
+            unrelated.put(key, new Entry<>(new SoftReference<>(value)));
+            evict(unrelated, unrelatedBound);
+            return;
+        }
+        final ConcurrentMap<K, Entry<V>> partition = partition(type);
+        partition.put(key, new Entry<>(value));
+        evict(partition, bound);
+    }
+
+    /**
+     * @param key the key
+     * @param value the value to cache if none is
+     * @return the value already cached for {@code key} or {@code value}
+     */
+    public V putIfAbsent(K key, V value) {
+        final Class<?> type = owner.apply(key);
+        if (type == Types.UNRELATED) {
+            return putUnrelated(key, value);
+        }
+        final ConcurrentMap<K, Entry<V>> partition = partition(type);
+        final Entry<V> existing = partition.putIfAbsent(key, new Entry<>(value));
+        if (existing != null) {
+            return existing.read();
+        }
+        evict(partition, bound);
+        return value;
+    }
+
+    /**
+     * Drops every entry owned by classes defined by {@code loader} or by one
+     * of its descendants.
+     *
+     * @param loader the class loader
+     */
+    public void invalidate(ClassLoader loader) {
+        unrelated.clear();
+        for (Iterator<Owner<K, V>> it = owners.iterator(); it.hasNext();) {
+            final Owner<K, V> o = it.next();
+            final Class<?> type = o.get();
+            if (type == null) {
+                it.remove();
+            } else if (Types.loadedWithin(type, loader)) {
+                partitions.remove(type);
+                it.remove();
+            }
+        }
+    }
+
+    public void clear() {
+        for (Iterator<Owner<K, V>> it = owners.iterator(); it.hasNext();) {
+            final Class<?> type = it.next().get();
+            if (type != null) {
+                partitions.remove(type);
+            }
+            it.remove();
+        }
+        unowned.clear();
+        unrelated.clear();
+    }
+
+    /**
+     * @return the number of cached entries
+     */
+    public int size() {
+        int size = unowned.size() + unrelated.size();
+        for (Iterator<Owner<K, V>> it = owners.iterator(); it.hasNext();) {
+            final ConcurrentMap<K, Entry<V>> partition = it.next().partition.get();
+            if (partition == null) {
+                it.remove();
+            } else {
+                size += partition.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return a snapshot of the cached values
+     */
+    public List<V> values() {
+        final List<V> values = new ArrayList<>();
+        for (Entry<V> entry : unowned.values()) {
+            values.add(entry.value);
+        }
+        for (Entry<SoftReference<V>> entry : unrelated.values()) {
+            final V value = entry.value.get();
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        for (Owner<K, V> o : owners) {
+            final ConcurrentMap<K, Entry<V>> partition = o.partition.get();
+            if (partition != null) {
+                for (Entry<V> entry : partition.values()) {
+                    values.add(entry.value);
+                }
+            }
+        }
+        return values;
+    }
+
+    private ConcurrentMap<K, Entry<V>> partition(Class<?> type) {
+        return type == null ? unowned : partitions.get(type);
+    }
+
+    private V unrelated(K key) {
+        final Entry<SoftReference<V>> entry = unrelated.get(key);
+        if (entry == null) {
+            return null;
+        }
+        final V value = entry.read().get();
+        if (value == null) {
+            unrelated.remove(key, entry);
+        }
+        return value;
+    }
+
+    private V putUnrelated(K key, V value) {
+        final Entry<SoftReference<V>> entry = new Entry<>(new SoftReference<>(value));
+        final Entry<SoftReference<V>> existing = unrelated.putIfAbsent(key, entry);
+        if (existing != null) {
+            final V cached = existing.read().get();
+            if (cached != null) {
+                return cached;
+            }
+            unrelated.replace(key, existing, entry);
+        }
+        evict(unrelated, unrelatedBound);
+        return value;
+    }
+
+    /**
+     * Sweeps the partition clearing the read bits, evicting the entries not
+     * read since the previous sweep; a second sweep evicts the rest when
+     * every entry was read.
+     */
+    private static <K, E> void evict(ConcurrentMap<K, Entry<E>> partition, int bound) {
+        if (partition.size() <= bound) {
+            return;
+        }
+        final int target = bound - (bound >> 2);
+        for (int sweep = 0; sweep != 2 && partition.size() > target; ++sweep) {
+            for (Iterator<Entry<E>> it = partition.values().iterator(); it.hasNext() && partition.size() > target;) {
+                final Entry<E> entry = it.next();
+                if (entry.read) {
+                    entry.read = false;
+                } else {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private static class Entry<V> {
+
+        public final V value;
+        public volatile boolean read;
+
+        public Entry(V value) {
+            this.value = value;
+        }
+
+        public V read() {
+            if (!read) {
+                read = true;
+            }
+            return value;
+        }
+    }
+
+    private static class Owner<K, V> extends WeakReference<Class<?>> {
+
+        public final WeakReference<ConcurrentMap<K, Entry<V>>> partition;
+
+        public Owner(Class<?> type, ConcurrentMap<K, Entry<V>> partition) {
+            super(type);
+            this.partition = new WeakReference<>(partition);
+        }
+    }
+}
@@ -25,12 +25,13 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -76,41 +77,59 @@ public class Typed {
      * is used in preference to {@code null} so that multiple method calls can
      * be safely chained.
      */
-    public static final Typed NONE = new Typed(null, null, null, 0);
+    public static final Typed NONE = new Typed(null, null, null);
 
     private static final Typed[] EMPTY_TYPES_ARRAY = new Typed[0];
 
-    private static final Map<Typed, Typed> CACHE = new ConcurrentHashMap<>(256);
+    /**
+     * The canonical instances of plain classes.
+     */
+    private static final ClassValue<Typed> CLASSES = new ClassValue<Typed>() {
+        @Override
+        protected Typed computeValue(Class<?> type) {
+            return new Typed(type);
+        }
+    };
 
     /**
-     * The underlying Java type being managed (only ever {@code null} for
-     * {@link #NONE}).
+     * The canonical instances of types referring to no type variable, whatever
+     * their resolution context.
      */
-    final Type type;
+    private static final LoaderCache<Type, Typed> ROOTS = new LoaderCache<>(1024, Types::owner);
 
     /**
-     * Optional provider for the type.
+     * The canonical instances of types referring to type variables, by type
+     * and variable bindings: a recursive generic type resolved against itself
+     * at any depth is the same instance.
      */
-    private final TypeProvider typeProvider;
+    private static final LoaderCache<Derivation, Typed> DERIVED = new LoaderCache<>(4096, Derivation::owner);
 
     /**
-     * The {@code VariableResolver} to use or {@code null} if no resolver is
-     * available.
+     * The underlying Java type being managed (only ever {@code null} for
+     * {@link #NONE}).
      */
-    final Typed resolutionContext;
+    final Type type;
 
     /**
-     * The component type for an array or {@code null} if the type should be
-     * deduced.
+     * The {@code VariableResolver} to use or {@code null} if no resolver is
+     * available.
      */
-    private final Typed componentType;
+    final Typed resolutionContext;
 
     /**
      * Copy of the resolved value.
      */
     private final Class<?> resolved;
 
-    private final Integer hash;
+    private final int hash;
+
+    private final Class<?> owner;
+
+    /**
+     * What the type variables {@code type} refers to resolve to, in order of
+     * appearance, or {@code null} when the type has no resolution context.
+     */
+    private final Typed[] bindings;
 
     private Typed superType;
 
@@ -119,46 +138,18 @@ public class Typed {
     private Typed[] generics;
 
     /**
-     * Private constructor used to create a new {@link ResolvableType} for cache
-     * key purposes, with no upfront resolution.
-     */
-    private Typed(Type type, TypeProvider typeProvider, Typed resolutionContext) {
-        this.type = type;
-        this.typeProvider = typeProvider;
-        this.resolutionContext = resolutionContext;
-        this.componentType = null;
-        this.resolved = null;
-        this.hash = calculateHashCode();
-    }
-
-    /**
-     * Private constructor used to create a new {@link ResolvableType} for cache
-     * value purposes, with upfront resolution and a pre-calculated hash.
-     *
-     * @since 4.2
-     */
-    private Typed(Type type, TypeProvider typeProvider, Typed resolutionContext, Integer hash) {
-        this.type = type;
-        this.typeProvider = typeProvider;
-        this.resolutionContext = resolutionContext;
-        this.componentType = null;
-        this.resolved = resolveClass();
-        this.hash = hash;
-    }
-
-    /**
-     * Private constructor used to create a new {@link ResolvableType} for
-     * uncached purposes, with upfront resolution but lazily calculated hash.
+     * Private constructor used to create a canonical {@link Typed}, with
+     * upfront resolution and a pre-calculated hash.
      */
-    private Typed(
-            Type type, TypeProvider typeProvider, Typed resolutionContext, Typed componentType) {
-
+    private Typed(Type type, Typed resolutionContext, Typed[] bindings) {
         this.type = type;
-        this.typeProvider = typeProvider;
         this.resolutionContext = resolutionContext;
-        this.componentType = componentType;
+        this.bindings = bindings;
         this.resolved = resolveClass();
-        this.hash = null;
+        this.hash = hash(type, bindings);
+        this.owner = resolutionContext != null
+                ? Types.younger(Types.owner(type), resolutionContext.owner)
+                : Types.owner(type);
     }
 
     /**
@@ -169,12 +160,12 @@ public class Typed {
      * @since 4.2
      */
     private Typed(Class<?> sourceClass) {
-        this.resolved = (sourceClass != null ? sourceClass : Object.class);
-        this.type = this.resolved;
-        this.typeProvider = null;
+        this.resolved = sourceClass;
+        this.type = sourceClass;
         this.resolutionContext = null;
-        this.componentType = null;
-        this.hash = null;
+        this.bindings = null;
+        this.hash = hash(sourceClass, null);
+        this.owner = Types.owner(sourceClass);
     }
 
     /**
@@ -326,9 +317,6 @@ public class Typed {
         if (this == NONE) {
             return NONE;
         }
-        if (this.componentType != null) {
-            return this.componentType;
-        }
         if (this.type instanceof Class) {
             Class<?> componentType = ((Class<?>) this.type).getComponentType();
             return Typed.type(componentType, this.resolutionContext);
@@ -662,6 +650,11 @@ public class Typed {
         return null;
     }
 
+    /**
+     * Instances are canonical, so equal types are the same instance. Types
+     * are only compared structurally when their canonical instance has been
+     * evicted while still referenced.
+     */
     @Override
     public boolean equals(Object rhs) {
         if (this == rhs) {
@@ -670,25 +663,22 @@ public class Typed {
         if (!(rhs instanceof Typed)) {
             return false;
         }
-
         final Typed other = (Typed) rhs;
-        return Objects.equals(this.type, other.type)
-                && Objects.equals(this.typeProvider, other.typeProvider)
-                && Objects.equals(this.resolutionContext, other.resolutionContext)
-                && Objects.equals(this.componentType, other.componentType);
+        return this.hash == other.hash
+                && !(this.type instanceof Class)
+                && Objects.equals(this.type, other.type)
+                && Arrays.equals(this.bindings, other.bindings);
     }
 
     @Override
     public int hashCode() {
-        return (this.hash != null ? this.hash : calculateHashCode());
+        return this.hash;
     }
 
-    public int calculateHashCode() {
+    private static int hash(Type type, Typed[] bindings) {
         int hash = 7;
-        hash = 59 * hash + (this.type != null ? this.type.hashCode() : 0);
-        hash = 59 * hash + (this.typeProvider != null ? this.typeProvider.hashCode() : 0);
-//        hash = 59 * hash + Objects.hashCode(this.resolutionContext);
-//        hash = 59 * hash + Objects.hashCode(this.componentType);
+        hash = 59 * hash + (type != null ? type.hashCode() : 0);
+        hash = 59 * hash + Arrays.hashCode(bindings);
         return hash;
     }
 
@@ -734,7 +724,7 @@ public class Typed {
      * @see #forClassWithGenerics(Class, Class...)
      */
     public static Typed class_(Class<?> sourceClass) {
-        return new Typed(sourceClass);
+        return CLASSES.get(sourceClass != null ? sourceClass : Object.class);
     }
 
     /**
@@ -849,22 +839,90 @@ public class Typed {
             return NONE;
         }
 
-        // For simple Class references, build the wrapper right away -
-        // no expensive resolution necessary, so not worth caching...
+        // Plain classes resolve the same whatever their context
         if (type instanceof Class) {
-            return new Typed(type, typeProvider, resolutionContext, (Typed) null);
+            return class_((Class<?>) type);
+        }
+        final List<TypeVariable<?>> variables = new ArrayList<>(2);
+        if (resolutionContext != null) {
+            variables(type, variables);
         }
+        if (variables.isEmpty()) {
+            final Typed cached = ROOTS.get(type);
+            return cached != null ? cached : ROOTS.putIfAbsent(type, new Typed(type, null, null));
+        }
+        final Typed[] bindings = new Typed[variables.size()];
+        for (int i = 0; i != bindings.length; ++i) {
+            bindings[i] = binding(resolutionContext.resolveVariable(variables.get(i)));
+        }
+        final Derivation key = new Derivation(type, bindings, resolutionContext);
+        final Typed cached = DERIVED.get(key);
+        return cached != null ? cached : DERIVED.putIfAbsent(key, new Typed(type, resolutionContext, bindings));
+    }
+
+    private static void variables(Type type, List<TypeVariable<?>> variables) {
+        if (type instanceof TypeVariable) {
+            if (!variables.contains(type)) {
+                variables.add((TypeVariable<?>) type);
+            }
+        } else if (type instanceof ParameterizedType) {
+            final ParameterizedType p = (ParameterizedType) type;
+            if (p.getOwnerType() != null) {
+                variables(p.getOwnerType(), variables);
+            }
+            for (Type argument : p.getActualTypeArguments()) {
+                variables(argument, variables);
+            }
+        } else if (type instanceof GenericArrayType) {
+            variables(((GenericArrayType) type).getGenericComponentType(), variables);
+        } else if (type instanceof WildcardType) {
+            for (Type bound : ((WildcardType) type).getUpperBounds()) {
+                variables(bound, variables);
+            }
+            for (Type bound : ((WildcardType) type).getLowerBounds()) {
+                variables(bound, variables);
+            }
+        }
+    }
 
-        // Purge empty entries on access since we don't have a clean-up thread or the like.
-        //sbi: cache.purgeUnreferencedEntries();
-        // Check the cache - we may have a ResolvableType which has been resolved before...
-        Typed key = new Typed(type, typeProvider, resolutionContext);
-        Typed resolvableType = CACHE.get(key);
-        if (resolvableType == null) {
-            resolvableType = new Typed(type, typeProvider, resolutionContext, key.hash);
-            CACHE.put(resolvableType, resolvableType);
+    /**
+     * A variable bound to another variable is bound to what the latter
+     * resolves to, so chains of variables do not make new bindings.
+     */
+    private static Typed binding(Typed resolved) {
+        if (resolved != null && resolved.type instanceof TypeVariable && resolved.bindings != null && resolved.bindings[0] != null) {
+            return resolved.bindings[0];
         }
-        return resolvableType;
+        return resolved;
+    }
+
+    /**
+     * Drops the canonical types owned by classes defined by {@code loader} or
+     * by one of its descendants.
+     *
+     * @param loader the class loader
+     */
+    public static void invalidate(ClassLoader loader) {
+        ROOTS.invalidate(loader);
+        DERIVED.invalidate(loader);
+    }
+
+    /**
+     * @return the number of canonical types
+     */
+    public static int cached() {
+        return ROOTS.size() + DERIVED.size();
+    }
+
+    /**
+     * Return the class with the youngest class loader this type refers to,
+     * including the types it is resolved against.
+     *
+     * @return the owning class, {@link Types#UNRELATED} when it refers to
+     * classes of unrelated class loaders or {@code null} for {@link #NONE}
+     */
+    public Class<?> owner() {
+        return this.owner;
     }
 
     public Field[] getFields() {
@@ -882,4 +940,41 @@ public class Typed {
             return Optional.empty();
         }
     }
+
+    private static class Derivation {
+
+        private final Type type;
+        private final Typed[] bindings;
+        private final Typed context;
+        private final int hash;
+
+        public Derivation(Type type, Typed[] bindings, Typed context) {
+            this.type = type;
+            this.bindings = bindings;
+            this.context = context;
+            this.hash = hash(type, bindings);
+        }
+
+        /**
+         * @return the owner of the type resolved against the context, which
+         * the canonical instance keeps reachable
+         */
+        public Class<?> owner() {
+            return Types.younger(Types.owner(type), context.owner);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object rhs) {
+            if (rhs instanceof Derivation == false) {
+                return false;
+            }
+            final Derivation other = (Derivation) rhs;
+            return this.type.equals(other.type) && Arrays.equals(this.bindings, other.bindings);
+        }
+    }
 }
@@ -0,0 +1,227 @@
+package net.optionfactory.otomy.types;
+
+import java.lang.ref.Reference;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.Member;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+public abstract class Types {
+
+    /**
+     * The owner of types referring to classes of unrelated class loaders,
+     * neither of which is sure to outlive the other.
+     */
+    public static final Class<?> UNRELATED = Unrelated.class;
+
+    private static final Map<Class<?>, Class<?>> BOXED_TO_UNBOXED = new IdentityHashMap<>(8);
+    private static final Map<Class<?>, Class<?>> UNBOXED_TO_BOXED = new IdentityHashMap<>(8);
+
+    static {
+        BOXED_TO_UNBOXED.put(Boolean.class, boolean.class);
+        BOXED_TO_UNBOXED.put(Byte.class, byte.class);
+        BOXED_TO_UNBOXED.put(Character.class, char.class);
+        BOXED_TO_UNBOXED.put(Double.class, double.class);
+        BOXED_TO_UNBOXED.put(Float.class, float.class);
+        BOXED_TO_UNBOXED.put(Integer.class, int.class);
+        BOXED_TO_UNBOXED.put(Long.class, long.class);
+        BOXED_TO_UNBOXED.put(Short.class, short.class);
+
+        for (Map.Entry<Class<?>, Class<?>> entry : BOXED_TO_UNBOXED.entrySet()) {
+            UNBOXED_TO_BOXED.put(entry.getValue(), entry.getKey());
+        }
+
+    }
+
+    public static Class<?> boxed(Class<?> primitive) {
+        return UNBOXED_TO_BOXED.get(primitive);
+    }
+
+    public static Class<?> unboxed(Class<?> boxed) {
+        return BOXED_TO_UNBOXED.get(boxed);
+    }
+
+    public static boolean isImmutableFromJavaLang(Class<?> t) {
+        return t.isPrimitive()
+                || isBoxedNumeric(t)
+                || t == String.class
+                || t == BigInteger.class
+                || t == BigDecimal.class
+                || t == Locale.class
+                || t == UUID.class
+                || t == URI.class
+                || t == URL.class
+                || t == Inet4Address.class
+                || t == Inet6Address.class
+                || t == InetSocketAddress.class
+                || t.isEnum();
+    }
+
+    public static boolean isAssignable(Class<?> lhsType, Class<?> rhsType) {
+        if (lhsType.isAssignableFrom(rhsType)) {
+            return true;
+        }
+        if (lhsType.isPrimitive()) {
+            Class<?> resolvedPrimitive = BOXED_TO_UNBOXED.get(rhsType);
+            if (lhsType == resolvedPrimitive) {
+                return true;
+            }
+        } else {
+            Class<?> resolvedWrapper = UNBOXED_TO_BOXED.get(rhsType);
+            if (resolvedWrapper != null && lhsType.isAssignableFrom(resolvedWrapper)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean isBoxedNumeric(Class<?> t) {
+        return t == Boolean.class
+                || t == Byte.class
+                || t == Character.class
+                || t == Double.class
+                || t == Float.class
+                || t == Integer.class
+                || t == Long.class
+                || t == Short.class
+                || t == String.class
+                || t == BigInteger.class
+                || t == BigDecimal.class;
+    }
+
+    public static boolean isReferenceType(Class<?> t) {
+        return Reference.class.isAssignableFrom(t) || t == AtomicReference.class;
+    }
+
+    public static Object referenceValue(Class<?> t, Object source) {
+        if (AtomicReference.class == t) {
+            return ((AtomicReference) source).get();
+        }
+        return ((Reference) source).get();
+
+    }
+    
+    public static boolean isBoxType(Class<?> t){
+        return Types.isReferenceType(t) 
+                || t == AtomicInteger.class
+                || t == AtomicLong.class
+                || t == AtomicIntegerArray.class
+                || t == AtomicLongArray.class;
+    }
+
+
+    /**
+     * @param a a class or {@code null}
+     * @param b a class or {@code null}
+     * @return the class whose class loader is the youngest of the two,
+     * {@link #UNRELATED} when their loaders are unrelated
+     */
+    public static Class<?> younger(Class<?> a, Class<?> b) {
+        if (a == null || a == b) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a == UNRELATED || b == UNRELATED) {
+            return UNRELATED;
+        }
+        final ClassLoader la = a.getClassLoader();
+        final ClassLoader lb = b.getClassLoader();
+        if (la == lb || within(la, lb)) {
+            return a;
+        }
+        return within(lb, la) ? b : UNRELATED;
+    }
+
+    /**
+     * @param type the class
+     * @param loader the class loader
+     * @return whether {@code type} was defined by {@code loader} or one of its
+     * descendants
+     */
+    public static boolean loadedWithin(Class<?> type, ClassLoader loader) {
+        return within(type.getClassLoader(), loader);
+    }
+
+    private static boolean within(ClassLoader loader, ClassLoader ancestor) {
+        if (ancestor == null) {
+            return true;
+        }
+        for (ClassLoader l = loader; l != null; l = l.getParent()) {
+            if (l == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param type the type
+     * @return the class with the youngest class loader referenced by
+     * {@code type}, or {@code null}
+     */
+    public static Class<?> owner(Type type) {
+        if (type instanceof Class) {
+            Class<?> c = (Class<?>) type;
+            while (c.isArray()) {
+                c = c.getComponentType();
+            }
+            return c;
+        }
+        if (type instanceof ParameterizedType) {
+            final ParameterizedType p = (ParameterizedType) type;
+            Class<?> owner = younger(owner(p.getRawType()), owner(p.getOwnerType()));
+            for (Type argument : p.getActualTypeArguments()) {
+                owner = younger(owner, owner(argument));
+            }
+            return owner;
+        }
+        if (type instanceof GenericArrayType) {
+            return owner(((GenericArrayType) type).getGenericComponentType());
+        }
+        if (type instanceof WildcardType) {
+            final WildcardType w = (WildcardType) type;
+            Class<?> owner = null;
+            for (Type bound : w.getUpperBounds()) {
+                owner = younger(owner, owner(bound));
+            }
+            for (Type bound : w.getLowerBounds()) {
+                owner = younger(owner, owner(bound));
+            }
+            return owner;
+        }
+        if (type instanceof TypeVariable) {
+            final GenericDeclaration declaration = ((TypeVariable<?>) type).getGenericDeclaration();
+            if (declaration instanceof Class) {
+                return (Class<?>) declaration;
+            }
+            if (declaration instanceof Member) {
+                return ((Member) declaration).getDeclaringClass();
+            }
+        }
+        return null;
+    }
+
+    private static final class Unrelated {
+    }
+}
@@ -0,0 +1,82 @@
+package net.optionfactory.otomy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.optionfactory.otomy.converters.CachingInspector;
+import net.optionfactory.otomy.converters.strategies.Strategies;
+import net.optionfactory.otomy.types.Typed;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AsyncMapperTest {
+
+    private final Mapper mapper = new TypedMapper(new CachingInspector(), Strategies.defaults(), TypedMapper.Tracing.Disabled);
+
+    @Test
+    public void mapsCollectionsInChunksReportingProgress() throws InterruptedException, ExecutionException {
+        final List<Integer> source = new ArrayList<>();
+        for (int i = 0; i != 1000; ++i) {
+            source.add(i);
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final AsyncMapper async = new AsyncMapper(mapper, executor, 64);
+            final AtomicInteger last = new AtomicInteger();
+            final List<String> got = async.<String>mapAll(source, Typed.class_(Integer.class), Typed.class_(String.class), (done, total) -> last.accumulateAndGet(done, Math::max)).get();
+            Assert.assertEquals(1000, got.size());
+            Assert.assertEquals("999", got.get(999));
+            Assert.assertEquals(1000, last.get());
+            Assert.assertEquals("7", async.map(7, String.class).get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void cancellingStopsPendingChunks() throws InterruptedException {
+        final List<Integer> source = new ArrayList<>();
+        for (int i = 0; i != 100; ++i) {
+            source.add(i);
+        }
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger mapped = new AtomicInteger();
+        try {
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            final AsyncMapper async = new AsyncMapper(mapper, executor, 10);
+            async.mapAll(source, Typed.class_(Integer.class), Typed.class_(String.class), (done, total) -> mapped.incrementAndGet()).cancel(false);
+            release.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        Assert.assertEquals(0, mapped.get());
+    }
+
+    @Test(expected = CancellationException.class)
+    public void cancelledMappingsYieldNoResult() throws InterruptedException, ExecutionException {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final CompletableFuture<List<String>> f = new AsyncMapper(mapper, executor, 10).mapAll(Collections.nCopies(100, 1), Typed.class_(Integer.class), Typed.class_(String.class));
+            f.cancel(false);
+            f.get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
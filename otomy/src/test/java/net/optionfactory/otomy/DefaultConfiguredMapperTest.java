@@ -0,0 +1,200 @@
+package net.optionfactory.otomy;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import net.optionfactory.otomy.converters.CachingInspector;
+import net.optionfactory.otomy.converters.MappingRequest;
+import net.optionfactory.otomy.converters.factories.JavaLangCollectionFactory;
+import net.optionfactory.otomy.converters.strategies.Beans;
+import net.optionfactory.otomy.converters.strategies.Immutables;
+import net.optionfactory.otomy.converters.strategies.Iterables;
+import net.optionfactory.otomy.converters.strategies.Nulls;
+import net.optionfactory.otomy.converters.strategies.Strategies;
+import net.optionfactory.otomy.metrics.MappingMetrics;
+import net.optionfactory.otomy.types.Typed;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author rferranti
+ */
+public class DefaultConfiguredMapperTest {
+
+    public static class SimpleBean {
+
+        private static SimpleBean of(String value) {
+            SimpleBean b = new SimpleBean();
+            b.a = value;
+            return b;
+        }
+        public String a;
+    }
+
+    private final Mapper mapper = new TypedMapper(new CachingInspector(), Strategies.defaults(), TypedMapper.Tracing.Disabled);
+    public final List<SimpleBean> TARGET_TYPE = null;
+    @Test
+    public void objectArrayToList() throws NoSuchFieldException {
+        SimpleBean[] source = new SimpleBean[]{
+            SimpleBean.of("1"),
+            SimpleBean.of("2")
+        };
+
+        List<SimpleBean> got = (List<SimpleBean>)mapper.map(source, Typed.field(DefaultConfiguredMapperTest.class.getField("TARGET_TYPE"), Typed.class_(DefaultConfiguredMapperTest.class)));
+        Assert.assertTrue(got instanceof List);
+        Assert.assertEquals(2, got.size());
+        Assert.assertEquals("1", got.get(0).a);
+        Assert.assertEquals("2", got.get(1).a);
+    }
+
+    public static class Parent {
+
+        public String name;
+        public SimpleBean child;
+        public List<SimpleBean> children;
+    }
+
+    @Test
+    public void preparedMappingResolvesNestedBeansAndCollections() {
+        final Parent source = new Parent();
+        source.name = "p";
+        source.child = SimpleBean.of("c");
+        source.children = Arrays.asList(SimpleBean.of("1"), null, SimpleBean.of("2"));
+
+        final MappingFunction<Parent, Parent> fn = mapper.prepare(Parent.class, Parent.class);
+        for (int i = 0; i != 2; ++i) {
+            final Parent got = fn.apply(source);
+            Assert.assertEquals("p", got.name);
+            Assert.assertNotSame(source.child, got.child);
+            Assert.assertEquals("c", got.child.a);
+            Assert.assertEquals(3, got.children.size());
+            Assert.assertEquals("1", got.children.get(0).a);
+            Assert.assertNull(got.children.get(1));
+            Assert.assertEquals("2", got.children.get(2).a);
+        }
+    }
+
+    public static class NamedBean extends SimpleBean {
+
+        public String name;
+    }
+
+    public static class SimpleDto {
+
+        public String a;
+        public String name;
+    }
+
+    @Test
+    public void batchesMapEveryElementAsItsRuntimeClass() {
+        final NamedBean named = new NamedBean();
+        named.a = "2";
+        named.name = "n";
+        final List<SimpleBean> source = Arrays.asList(SimpleBean.of("1"), named, null, SimpleBean.of("3"));
+        final List<SimpleDto> got = mapper.mapAll(source, Typed.class_(SimpleBean.class), Typed.class_(SimpleDto.class));
+        Assert.assertEquals(4, got.size());
+        Assert.assertEquals("1", got.get(0).a);
+        Assert.assertNull(got.get(0).name);
+        Assert.assertEquals("n", got.get(1).name);
+        Assert.assertNull(got.get(2));
+        Assert.assertEquals("3", got.get(3).a);
+    }
+
+    @Test
+    public void arrayBatchesReuseLargeEnoughTargets() {
+        final SimpleBean[] source = {SimpleBean.of("1"), SimpleBean.of("2")};
+        final SimpleDto[] reusable = new SimpleDto[2];
+        final SimpleDto[] got = mapper.mapAll(source, Typed.class_(SimpleBean.class), Typed.class_(SimpleDto.class), reusable);
+        Assert.assertSame(reusable, got);
+        Assert.assertEquals("2", got[1].a);
+        final SimpleDto[] grown = mapper.mapAll(source, Typed.class_(SimpleBean.class), Typed.class_(SimpleDto.class), new SimpleDto[1]);
+        Assert.assertEquals(2, grown.length);
+        Assert.assertEquals(SimpleDto.class, grown.getClass().getComponentType());
+    }
+
+    public static class Node {
+
+        public String name;
+        public Node next;
+        public List<Node> siblings;
+    }
+
+    @Test
+    public void identityModeMapsSharedObjectsOnceAndReproducesCycles() {
+        final Node a = new Node();
+        final Node b = new Node();
+        a.name = "a";
+        a.next = b;
+        b.name = "b";
+        b.next = a;
+        a.siblings = Arrays.asList(b, b);
+        b.siblings = a.siblings;
+        final Mapper generated = new TypedMapper(new CachingInspector(), Strategies.defaults(), TypedMapper.Tracing.Disabled, TypedMapper.Identity.Enabled);
+        final Mapper reflective = new TypedMapper(new CachingInspector(), Strategies.composite(new Nulls(), new Immutables(Collections.emptySet()), new Iterables(new JavaLangCollectionFactory()), new Beans()), TypedMapper.Tracing.Disabled, TypedMapper.Identity.Enabled);
+        for (Mapper m : Arrays.asList(generated, reflective)) {
+            for (int i = 0; i != 2; ++i) {
+                final Node got = m.map(a, Node.class);
+                Assert.assertEquals("a", got.name);
+                Assert.assertEquals("b", got.next.name);
+                Assert.assertSame(got, got.next.next);
+                Assert.assertSame(got.next, got.siblings.get(0));
+                Assert.assertSame(got.next, got.siblings.get(1));
+                Assert.assertSame(got.siblings, got.next.siblings);
+                Assert.assertNotSame(a.siblings, got.siblings);
+            }
+        }
+    }
+
+    @Test
+    public void sharedObjectsAreCopiedWithoutIdentityMode() {
+        final SimpleBean shared = SimpleBean.of("s");
+        final Parent source = new Parent();
+        source.child = shared;
+        source.children = Arrays.asList(shared);
+        final Parent got = mapper.map(source, Parent.class);
+        Assert.assertNotSame(got.child, got.children.get(0));
+    }
+
+    @Test
+    public void preparedMappingOfNullYieldsNull() {
+        final MappingFunction<Parent, Parent> fn = mapper.prepare(Parent.class, Parent.class);
+        Assert.assertNull(fn.apply(null));
+    }
+
+    @Test
+    public void preparedObjectArrayToList() throws NoSuchFieldException {
+        final Typed targetType = Typed.field(DefaultConfiguredMapperTest.class.getField("TARGET_TYPE"), Typed.class_(DefaultConfiguredMapperTest.class));
+        final MappingFunction<SimpleBean[], List<SimpleBean>> fn = mapper.prepare(Typed.class_(SimpleBean[].class), targetType);
+        final List<SimpleBean> got = fn.apply(new SimpleBean[]{SimpleBean.of("1"), SimpleBean.of("2")});
+        Assert.assertEquals(2, got.size());
+        Assert.assertEquals("2", got.get(1).a);
+    }
+
+    @Test
+    public void warmUpPreparesRequestedPairsAndTheirDependencies() {
+        final CachingInspector inspector = new CachingInspector();
+        final TypedMapper typed = new TypedMapper(inspector, Strategies.defaults(), TypedMapper.Tracing.Disabled);
+        final MappingRequest parent = new MappingRequest(Typed.class_(Parent.class), Typed.class_(Parent.class));
+        final MappingRequest child = new MappingRequest(Typed.class_(SimpleBean.class), Typed.class_(SimpleBean.class));
+        final MappingRequest unmappable = new MappingRequest(Typed.class_(Parent.class), Typed.class_(Runnable.class));
+        final WarmUp got = typed.warmUp(Arrays.asList(parent, unmappable));
+        Assert.assertTrue(got.prepared.contains(parent));
+        Assert.assertTrue(got.prepared.contains(child));
+        Assert.assertEquals(Collections.singleton(unmappable), got.failures.keySet());
+        Assert.assertFalse(got.prepared.contains(unmappable));
+        final long misses = inspector.mappingCounters.misses();
+        final Parent source = new Parent();
+        source.child = SimpleBean.of("c");
+        source.children = Arrays.asList(SimpleBean.of("1"));
+        typed.map(source, Parent.class);
+        Assert.assertEquals(misses, inspector.mappingCounters.misses());
+    }
+
+    @Test
+    public void packagesCanBeScannedForClasses() {
+        final List<Class<?>> got = WarmUp.classes(DefaultConfiguredMapperTest.class.getClassLoader(), "net.optionfactory.otomy");
+        Assert.assertTrue(got.contains(SimpleBean.class));
+        Assert.assertTrue(got.contains(MappingMetrics.class));
+    }
+}
@@ -0,0 +1,95 @@
+package net.optionfactory.otomy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import net.optionfactory.otomy.converters.CachingInspector;
+import net.optionfactory.otomy.converters.MappingException;
+import net.optionfactory.otomy.converters.strategies.Strategies;
+import net.optionfactory.otomy.types.Typed;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MappingFlowProcessorTest {
+
+    private final Mapper mapper = new TypedMapper(new CachingInspector(), Strategies.defaults(), TypedMapper.Tracing.Disabled);
+
+    private static class Collecting<T> implements Flow.Subscriber<T> {
+
+        public final List<T> items = new ArrayList<>();
+        public final CountDownLatch terminated = new CountDownLatch(1);
+        public volatile Throwable error;
+        private Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            terminated.countDown();
+        }
+    }
+
+    @Test
+    public void mapsElementsInOrderHonouringDemand() throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (MappingFlowProcessor<Integer, String> processor : List.of(
+                    new MappingFlowProcessor<>(mapper, Integer.class, String.class, 8),
+                    new MappingFlowProcessor<Integer, String>(mapper, Typed.class_(Integer.class), Typed.class_(String.class), 8, executor))) {
+                final Collecting<String> subscriber = new Collecting<>();
+                try (SubmissionPublisher<Integer> publisher = new SubmissionPublisher<>()) {
+                    publisher.subscribe(processor);
+                    processor.subscribe(subscriber);
+                    for (int i = 0; i != 500; ++i) {
+                        publisher.submit(i);
+                    }
+                }
+                Assert.assertTrue(subscriber.terminated.await(10, TimeUnit.SECONDS));
+                Assert.assertNull(subscriber.error);
+                Assert.assertEquals(500, subscriber.items.size());
+                for (int i = 0; i != 500; ++i) {
+                    Assert.assertEquals(Integer.toString(i), subscriber.items.get(i));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public static class Unmappable {
+    }
+
+    @Test
+    public void mappingFailuresAreSignalledAsErrors() throws InterruptedException {
+        final MappingFlowProcessor<Object, Integer> processor = new MappingFlowProcessor<>(mapper, Typed.class_(Object.class), Typed.class_(Integer.class), 4, null);
+        final Collecting<Integer> subscriber = new Collecting<>();
+        try (SubmissionPublisher<Object> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(processor);
+            processor.subscribe(subscriber);
+            publisher.submit(new Unmappable());
+        }
+        Assert.assertTrue(subscriber.terminated.await(10, TimeUnit.SECONDS));
+        Assert.assertTrue(subscriber.error instanceof MappingException);
+    }
+}
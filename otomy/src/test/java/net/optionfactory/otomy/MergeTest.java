@@ -0,0 +1,215 @@
+package net.optionfactory.otomy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import net.optionfactory.otomy.converters.CachingInspector;
+import net.optionfactory.otomy.converters.strategies.Strategies;
+import net.optionfactory.otomy.metrics.MappingMetrics;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MergeTest {
+
+    public static class Line {
+
+        public String id;
+        public String product;
+
+        public static Line of(String id, String product) {
+            final Line line = new Line();
+            line.id = id;
+            line.product = product;
+            return line;
+        }
+    }
+
+    public static class LineView {
+
+        public String id;
+        public String product;
+    }
+
+    public static class Order {
+
+        public String code;
+        public String note;
+        public Line main;
+        public List<Line> lines;
+        public Map<String, Line> byId;
+    }
+
+    public static class OrderView {
+
+        public String code;
+        public String note;
+        public LineView main;
+        public List<LineView> lines;
+        public Map<String, LineView> byId;
+    }
+
+    public static class Parent {
+
+        public String name;
+        public List<Child> children;
+    }
+
+    public static class Child {
+
+        public String name;
+        public Parent parent;
+    }
+
+    public static class ParentView {
+
+        public String name;
+        public List<ChildView> children;
+    }
+
+    public static class ChildView {
+
+        public String name;
+        public ParentView parent;
+    }
+
+    private final Mapper mapper = new TypedMapper(new CachingInspector(), Strategies.defaults(), TypedMapper.Tracing.Disabled);
+
+    @Test
+    public void nestedBeansAndCollectionsAreUpdatedInPlace() {
+        final OrderView view = mapper.map(order("o1", Line.of("1", "a"), Line.of("2", "b")), OrderView.class);
+        final LineView main = view.main;
+        final List<LineView> lines = view.lines;
+        final LineView first = view.lines.get(0);
+        final Map<String, LineView> byId = view.byId;
+        final LineView second = view.byId.get("2");
+
+        final OrderView got = mapper.mapInto(order("o2", Line.of("1", "c")), view);
+
+        Assert.assertSame(view, got);
+        Assert.assertEquals("o2", got.code);
+        Assert.assertNull(got.note);
+        Assert.assertSame(main, got.main);
+        Assert.assertEquals("c", got.main.product);
+        Assert.assertSame(lines, got.lines);
+        Assert.assertEquals(1, got.lines.size());
+        Assert.assertSame(first, got.lines.get(0));
+        Assert.assertEquals("c", first.product);
+        Assert.assertSame(byId, got.byId);
+        Assert.assertEquals(Arrays.asList("1"), new ArrayList<>(got.byId.keySet()));
+        Assert.assertNotSame(second, got.byId.get("1"));
+    }
+
+    @Test
+    public void nullsCanBeSkipped() {
+        final OrderView view = new OrderView();
+        view.note = "kept";
+        final Order source = order("o", Line.of("1", "a"));
+        source.note = null;
+        mapper.mapInto(source, view, new Merge(Merge.Nulls.Skip, Merge.Elements.ByIndex));
+        Assert.assertEquals("kept", view.note);
+        mapper.mapInto(source, view, new Merge(Merge.Nulls.Overwrite, Merge.Elements.ByIndex));
+        Assert.assertNull(view.note);
+    }
+
+    @Test
+    public void elementsCanBeMergedByKey() {
+        final OrderView view = mapper.map(order("o", Line.of("1", "a"), Line.of("2", "b")), OrderView.class);
+        final LineView one = view.lines.get(0);
+        final LineView two = view.lines.get(1);
+        final Merge merge = new Merge(Merge.Nulls.Overwrite, Merge.Elements.ByKey)
+                .key(Line.class, l -> l.id)
+                .key(LineView.class, l -> l.id);
+        mapper.mapInto(order("o", Line.of("2", "B"), Line.of("3", "c"), Line.of("1", "A")), view, merge);
+        Assert.assertEquals(3, view.lines.size());
+        Assert.assertSame(two, view.lines.get(0));
+        Assert.assertEquals("B", two.product);
+        Assert.assertEquals("3", view.lines.get(1).id);
+        Assert.assertSame(one, view.lines.get(2));
+        Assert.assertEquals("A", one.product);
+    }
+
+    @Test
+    public void collectionsCanBeReplaced() {
+        final OrderView view = mapper.map(order("o", Line.of("1", "a")), OrderView.class);
+        final List<LineView> lines = view.lines;
+        final LineView main = view.main;
+        mapper.mapInto(order("o", Line.of("1", "b")), view, new Merge(Merge.Nulls.Overwrite, Merge.Elements.Replace));
+        Assert.assertNotSame(lines, view.lines);
+        Assert.assertEquals("b", view.lines.get(0).product);
+        Assert.assertSame(main, view.main);
+    }
+
+    @Test
+    public void cyclicGraphsAreMergedOnceWhenTrackingIdentities() {
+        final Mapper tracking = new TypedMapper(new CachingInspector(), Strategies.defaults(), TypedMapper.Tracing.Disabled, TypedMapper.Identity.Enabled);
+        final Parent parent = new Parent();
+        parent.name = "p";
+        final Child child = new Child();
+        child.name = "a";
+        child.parent = parent;
+        parent.children = new ArrayList<>(Arrays.asList(child));
+        final ParentView view = tracking.map(parent, ParentView.class);
+        final ChildView first = view.children.get(0);
+
+        parent.name = "q";
+        child.name = "b";
+        final Child added = new Child();
+        added.name = "c";
+        added.parent = parent;
+        parent.children.add(added);
+        final ParentView got = tracking.mapInto(parent, view);
+
+        Assert.assertSame(view, got);
+        Assert.assertEquals("q", got.name);
+        Assert.assertEquals(2, got.children.size());
+        Assert.assertSame(first, got.children.get(0));
+        Assert.assertEquals("b", first.name);
+        Assert.assertSame(view, first.parent);
+        Assert.assertEquals("c", got.children.get(1).name);
+        Assert.assertSame(view, got.children.get(1).parent);
+    }
+
+    @Test
+    public void sessionsOnlyConvertWhatChanged() {
+        final MappingMetrics metrics = new MappingMetrics(null);
+        final TypedMapper typed = new TypedMapper(new CachingInspector(), Strategies.defaults().decorate(metrics::converter), TypedMapper.Tracing.Disabled);
+        final MappingSession<OrderView> session = typed.session(Order.class, OrderView.class);
+        final Order source = order("o", Line.of("1", "a"), Line.of("2", "b"));
+        source.lines = new ArrayList<>(source.lines);
+        final OrderView first = session.map(source);
+        final LineView second = first.lines.get(1);
+
+        metrics.reset();
+        Assert.assertSame(first, session.map(source));
+        Assert.assertEquals(0, hits(metrics));
+
+        source.lines.get(1).product = "c";
+        source.lines.add(Line.of("3", "d"));
+        session.map(source);
+        Assert.assertEquals(3, first.lines.size());
+        Assert.assertSame(second, first.lines.get(1));
+        Assert.assertEquals("c", second.product);
+        Assert.assertEquals("d", first.lines.get(2).product);
+        // the changed product, both in the list and in the map, and the id and product of the appended line
+        Assert.assertEquals(4, hits(metrics));
+    }
+
+    private static long hits(MappingMetrics metrics) {
+        return metrics.getConverterHits().values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private static Order order(String code, Line... lines) {
+        final Order order = new Order();
+        order.code = code;
+        order.note = null;
+        order.main = lines[0];
+        order.lines = Arrays.asList(lines);
+        order.byId = new LinkedHashMap<>();
+        for (Line line : lines) {
+            order.byId.put(line.id, line);
+        }
+        return order;
+    }
+}
@@ -0,0 +1,173 @@
+package net.optionfactory.otomy.converters;
+
+import java.lang.invoke.MethodHandles;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.CountDownLatch;
+import net.optionfactory.otomy.TypedMapper;
+import net.optionfactory.otomy.converters.strategies.Strategies;
+import net.optionfactory.otomy.types.Typed;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CachingInspectorTest {
+
+    public static class Hidden {
+
+        String name;
+        private int age;
+
+        int getAge() {
+            return age;
+        }
+
+        void setAge(int age) {
+            this.age = age;
+        }
+    }
+
+    public static class Visible {
+
+        private long id;
+        public String label;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+    }
+
+    public static class Base {
+
+        Integer code;
+    }
+
+    public static class Derived extends Base {
+
+        String code;
+    }
+
+    public static class Broken {
+
+        public String getName() {
+            return CachingInspectorTest.<RuntimeException>sneaky(new java.io.IOException("unreadable"));
+        }
+
+        public void setName(String name) {
+        }
+    }
+
+    private static <E extends Throwable> String sneaky(Throwable ex) throws E {
+        throw (E) ex;
+    }
+
+    @Test
+    public void subclassMembersTakePrecedenceOverHiddenSuperclassOnes() {
+        final CachingInspector inspector = new CachingInspector(new MethodHandlePropertyAccess(MethodHandles.lookup()));
+        final Accessor code = inspector.accessors(Typed.class_(Derived.class)).get("code");
+        Assert.assertEquals(Derived.class, code.member().get().getDeclaringClass());
+        final Mutator mutator = inspector.mutators(Typed.class_(Derived.class)).get("code");
+        Assert.assertEquals(Derived.class, mutator.member().get().getDeclaringClass());
+    }
+
+    @Test
+    public void lambdasWrapCheckedExceptionsThrownByGetters() {
+        final CachingInspector inspector = new CachingInspector(new LambdaPropertyAccess(MethodHandles.lookup()));
+        final Accessor name = inspector.accessors(Typed.class_(Broken.class)).get("name");
+        Assert.assertTrue(name instanceof LambdaAccessor);
+        try {
+            name.access(null, new Broken());
+            Assert.fail("expected a MappingException");
+        } catch (MappingException ex) {
+            Assert.assertTrue(ex.getCause() instanceof java.io.IOException);
+        }
+    }
+
+    @Test
+    public void methodHandlesReachPackagePrivateMembersThroughLookup() {
+        final TypedMapper mapper = new TypedMapper(new CachingInspector(new MethodHandlePropertyAccess(MethodHandles.lookup())), Strategies.defaults(), TypedMapper.Tracing.Disabled);
+        final Hidden source = new Hidden();
+        source.name = "a";
+        source.setAge(3);
+        final Hidden got = mapper.map(source, Hidden.class);
+        Assert.assertEquals("a", got.name);
+        Assert.assertEquals(3, got.getAge());
+    }
+
+    @Test
+    public void lambdasReachPackagePrivateMembersThroughLookup() {
+        final TypedMapper mapper = new TypedMapper(new CachingInspector(new LambdaPropertyAccess(MethodHandles.lookup())), Strategies.defaults(), TypedMapper.Tracing.Disabled);
+        final Hidden source = new Hidden();
+        source.name = "a";
+        source.setAge(3);
+        final Hidden got = mapper.map(source, Hidden.class);
+        Assert.assertEquals("a", got.name);
+        Assert.assertEquals(3, got.getAge());
+    }
+
+    @Test
+    public void lambdasMapPublicPrimitiveProperties() {
+        final CachingInspector inspector = new CachingInspector(new LambdaPropertyAccess(MethodHandles.lookup()));
+        final TypedMapper mapper = new TypedMapper(inspector, Strategies.defaults(), TypedMapper.Tracing.Disabled);
+        final Visible source = new Visible();
+        source.setId(42);
+        source.label = "l";
+        final Visible got = mapper.map(source, Visible.class);
+        Assert.assertEquals(42, got.getId());
+        Assert.assertEquals("l", got.label);
+        Assert.assertTrue(inspector.accessors(Typed.class_(Visible.class)).get("id") instanceof LambdaAccessor);
+    }
+
+    @Test
+    public void reflectionIgnoresNonPublicMembers() {
+        final TypedMapper mapper = new TypedMapper(new CachingInspector(), Strategies.defaults(), TypedMapper.Tracing.Disabled);
+        final Hidden source = new Hidden();
+        source.name = "a";
+        Assert.assertNull(mapper.<Hidden>map(source, Hidden.class).name);
+    }
+
+    @Test
+    public void metadataIsBuiltOncePerKey() throws InterruptedException {
+        final CachingInspector inspector = new CachingInspector();
+        final Typed visible = Typed.class_(Visible.class);
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] threads = new Thread[8];
+        for (int i = 0; i != threads.length; ++i) {
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                inspector.mappings(visible, visible);
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(1, inspector.mappingCounters.builds());
+        Assert.assertEquals(1, inspector.accessorCounters.builds());
+        Assert.assertEquals(1, inspector.mutatorCounters.builds());
+        Assert.assertEquals(8, inspector.mappingCounters.hits() + inspector.mappingCounters.misses());
+        Assert.assertSame(inspector.mappings(visible, visible), inspector.mappings(visible, visible));
+        Assert.assertEquals(3, inspector.size());
+    }
+
+    @Test
+    public void mappingsBetweenSiblingLoadersAreBuiltOnce() throws Exception {
+        final URL classes = CachingInspectorTest.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader a = new URLClassLoader(new URL[]{classes}, null);
+                URLClassLoader b = new URLClassLoader(new URL[]{classes}, null)) {
+            final CachingInspector inspector = new CachingInspector();
+            final Typed source = Typed.class_(a.loadClass(Visible.class.getName()));
+            final Typed target = Typed.class_(b.loadClass(Visible.class.getName()));
+            Assert.assertSame(inspector.mappings(source, target), inspector.mappings(source, target));
+            Assert.assertEquals(1, inspector.mappingCounters.builds());
+        }
+    }
+}
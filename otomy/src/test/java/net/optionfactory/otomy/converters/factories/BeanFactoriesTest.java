@@ -0,0 +1,68 @@
+package net.optionfactory.otomy.converters.factories;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import net.optionfactory.otomy.Mapper;
+import net.optionfactory.otomy.TypedMapper;
+import net.optionfactory.otomy.converters.CachingInspector;
+import net.optionfactory.otomy.converters.strategies.Strategies;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BeanFactoriesTest {
+
+    public static class Bean {
+
+        public String name;
+    }
+
+    public static class Created {
+
+        public final String origin;
+        public String name;
+
+        private Created(String origin) {
+            this.origin = origin;
+        }
+
+        public static Created create() {
+            return new Created("factory");
+        }
+    }
+
+    public static abstract class Abstract {
+    }
+
+    @Test
+    public void suppliersAreResolvedOncePerClass() {
+        final AtomicInteger probes = new AtomicInteger();
+        final BeanFactory counting = type -> {
+            probes.incrementAndGet();
+            return Optional.empty();
+        };
+        final BeanFactories factories = new BeanFactories(Arrays.asList(counting, new ConstructorBeanFactory()));
+        final Supplier<?> supplier = factories.supplier(Bean.class).get();
+        Assert.assertSame(supplier, factories.supplier(Bean.class).get());
+        Assert.assertTrue(supplier.get() instanceof Bean);
+        Assert.assertNotSame(supplier.get(), supplier.get());
+        Assert.assertFalse(factories.supplier(Created.class).isPresent());
+        Assert.assertFalse(factories.supplier(Created.class).isPresent());
+        Assert.assertFalse(factories.supplier(Abstract.class).isPresent());
+        Assert.assertEquals(3, probes.get());
+    }
+
+    @Test
+    public void customFactoriesCreateBeansWithoutNoArgConstructor() {
+        final Strategies strategies = Strategies.defaults(Collections.emptySet(), Collections.emptyList(), Collections.singletonList(BeanFactory.of(Created.class, Created::create)), Collections.emptyList(), Collections.emptyList());
+        final Mapper mapper = new TypedMapper(new CachingInspector(), strategies, TypedMapper.Tracing.Disabled);
+        final Bean source = new Bean();
+        source.name = "a";
+        final Created got = mapper.map(source, Created.class);
+        Assert.assertEquals("factory", got.origin);
+        Assert.assertEquals("a", got.name);
+        Assert.assertEquals("a", mapper.prepare(Bean.class, Created.class).apply(source).name);
+    }
+}
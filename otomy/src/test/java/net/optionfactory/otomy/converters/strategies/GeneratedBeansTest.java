@@ -0,0 +1,234 @@
+package net.optionfactory.otomy.converters.strategies;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import net.optionfactory.otomy.Mapper;
+import net.optionfactory.otomy.TypedMapper;
+import net.optionfactory.otomy.converters.CachingInspector;
+import net.optionfactory.otomy.converters.Context;
+import net.optionfactory.otomy.converters.Conversion;
+import net.optionfactory.otomy.converters.Converter;
+import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.types.Typed;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GeneratedBeansTest {
+
+    public enum Kind {
+        A, B
+    }
+
+    public static class Child {
+
+        public String name;
+    }
+
+    public static class Flat {
+
+        public int i;
+        public long l;
+        public double d;
+        public boolean b;
+        public String s;
+        public Kind kind;
+        public BigDecimal amount;
+        private char c;
+        private Integer boxed;
+        private Child child;
+        private List<Child> children;
+
+        public char getC() {
+            return c;
+        }
+
+        public void setC(char c) {
+            this.c = c;
+        }
+
+        public Integer getBoxed() {
+            return boxed;
+        }
+
+        public Flat setBoxed(Integer boxed) {
+            this.boxed = boxed;
+            return this;
+        }
+
+        public Child getChild() {
+            return child;
+        }
+
+        public void setChild(Child child) {
+            this.child = child;
+        }
+
+        public List<Child> getChildren() {
+            return children;
+        }
+
+        public void setChildren(List<Child> children) {
+            this.children = children;
+        }
+    }
+
+    public static class Widened {
+
+        public long i;
+        public int boxed;
+        public String s;
+        public Kind kind;
+    }
+
+    public static class Holder<T> {
+
+        public T value;
+    }
+
+    public static class StringHolder {
+
+        public String value;
+    }
+
+    static class Hidden {
+
+        public String s;
+    }
+
+    private final Mapper mapper = new TypedMapper(new CachingInspector(), Strategies.defaults(), TypedMapper.Tracing.Disabled);
+
+    @Test
+    public void copiesPrimitivesImmutablesAndNestedProperties() {
+        final Child child = new Child();
+        child.name = "c";
+        final Flat source = new Flat();
+        source.i = 1;
+        source.l = 2;
+        source.d = 3.5;
+        source.b = true;
+        source.s = "s";
+        source.kind = Kind.B;
+        source.amount = BigDecimal.TEN;
+        source.setC('x');
+        source.setBoxed(7);
+        source.setChild(child);
+        source.setChildren(Collections.singletonList(child));
+
+        final Flat got = mapper.map(source, Flat.class);
+        Assert.assertEquals(1, got.i);
+        Assert.assertEquals(2, got.l);
+        Assert.assertEquals(3.5, got.d, 0);
+        Assert.assertTrue(got.b);
+        Assert.assertEquals("s", got.s);
+        Assert.assertEquals(Kind.B, got.kind);
+        Assert.assertEquals(BigDecimal.TEN, got.amount);
+        Assert.assertEquals('x', got.getC());
+        Assert.assertEquals(Integer.valueOf(7), got.getBoxed());
+        Assert.assertNotSame(child, got.getChild());
+        Assert.assertEquals("c", got.getChild().name);
+        Assert.assertEquals(1, got.getChildren().size());
+        Assert.assertEquals("c", got.getChildren().get(0).name);
+    }
+
+    @Test
+    public void nullPropertiesAreConvertedThroughTheContext() {
+        final Flat got = mapper.map(new Flat(), Flat.class);
+        Assert.assertNull(got.s);
+        Assert.assertNull(got.getBoxed());
+        Assert.assertNull(got.getChild());
+    }
+
+    @Test
+    public void differentlyTypedPropertiesAreConvertedThroughTheContext() {
+        final Flat source = new Flat();
+        source.i = 3;
+        source.s = "s";
+        source.kind = Kind.A;
+        source.setBoxed(5);
+        final Widened got = mapper.map(source, Widened.class);
+        Assert.assertEquals(3L, got.i);
+        Assert.assertEquals(5, got.boxed);
+        Assert.assertEquals("s", got.s);
+        Assert.assertEquals(Kind.A, got.kind);
+    }
+
+    @Test
+    public void genericPropertiesAreCopiedWithTheirResolvedType() throws NoSuchFieldException {
+        final Holder<String> source = new Holder<>();
+        source.value = "v";
+        final StringHolder got = mapper.map(Typed.field(getClass().getDeclaredField("STRING_HOLDER"), Typed.class_(getClass())), source, Typed.class_(StringHolder.class));
+        Assert.assertEquals("v", got.value);
+    }
+
+    public Holder<String> STRING_HOLDER;
+
+    @Test
+    public void preparedMappingsReuseTheGeneratedCopier() {
+        final Flat source = new Flat();
+        source.s = "s";
+        for (Flat got : Arrays.asList(mapper.prepare(Flat.class, Flat.class).apply(source), mapper.prepare(Flat.class, Flat.class).apply(source))) {
+            Assert.assertEquals("s", got.s);
+        }
+    }
+
+    @Test
+    public void plansAreGeneratedForPublicBeansOnly() {
+        final GeneratedBeans generated = new GeneratedBeans(Collections.emptySet());
+        Assert.assertTrue(generated.plan(context(Flat.class, Flat.class)) instanceof GeneratedBeans.Copier);
+        Assert.assertNull(generated.plan(context(Hidden.class, Hidden.class)));
+    }
+
+    @Test
+    public void nestedFailuresAreNotRelabelledWithTheBeanContext() {
+        final IllegalStateException failure = new IllegalStateException("bad child");
+        final Converter failing = new Converter() {
+            @Override
+            public Conversion<?> convert(MappingContext ctx, Object source) {
+                throw failure;
+            }
+
+            @Override
+            public boolean applies(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+                return sourceClass == Child.class;
+            }
+        };
+        final Mapper tracing = new TypedMapper(new CachingInspector(), Strategies.composite(failing, Strategies.defaults()), TypedMapper.Tracing.Enabled);
+        final Flat source = new Flat();
+        source.setChildren(Collections.singletonList(new Child()));
+        try {
+            tracing.map(source, Flat.class);
+            Assert.fail("expected a failure");
+        } catch (IllegalStateException ex) {
+            Assert.assertSame(failure, ex);
+        }
+    }
+
+    @Test
+    public void copiersAreReplannedOncePerInspectorAndConverter() {
+        final GeneratedBeans generated = new GeneratedBeans(Collections.emptySet());
+        final Flat source = new Flat();
+        source.s = "s";
+        generated.apply(context(Flat.class, Flat.class), source);
+        final CachingInspector inspector = new CachingInspector();
+        final MappingContext other = context(Flat.class, Flat.class, inspector);
+        Assert.assertEquals("s", ((Flat) generated.apply(other, source)).s);
+        final long lookups = inspector.mappingCounters.hits() + inspector.mappingCounters.misses();
+        for (int i = 0; i != 3; ++i) {
+            Assert.assertEquals("s", ((Flat) generated.apply(other, source)).s);
+        }
+        Assert.assertEquals(lookups, inspector.mappingCounters.hits() + inspector.mappingCounters.misses());
+    }
+
+    private static MappingContext context(Class<?> source, Class<?> target) {
+        return context(source, target, new CachingInspector());
+    }
+
+    private static MappingContext context(Class<?> source, Class<?> target, CachingInspector inspector) {
+        final Converter converter = Strategies.defaults();
+        final Context srcCtx = new Context(Typed.class_(source), TypedMapper.Tracing.Disabled);
+        final Context dstCtx = new Context(Typed.class_(target), TypedMapper.Tracing.Disabled);
+        return new MappingContext(srcCtx, dstCtx, inspector, converter);
+    }
+}
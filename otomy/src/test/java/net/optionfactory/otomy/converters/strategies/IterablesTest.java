@@ -0,0 +1,105 @@
+package net.optionfactory.otomy.converters.strategies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import net.optionfactory.otomy.Mapper;
+import net.optionfactory.otomy.TypedMapper;
+import net.optionfactory.otomy.converters.CachingInspector;
+import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.converters.Parallelism;
+import net.optionfactory.otomy.converters.ValueConverter;
+import net.optionfactory.otomy.types.Typed;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IterablesTest {
+
+    public List<String> list;
+    public Set<String> set;
+    public Map<String, Integer> integers;
+    public LinkedHashMap<String, Long> longs;
+    public LinkedHashMap<String, String> strings;
+
+    private static Typed field(String name) throws NoSuchFieldException {
+        return Typed.field(IterablesTest.class.getField(name), Typed.class_(IterablesTest.class));
+    }
+
+    public static class NullToDash implements ValueConverter {
+
+        @Override
+        public Object apply(MappingContext ctx, Object source) {
+            return source == null ? "-" : NO;
+        }
+
+        @Override
+        public boolean applies(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+            return nullSource && targetClass == String.class;
+        }
+    }
+
+    private final Mapper mapper = new TypedMapper(new CachingInspector(), Strategies.defaults(), TypedMapper.Tracing.Disabled);
+
+    @Test
+    public void copiesImmutableElementsInBulk() throws NoSuchFieldException {
+        Assert.assertEquals(new HashSet<>(Arrays.asList("a", "b")), mapper.map(field("list"), Arrays.asList("a", "b", "a"), field("set")));
+        Assert.assertEquals(Arrays.asList("a", "b"), mapper.map(Typed.class_(String[].class), new String[]{"a", "b"}, field("list")));
+        Assert.assertArrayEquals(new String[]{"a", "b"}, mapper.<String[]>map(field("list"), Arrays.asList("a", "b"), Typed.class_(String[].class)));
+    }
+
+    @Test
+    public void copiesImmutableKeysAndConvertsValues() throws NoSuchFieldException {
+        final Map<String, Integer> source = new LinkedHashMap<>();
+        source.put("a", 1);
+        source.put("b", 2);
+        final Map<String, Long> got = mapper.map(field("integers"), source, field("longs"));
+        Assert.assertEquals(Arrays.asList("a", "b"), Arrays.asList(got.keySet().toArray()));
+        Assert.assertEquals(Long.valueOf(2), got.get("b"));
+    }
+
+    @Test
+    public void nullElementsAreStillConverted() throws NoSuchFieldException {
+        final Mapper dashing = new TypedMapper(new CachingInspector(), Strategies.defaults(Collections.emptySet(), Collections.emptyList(), Collections.singletonList(new NullToDash()), Collections.emptyList()), TypedMapper.Tracing.Disabled);
+        Assert.assertEquals(Arrays.asList("a", "-"), dashing.map(Typed.class_(String[].class), new String[]{"a", null}, field("list")));
+        final Map<String, String> source = new LinkedHashMap<>();
+        source.put("a", null);
+        Assert.assertEquals(Collections.singletonMap("a", "-"), dashing.map(field("strings"), source, field("strings")));
+    }
+
+    @Test
+    public void largeSourcesAreMappedConcurrentlyInEncounterOrder() throws NoSuchFieldException {
+        final Integer[] source = new Integer[10_000];
+        final Map<String, Integer> sourceMap = new LinkedHashMap<>();
+        for (int i = 0; i != source.length; ++i) {
+            source[i] = i;
+            sourceMap.put(Integer.toString(i), i);
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (Parallelism parallelism : Arrays.asList(Parallelism.common(64), new Parallelism(64, executor))) {
+                final Mapper parallel = new TypedMapper(new CachingInspector(), Strategies.defaults(parallelism), TypedMapper.Tracing.Disabled);
+                final List<String> list = parallel.map(Typed.class_(Integer[].class), source, field("list"));
+                final String[] array = parallel.map(source, String[].class);
+                final Map<String, Long> map = parallel.map(field("integers"), sourceMap, field("longs"));
+                for (int i = 0; i != source.length; ++i) {
+                    Assert.assertEquals(Integer.toString(i), list.get(i));
+                    Assert.assertEquals(Integer.toString(i), array[i]);
+                }
+                Assert.assertEquals(new ArrayList<>(sourceMap.keySet()), new ArrayList<>(map.keySet()));
+                Assert.assertEquals(Long.valueOf(9_999), map.get("9999"));
+                Assert.assertEquals(list, mapper.map(Arrays.asList(source), String.class, parallelism));
+                Assert.assertEquals(list, mapper.map(Arrays.asList(source).iterator(), String.class, parallelism).collect(Collectors.toList()));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package net.optionfactory.otomy.converters.strategies;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import net.optionfactory.otomy.Mapper;
+import net.optionfactory.otomy.TypedMapper;
+import net.optionfactory.otomy.converters.CachingInspector;
+import net.optionfactory.otomy.converters.Context;
+import net.optionfactory.otomy.converters.Converter;
+import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.types.Typed;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LazyBeansTest {
+
+    public static class Child {
+
+        public String name;
+    }
+
+    public static class Parent {
+
+        private String name;
+        private Child child;
+        private List<Child> children;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Child getChild() {
+            return child;
+        }
+
+        public void setChild(Child child) {
+            this.child = child;
+        }
+
+        public List<Child> getChildren() {
+            return children;
+        }
+
+        public void setChildren(List<Child> children) {
+            this.children = children;
+        }
+    }
+
+    public interface ChildView {
+
+        String getName();
+    }
+
+    public interface ParentView {
+
+        String getName();
+
+        ChildView getChild();
+
+        void setChild(ChildView child);
+    }
+
+    public interface FamilyView {
+
+        String getName();
+
+        List<ChildView> getChildren();
+    }
+
+    private final Mapper mapper = new TypedMapper(new CachingInspector(), Strategies.lazy(), TypedMapper.Tracing.Disabled);
+
+    @Test
+    public void nestedPropertiesAreConvertedOnFirstAccess() {
+        final Parent source = parent("p", "c");
+        final Parent got = mapper.map(source, Parent.class);
+        Assert.assertNotSame(Parent.class, got.getClass());
+        Assert.assertEquals("p", got.getName());
+        source.getChild().name = "changed";
+        source.getChildren().get(0).name = "changed";
+        Assert.assertEquals("changed", got.getChild().name);
+        Assert.assertEquals("changed", got.getChildren().get(0).name);
+        source.getChild().name = "ignored";
+        Assert.assertEquals("changed", got.getChild().name);
+    }
+
+    @Test
+    public void immutablePropertiesAreCopiedEagerly() {
+        final Parent source = parent("p", "c");
+        final Parent got = mapper.map(source, Parent.class);
+        source.setName("changed");
+        Assert.assertEquals("p", got.getName());
+    }
+
+    @Test
+    public void settingAPropertyDiscardsItsPendingConversion() {
+        final Parent got = mapper.map(parent("p", "c"), Parent.class);
+        final Child replaced = new Child();
+        got.setChild(replaced);
+        Assert.assertSame(replaced, got.getChild());
+        Assert.assertEquals("c", got.getChildren().get(0).name);
+    }
+
+    @Test
+    public void interfacesAreImplementedWithLazyProperties() {
+        final Parent source = parent("p", "c");
+        final ParentView got = mapper.map(source, ParentView.class);
+        Assert.assertEquals("p", got.getName());
+        source.getChild().name = "changed";
+        Assert.assertEquals("changed", got.getChild().getName());
+        got.setChild(null);
+        Assert.assertNull(got.getChild());
+    }
+
+    @Test
+    public void lazyTargetsCanBeMappedAgain() {
+        final Mapper eager = new TypedMapper(new CachingInspector(), Strategies.defaults(), TypedMapper.Tracing.Disabled);
+        final FamilyView view = mapper.map(parent("p", "c"), FamilyView.class);
+        Assert.assertEquals(0, view.getClass().getFields().length);
+        final Parent fromView = eager.map(view, Parent.class);
+        Assert.assertEquals("p", fromView.getName());
+        Assert.assertEquals("c", fromView.getChildren().get(0).name);
+
+        final Parent lazy = mapper.map(parent("q", "d"), Parent.class);
+        Assert.assertEquals(0, lazy.getClass().getFields().length);
+        final Parent fromLazy = eager.map(lazy, Parent.class);
+        Assert.assertSame(Parent.class, fromLazy.getClass());
+        Assert.assertEquals("d", fromLazy.getChildren().get(0).name);
+    }
+
+    @Test
+    public void mappingsTrackingIdentitiesAreNotDeferred() {
+        final Mapper tracking = new TypedMapper(new CachingInspector(), Strategies.lazy(), TypedMapper.Tracing.Disabled, TypedMapper.Identity.Enabled);
+        final Parent got = tracking.map(parent("p", "c"), Parent.class);
+        Assert.assertSame(Parent.class, got.getClass());
+        Assert.assertEquals("c", got.getChildren().get(0).name);
+    }
+
+    @Test
+    public void eagerDefaultsAreUnaffected() {
+        final Mapper eager = new TypedMapper(new CachingInspector(), Strategies.defaults(), TypedMapper.Tracing.Disabled);
+        final Parent got = eager.map(parent("p", "c"), Parent.class);
+        Assert.assertSame(Parent.class, got.getClass());
+    }
+
+    @Test
+    public void targetsWithoutPropertiesToDeferAreNotPlanned() {
+        Assert.assertFalse(new LazyBeans(Collections.emptySet()).applies(Parent.class, String.class, false));
+        Assert.assertFalse(new LazyBeans(Collections.emptySet()).applies(Parent.class, Child.class, true));
+        final Child got = mapper.map(new Child(), Child.class);
+        Assert.assertSame(Child.class, got.getClass());
+    }
+
+    @Test
+    public void plansAreRebuiltOncePerInspectorAndConverter() {
+        final LazyBeans lazy = new LazyBeans();
+        final Converter converter = Strategies.lazy();
+        lazy.apply(context(new CachingInspector(), converter), parent("p", "c"));
+        final CachingInspector inspector = new CachingInspector();
+        final MappingContext other = context(inspector, converter);
+        Assert.assertEquals("p", ((Parent) lazy.apply(other, parent("p", "c"))).getName());
+        final long lookups = inspector.mappingCounters.hits() + inspector.mappingCounters.misses();
+        for (int i = 0; i != 3; ++i) {
+            Assert.assertEquals("p", ((Parent) lazy.apply(other, parent("p", "c"))).getName());
+        }
+        Assert.assertEquals(lookups, inspector.mappingCounters.hits() + inspector.mappingCounters.misses());
+    }
+
+    private static MappingContext context(CachingInspector inspector, Converter converter) {
+        final Context srcCtx = new Context(Typed.class_(Parent.class), TypedMapper.Tracing.Disabled);
+        final Context dstCtx = new Context(Typed.class_(Parent.class), TypedMapper.Tracing.Disabled);
+        return new MappingContext(srcCtx, dstCtx, inspector, converter);
+    }
+
+    private static Parent parent(String name, String childName) {
+        final Child child = new Child();
+        child.name = childName;
+        final Child element = new Child();
+        element.name = childName;
+        final List<Child> children = new ArrayList<>();
+        children.add(element);
+        final Parent parent = new Parent();
+        parent.setName(name);
+        parent.setChild(child);
+        parent.setChildren(children);
+        return parent;
+    }
+}
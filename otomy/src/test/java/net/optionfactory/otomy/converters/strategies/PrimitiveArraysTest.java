@@ -0,0 +1,73 @@
+package net.optionfactory.otomy.converters.strategies;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import net.optionfactory.otomy.Mapper;
+import net.optionfactory.otomy.TypedMapper;
+import net.optionfactory.otomy.converters.CachingInspector;
+import net.optionfactory.otomy.types.Typed;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PrimitiveArraysTest {
+
+    public List<Integer> integers;
+    public List<Double> doubles;
+    public Set<Long> longs;
+
+    private final Mapper mapper = new TypedMapper(new CachingInspector(), Strategies.defaults(), TypedMapper.Tracing.Disabled);
+
+    private static Typed field(String name) throws NoSuchFieldException {
+        return Typed.field(PrimitiveArraysTest.class.getField(name), Typed.class_(PrimitiveArraysTest.class));
+    }
+
+    @Test
+    public void copiesAndWidensPrimitiveArrays() {
+        final int[] source = {1, 2, 3};
+        final int[] copy = mapper.map(source, int[].class);
+        Assert.assertArrayEquals(source, copy);
+        Assert.assertNotSame(source, copy);
+        Assert.assertArrayEquals(new long[]{1, 2, 3}, mapper.<long[]>map(source, long[].class));
+        Assert.assertArrayEquals(new double[]{1, 2, 3}, mapper.<double[]>map(new char[]{1, 2, 3}, double[].class), 0);
+        Assert.assertArrayEquals(new int[]{1, 2}, mapper.<int[]>map(new long[]{1, 2}, int[].class));
+    }
+
+    @Test
+    public void mapsPrimitiveArraysToAndFromBoxedCollections() throws NoSuchFieldException {
+        Assert.assertEquals(Arrays.asList(1, 2), mapper.map(Typed.class_(int[].class), new int[]{1, 2}, field("integers")));
+        Assert.assertEquals(Arrays.asList(1d, 2d), mapper.map(Typed.class_(int[].class), new int[]{1, 2}, field("doubles")));
+        Assert.assertArrayEquals(new long[]{3, 4}, mapper.<long[]>map(field("integers"), Arrays.asList(3, 4), Typed.class_(long[].class)));
+        Assert.assertEquals(Collections.singleton(5L), mapper.map(Typed.class_(long[].class), new long[]{5}, field("longs")));
+    }
+
+    @Test
+    public void mapsAtomicArrays() throws NoSuchFieldException {
+        Assert.assertArrayEquals(new long[]{1, 2}, mapper.<long[]>map(new AtomicLongArray(new long[]{1, 2}), long[].class));
+        Assert.assertArrayEquals(new double[]{1, 2}, mapper.<double[]>map(new AtomicIntegerArray(new int[]{1, 2}), double[].class), 0);
+        final AtomicIntegerArray atomic = mapper.map(new short[]{7, 8}, AtomicIntegerArray.class);
+        Assert.assertEquals(8, atomic.get(1));
+        Assert.assertEquals(Arrays.asList(9, 10), mapper.map(Typed.class_(AtomicIntegerArray.class), new AtomicIntegerArray(new int[]{9, 10}), field("integers")));
+    }
+
+    @Test
+    public void mapsAtomicAndPrimitiveArraysToAndFromBoxedArrays() {
+        final PrimitiveArrays arrays = new PrimitiveArrays(null);
+        Assert.assertTrue(arrays.applies(AtomicLongArray.class, Long[].class, false));
+        Assert.assertTrue(arrays.applies(Integer[].class, int[].class, false));
+        Assert.assertFalse(arrays.applies(Integer[].class, String[].class, false));
+        Assert.assertArrayEquals(new Long[]{1L, 2L}, mapper.<Long[]>map(new AtomicLongArray(new long[]{1, 2}), Long[].class));
+        Assert.assertArrayEquals(new Double[]{3d}, mapper.<Double[]>map(new AtomicIntegerArray(new int[]{3}), Double[].class));
+        Assert.assertArrayEquals(new Short[]{4}, mapper.<Short[]>map(new byte[]{4}, Short[].class));
+        Assert.assertArrayEquals(new long[]{5, 6}, mapper.<long[]>map(new Integer[]{5, 6}, long[].class));
+        Assert.assertArrayEquals(new int[]{7}, mapper.<int[]>map(new Integer[]{7}, int[].class));
+    }
+
+    @Test
+    public void objectArraysStillMapElementValues() {
+        Assert.assertArrayEquals(new String[]{"1", "2"}, mapper.<String[]>map(new Integer[]{1, 2}, String[].class));
+    }
+}
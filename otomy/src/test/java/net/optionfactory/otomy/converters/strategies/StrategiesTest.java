@@ -0,0 +1,161 @@
+package net.optionfactory.otomy.converters.strategies;
+
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.optionfactory.otomy.TypedMapper;
+import net.optionfactory.otomy.converters.CachingInspector;
+import net.optionfactory.otomy.converters.Conversion;
+import net.optionfactory.otomy.converters.Converter;
+import net.optionfactory.otomy.converters.MappingContext;
+import net.optionfactory.otomy.converters.ValueConverter;
+import net.optionfactory.otomy.types.Typed;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StrategiesTest {
+
+    public enum Plugin {
+        A
+    }
+
+    public static class Money {
+
+        public long cents;
+    }
+
+    public static class CountingConverter implements Converter {
+
+        public final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public Conversion<?> convert(MappingContext ctx, Object source) {
+            calls.incrementAndGet();
+            return Conversion.of(String.format("%d.%02d", ((Money) source).cents / 100, ((Money) source).cents % 100));
+        }
+
+        @Override
+        public boolean applies(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+            return !nullSource && sourceClass == Money.class && targetClass == String.class;
+        }
+
+    }
+
+    public static class Wallet {
+
+        public List<Money> coins;
+        public Optional<Money> main;
+    }
+
+    public static class WalletDto {
+
+        public List<String> coins;
+        public Optional<String> main;
+    }
+
+    public static class ContextRecordingConverter extends CountingConverter {
+
+        public final Map<MappingContext, Boolean> contexts = Collections.synchronizedMap(new IdentityHashMap<>());
+
+        @Override
+        public Conversion<?> convert(MappingContext ctx, Object source) {
+            contexts.put(ctx, true);
+            return super.convert(ctx, source);
+        }
+    }
+
+    @Test
+    public void untracedMappingsReusePlannedContexts() {
+        final ContextRecordingConverter money = new ContextRecordingConverter();
+        final Strategies strategies = Strategies.defaults(Collections.emptySet(), Collections.emptyList(), Collections.emptyList(), Collections.singletonList(money));
+        final TypedMapper mapper = new TypedMapper(new CachingInspector(), strategies, TypedMapper.Tracing.Disabled);
+        final Money one = new Money();
+        one.cents = 100;
+        final Money two = new Money();
+        two.cents = 200;
+        final Wallet wallet = new Wallet();
+        wallet.coins = Arrays.asList(one, two);
+        wallet.main = Optional.of(two);
+        for (int i = 0; i != 3; ++i) {
+            final WalletDto got = mapper.map(wallet, WalletDto.class);
+            Assert.assertEquals(Arrays.asList("1.00", "2.00"), got.coins);
+            Assert.assertEquals(Optional.of("2.00"), got.main);
+        }
+        Assert.assertEquals(9, money.calls.get());
+        Assert.assertEquals(2, money.contexts.size());
+    }
+
+    @Test
+    public void customConverterIsOnlyProbedForDeclaredClasses() {
+        final CountingConverter money = new CountingConverter();
+        final Strategies strategies = Strategies.defaults(Collections.emptySet(), Collections.emptyList(), Collections.emptyList(), Collections.singletonList(money));
+        final TypedMapper mapper = new TypedMapper(new CachingInspector(), strategies, TypedMapper.Tracing.Disabled);
+        final Money source = new Money();
+        source.cents = 1234;
+        Assert.assertEquals("12.34", mapper.map(source, String.class));
+        Assert.assertEquals("42", mapper.map(42, String.class));
+        Assert.assertEquals(1, money.calls.get());
+    }
+
+    @Test
+    public void valueConvertersYieldValuesAndNullsDirectly() {
+        final ValueConverter zeroIsNull = new ValueConverter() {
+            @Override
+            public Object apply(MappingContext ctx, Object source) {
+                final long cents = ((Money) source).cents;
+                return cents == 0 ? null : cents < 0 ? NO : Long.toString(cents);
+            }
+
+            @Override
+            public boolean applies(Class<?> sourceClass, Class<?> targetClass, boolean nullSource) {
+                return !nullSource && sourceClass == Money.class && targetClass == String.class;
+            }
+        };
+        final Strategies strategies = Strategies.defaults(Collections.emptySet(), Collections.emptyList(), Collections.emptyList(), Collections.singletonList(zeroIsNull));
+        final TypedMapper mapper = new TypedMapper(new CachingInspector(), strategies, TypedMapper.Tracing.Disabled);
+        final Money money = new Money();
+        Assert.assertNull(mapper.map(money, String.class));
+        money.cents = 5;
+        Assert.assertEquals("5", mapper.map(money, String.class));
+        money.cents = -5;
+        Assert.assertTrue(mapper.<String>map(money, String.class).startsWith(Money.class.getName()));
+        Assert.assertFalse(zeroIsNull.convert(null, money).valid);
+    }
+
+    @Test
+    public void nullsAreDispatchedSeparatelyFromValues() {
+        final TypedMapper mapper = new TypedMapper(new CachingInspector(), Strategies.defaults(), TypedMapper.Tracing.Disabled);
+        Assert.assertEquals(Long.valueOf(3), mapper.map(String.class, "3", Long.class));
+        Assert.assertNull(mapper.map(Typed.class_(String.class), null, Typed.class_(Long.class)));
+        Assert.assertEquals(Long.valueOf(4), mapper.map(String.class, "4", Long.class));
+    }
+
+    @Test
+    public void dispatchIndexDoesNotPinSourceClassLoaders() throws Exception {
+        final Strategies strategies = Strategies.defaults();
+        final WeakReference<ClassLoader> loader = indexForeignEnum(strategies);
+        for (int i = 0; i != 100 && loader.get() != null; ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertNull(loader.get());
+        Assert.assertTrue(strategies.applies(Plugin.class, String.class, false));
+    }
+
+    private static WeakReference<ClassLoader> indexForeignEnum(Strategies strategies) throws Exception {
+        final URL classes = StrategiesTest.class.getProtectionDomain().getCodeSource().getLocation();
+        final URLClassLoader loader = new URLClassLoader(new URL[]{classes}, null);
+        final Class<?> foreign = loader.loadClass(Plugin.class.getName());
+        Assert.assertNotSame(Plugin.class, foreign);
+        Assert.assertTrue(strategies.applies(foreign, String.class, false));
+        loader.close();
+        return new WeakReference<>(loader);
+    }
+}
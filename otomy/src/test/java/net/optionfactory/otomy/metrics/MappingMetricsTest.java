@@ -0,0 +1,68 @@
+package net.optionfactory.otomy.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import net.optionfactory.otomy.Mapper;
+import net.optionfactory.otomy.MappingFunction;
+import net.optionfactory.otomy.TypedMapper;
+import net.optionfactory.otomy.converters.CachingInspector;
+import net.optionfactory.otomy.converters.MappingException;
+import net.optionfactory.otomy.converters.strategies.Strategies;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MappingMetricsTest {
+
+    public static class Bean {
+
+        public String name;
+    }
+
+    public static class Unmappable {
+    }
+
+    @Test
+    public void countsCallsFailuresAndConverterOutcomes() throws Exception {
+        final CachingInspector inspector = new CachingInspector();
+        final MappingMetrics metrics = new MappingMetrics(inspector);
+        final Mapper mapper = metrics.mapper(new TypedMapper(inspector, Strategies.defaults().decorate(metrics::converter), TypedMapper.Tracing.Disabled));
+        final Bean source = new Bean();
+        source.name = "a";
+        mapper.map(source, Bean.class);
+        final MappingFunction<Bean, Bean> prepared = mapper.prepare(Bean.class, Bean.class);
+        prepared.apply(source);
+        try {
+            mapper.map(new Unmappable(), Integer.class);
+            Assert.fail();
+        } catch (MappingException ex) {
+        }
+        final String pair = Bean.class.getName() + " -> " + Bean.class.getName();
+        Assert.assertEquals(Long.valueOf(2), metrics.getCalls().get(pair));
+        Assert.assertEquals(Long.valueOf(1), metrics.getFailures().get(Unmappable.class.getName() + " -> " + Integer.class.getName()));
+        Assert.assertEquals(2, sum(metrics.getLatencies().get(pair)));
+        Assert.assertTrue(metrics.getConverterHits().values().stream().mapToLong(Long::longValue).sum() > 0);
+        Assert.assertTrue(metrics.getInspectorCacheSize() > 0);
+        Assert.assertTrue(metrics.getInspectorHitRatio() > 0);
+
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name = metrics.register(server, "net.optionfactory.otomy:type=MappingMetrics,name=test");
+        try {
+            Assert.assertNotNull(server.getAttribute(name, "Calls"));
+            Assert.assertNotNull(server.getAttribute(name, "Latencies"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+        metrics.reset();
+        Assert.assertTrue(metrics.getCalls().isEmpty());
+    }
+
+    private static long sum(long[] values) {
+        long sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,95 @@
+package net.optionfactory.otomy.metrics;
+
+import java.util.Arrays;
+import java.util.List;
+import net.optionfactory.otomy.Mapper;
+import net.optionfactory.otomy.TypedMapper;
+import net.optionfactory.otomy.converters.CachingInspector;
+import net.optionfactory.otomy.converters.MappingException;
+import net.optionfactory.otomy.converters.strategies.Strategies;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SampledTracingTest {
+
+    public static class Line {
+
+        public String product;
+    }
+
+    public static class Order {
+
+        public String code;
+        public List<Line> lines;
+    }
+
+    @Test
+    public void aggregatesTracedPathsAsFoldedStacks() {
+        final SampledTracing tracing = new SampledTracing(1);
+        final Mapper mapper = tracing.mapper(new TypedMapper(new CachingInspector(), Strategies.defaults().decorate(tracing::converter), TypedMapper.Tracing.Sampled));
+        final Line a = new Line();
+        a.product = "a";
+        final Line b = new Line();
+        b.product = "b";
+        final Order order = new Order();
+        order.code = "o";
+        order.lines = Arrays.asList(a, b);
+        mapper.map(order, Order.class);
+        mapper.map(order, Order.class);
+
+        Assert.assertEquals(2, tracing.samples());
+        final SampledTracing.Stats products = tracing.paths().values().stream()
+                .filter(s -> s.stack.endsWith(";lines:Iterables;*:GeneratedBeans"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError(tracing.folded()));
+        Assert.assertEquals(4, products.visits());
+        Assert.assertTrue(products.nanos() >= products.selfNanos());
+        Assert.assertTrue(tracing.folded().startsWith(Order.class.getName() + "->" + Order.class.getName()));
+        tracing.reset();
+        Assert.assertTrue(tracing.paths().isEmpty());
+    }
+
+    public static class FragileLine {
+
+        private static int built;
+        public String product;
+
+        public FragileLine() {
+            if (++built == 4) {
+                throw new IllegalStateException("fourth line");
+            }
+        }
+    }
+
+    public static class FragileOrder {
+
+        public List<FragileLine> lines;
+    }
+
+    @Test
+    public void elementFailuresDoNotReportAnotherElementIndex() {
+        final Mapper mapper = new TypedMapper(new CachingInspector(), Strategies.defaults(), TypedMapper.Tracing.Sampled);
+        final Order order = new Order();
+        order.lines = Arrays.asList(new Line(), new Line(), new Line(), new Line());
+        FragileLine.built = 0;
+        try {
+            mapper.map(order, FragileOrder.class);
+            Assert.fail("expected a MappingException");
+        } catch (MappingException ex) {
+            Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("lines.*::"));
+            Assert.assertFalse(ex.getMessage(), ex.getMessage().contains("lines.0"));
+        }
+    }
+
+    @Test
+    public void unsampledCallsAreNotTraced() {
+        final SampledTracing tracing = new SampledTracing(Integer.MAX_VALUE);
+        final Mapper mapper = tracing.mapper(new TypedMapper(new CachingInspector(), Strategies.defaults().decorate(tracing::converter), TypedMapper.Tracing.Sampled));
+        final Order order = new Order();
+        order.code = "o";
+        for (int i = 0; i != 100; ++i) {
+            mapper.map(order, Order.class);
+        }
+        Assert.assertTrue(tracing.samples() < 2);
+    }
+}
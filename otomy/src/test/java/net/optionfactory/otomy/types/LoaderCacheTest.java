@@ -0,0 +1,95 @@
+package net.optionfactory.otomy.types;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LoaderCacheTest {
+
+    public List<LoaderCacheTest> owned;
+
+    public static class Owned {
+    }
+
+    @Test
+    public void partitionsAreBounded() {
+        final LoaderCache<Integer, String> cache = new LoaderCache<>(8, k -> LoaderCacheTest.class);
+        for (int i = 0; i != 100; ++i) {
+            cache.put(i, Integer.toString(i));
+        }
+        Assert.assertTrue(cache.size() <= 8);
+        Assert.assertEquals("99", cache.get(99));
+    }
+
+    @Test
+    public void evictionSparesEntriesReadSinceTheLastOne() {
+        final LoaderCache<Integer, String> cache = new LoaderCache<>(8, k -> LoaderCacheTest.class);
+        for (int i = 0; i != 100; ++i) {
+            cache.put(i, Integer.toString(i));
+            Assert.assertEquals("0", cache.get(0));
+        }
+        Assert.assertTrue(cache.size() <= 8);
+    }
+
+    @Test
+    public void keysReferringToUnrelatedLoadersAreCachedAside() throws Exception {
+        final URL classes = LoaderCacheTest.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader a = new URLClassLoader(new URL[]{classes}, null);
+                URLClassLoader b = new URLClassLoader(new URL[]{classes}, null)) {
+            final Class<?> inA = a.loadClass(Owned.class.getName());
+            final Class<?> inB = b.loadClass(Owned.class.getName());
+            Assert.assertSame(Types.UNRELATED, Types.younger(inA, inB));
+            Assert.assertSame(Types.UNRELATED, Types.younger(inB, inA));
+            Assert.assertSame(Types.UNRELATED, Types.younger(inA, Owned.class));
+            Assert.assertSame(inA, Types.younger(String.class, inA));
+            Assert.assertSame(inA, Types.younger(inA, String.class));
+            final LoaderCache<List<Class<?>>, String> cache = new LoaderCache<>(64, k -> Types.younger(k.get(0), k.get(1)));
+            cache.put(Arrays.asList(inA, inB), "mixed");
+            Assert.assertEquals("computed", cache.computeIfAbsent(Arrays.asList(inB, inA), k -> "computed"));
+            Assert.assertEquals("computed", cache.computeIfAbsent(Arrays.asList(inB, inA), k -> "recomputed"));
+            Assert.assertEquals("mixed", cache.get(Arrays.asList(inA, inB)));
+            Assert.assertEquals(2, cache.size());
+            cache.invalidate(b);
+            Assert.assertEquals(0, cache.size());
+            Assert.assertNull(cache.get(Arrays.asList(inA, inB)));
+        }
+    }
+
+    @Test
+    public void unrelatedKeysAreBoundedToAnEighthOfTheBound() {
+        final LoaderCache<Integer, String> cache = new LoaderCache<>(64, k -> Types.UNRELATED);
+        for (int i = 0; i != 100; ++i) {
+            cache.put(i, Integer.toString(i));
+        }
+        Assert.assertTrue(cache.size() <= 8);
+        Assert.assertEquals("99", cache.get(99));
+    }
+
+    @Test
+    public void invalidationDropsEntriesOwnedByTheLoader() throws Exception {
+        final URL classes = LoaderCacheTest.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{classes}, null)) {
+            final Class<?> foreign = loader.loadClass(Owned.class.getName());
+            Assert.assertNotSame(Owned.class, foreign);
+            final LoaderCache<Class<?>, String> cache = new LoaderCache<>(8, Function.identity());
+            cache.put(foreign, "foreign");
+            cache.put(Owned.class, "local");
+            Assert.assertEquals(2, cache.size());
+            cache.invalidate(loader);
+            Assert.assertEquals(1, cache.size());
+            Assert.assertNull(cache.get(foreign));
+            Assert.assertEquals("local", cache.get(Owned.class));
+        }
+    }
+
+    @Test
+    public void typesAreOwnedByTheirYoungestClass() throws NoSuchFieldException {
+        final Typed type = Typed.field(LoaderCacheTest.class.getField("owned"), Typed.class_(LoaderCacheTest.class));
+        Assert.assertSame(LoaderCacheTest.class, type.owner());
+        Assert.assertSame(String.class, Typed.class_(String[].class).owner());
+    }
+}
@@ -1,5 +1,6 @@
 package net.optionfactory.otomy.types;
 
+import java.lang.reflect.Field;
 import java.util.HashMap;
 import java.util.Map;
 import org.junit.Assert;
@@ -115,4 +116,45 @@ public class TypedTest {
         Assert.assertFalse(fst.isAssignableFrom(una));
     }
 
+    public static class BeanWithString {
+
+        public String value;
+    }
+
+    @Test
+    public void typesAreCanonical() throws Exception {
+        Assert.assertSame(Typed.class_(Source.class), Typed.class_(Source.class));
+        Typed wrapped = Typed.field(Source.class.getField("wrapped"), Typed.class_(Source.class));
+        Assert.assertSame(wrapped, Typed.field(Source.class.getField("wrapped"), Typed.class_(Source.class)));
+        Assert.assertSame(wrapped, Typed.returnType(Source.class.getMethod("getWrapped"), Typed.class_(Source.class)));
+        Typed value = Typed.field(Box.class.getField("value"), wrapped);
+        Assert.assertSame(value, Typed.field(Box.class.getField("value"), wrapped));
+        Assert.assertSame(Typed.class_(String.class), Typed.field(BeanWithString.class.getField("value"), Typed.class_(BeanWithString.class)));
+    }
+
+    public static class Node<T> {
+
+        public T value;
+        public Node<T> next;
+    }
+
+    public static class Chain {
+
+        public Node<String> head;
+    }
+
+    @Test
+    public void recursiveGenericsAreCanonicalAtAnyDepth() throws Exception {
+        final Field next = Node.class.getField("next");
+        final Typed first = Typed.field(next, Typed.field(Chain.class.getField("head"), Typed.class_(Chain.class)));
+        Typed node = Typed.field(next, first);
+        final int cached = Typed.cached();
+        for (int depth = 0; depth != 1000; ++depth) {
+            node = Typed.field(next, node);
+        }
+        Assert.assertSame(first, node);
+        Assert.assertEquals(cached, Typed.cached());
+        Assert.<Class<?>>assertEquals(String.class, Typed.field(Node.class.getField("value"), node).resolve());
+    }
+
 }